@@ -0,0 +1,52 @@
+#!/usr/bin/env bash
+# Сравнение времени старта в трех режимах: обычный jar (Flyway на старте), профиль fast, профиль fast + AOT + CDS.
+# Нужна запущенная БД из application.yaml с уже накатанными миграциями:
+#   java -jar build/libs/qafordevs-reactive-1.0.0.jar migrate
+# Перед запуском: ./gradlew cdsArchive
+# Время берем из лога спринга "Started QafordevsReactiveApplication in X seconds (process running for Y)",
+# оно включает прогрев пула и подъем сервера на 8787.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+RUNS=${RUNS:-5}
+JAR=build/libs/qafordevs-reactive-1.0.0.jar
+CDS_DIR=build/cds
+CDS_JAR=$CDS_DIR/qafordevs-reactive-1.0.0.jar
+
+run_once() {
+  local log
+  log=$(mktemp)
+  "$@" --spring.main.banner-mode=off >"$log" 2>&1 &
+  local pid=$!
+  until grep -q "Started QafordevsReactiveApplication" "$log"; do
+    if ! kill -0 "$pid" 2>/dev/null; then
+      cat "$log" >&2
+      exit 1
+    fi
+    sleep 0.05
+  done
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+  sed -n 's/.*(process running for \([0-9.]*\)).*/\1/p' "$log"
+  rm -f "$log"
+}
+
+measure() {
+  local name=$1
+  shift
+  local total=0
+  local times=()
+  for _ in $(seq "$RUNS"); do
+    local t
+    t=$(run_once "$@")
+    times+=("$t")
+    total=$(echo "$total + $t" | bc -l)
+  done
+  printf '%-20s avg %.3fs  runs: %s\n' "$name" "$(echo "$total / $RUNS" | bc -l)" "${times[*]}"
+}
+
+measure "default" java -jar "$JAR"
+measure "fast" java -jar "$JAR" --spring.profiles.active=fast
+measure "fast+aot+cds" java -XX:SharedArchiveFile="$CDS_DIR/application.jsa" -Dspring.aot.enabled=true \
+  -jar "$CDS_JAR" --spring.profiles.active=fast
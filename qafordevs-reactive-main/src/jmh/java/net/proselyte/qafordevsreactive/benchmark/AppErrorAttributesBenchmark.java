@@ -0,0 +1,57 @@
+package net.proselyte.qafordevsreactive.benchmark;
+
+import net.proselyte.qafordevsreactive.errorhandling.AppErrorAttributes;
+import net.proselyte.qafordevsreactive.exception.DeveloperNotFoundException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.boot.web.error.ErrorAttributeOptions;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.ServerRequest;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AppErrorAttributesBenchmark {//сборка тела ошибки: 404 на несуществующий id - заметная часть нашего трафика
+
+    private AppErrorAttributes errorAttributes;
+    private ServerRequest notFoundRequest;
+    private ServerRequest internalErrorRequest;
+
+    @Setup
+    public void setUp() {
+        errorAttributes = new AppErrorAttributes();
+        notFoundRequest = requestWithError(new DeveloperNotFoundException("Developer not found", "DEVELOPER_NOT_FOUND"));
+        internalErrorRequest = requestWithError(new IllegalStateException("Something went wrong"));
+    }
+
+    private ServerRequest requestWithError(Throwable error) {//так же как это делает обработчик ошибок: исключение кладется в атрибуты запроса
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/developers/1"));
+        errorAttributes.storeErrorInformation(error, exchange);
+        return ServerRequest.create(exchange, HandlerStrategies.withDefaults().messageReaders());
+    }
+
+    @Benchmark
+    public Map<String, Object> apiException() {
+        return errorAttributes.getErrorAttributes(notFoundRequest, ErrorAttributeOptions.defaults());
+    }
+
+    @Benchmark
+    public AppErrorAttributes.ErrorBody apiExceptionCachedBody() {//путь которым AppErrorWebExceptionHandler отвечает на ApiException
+        return errorAttributes.errorBody(new DeveloperNotFoundException("Developer not found", "DEVELOPER_NOT_FOUND"));
+    }
+
+    @Benchmark
+    public Map<String, Object> internalError() {
+        return errorAttributes.getErrorAttributes(internalErrorRequest, ErrorAttributeOptions.defaults());
+    }
+}
@@ -0,0 +1,47 @@
+package net.proselyte.qafordevsreactive.benchmark;
+
+import net.proselyte.qafordevsreactive.dto.DeveloperDto;
+import net.proselyte.qafordevsreactive.entity.DeveloperEntity;
+import net.proselyte.qafordevsreactive.entity.Status;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DeveloperDtoBenchmark {//конвертация ЭНТИТИ <-> ДТО, ее делает контроллер на каждый ответ и каждый запрос
+
+    private DeveloperEntity entity;
+    private DeveloperDto dto;
+
+    @Setup
+    public void setUp() {
+        entity = DeveloperEntity.builder()
+                .id(1)
+                .firstName("John")
+                .lastName("Doe")
+                .email("john.doe@mail.com")
+                .specialty("Java")
+                .status(Status.ACTIVE)
+                .version(0L)
+                .build();
+        dto = DeveloperDto.fromEntity(entity);
+    }
+
+    @Benchmark
+    public DeveloperDto fromEntity() {
+        return DeveloperDto.fromEntity(entity);
+    }
+
+    @Benchmark
+    public DeveloperEntity toEntity() {
+        return dto.toEntity();
+    }
+}
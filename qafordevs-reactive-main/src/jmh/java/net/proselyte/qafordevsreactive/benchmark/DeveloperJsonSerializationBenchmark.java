@@ -0,0 +1,52 @@
+package net.proselyte.qafordevsreactive.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.proselyte.qafordevsreactive.dto.DeveloperDto;
+import net.proselyte.qafordevsreactive.entity.Status;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class DeveloperJsonSerializationBenchmark {//сериализация списка ДТО тем же ObjectMapper что собирает спринг для WebFlux
+
+    @Param({"10", "1000", "100000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private List<DeveloperDto> developers;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        developers = IntStream.rangeClosed(1, size)
+                .mapToObj(i -> DeveloperDto.builder()
+                        .id(i)
+                        .firstName("First" + i)
+                        .lastName("Last" + i)
+                        .email("developer" + i + "@mail.com")
+                        .specialty("Java")
+                        .status(Status.ACTIVE)
+                        .version(0L)
+                        .build())
+                .toList();
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(developers);
+    }
+}
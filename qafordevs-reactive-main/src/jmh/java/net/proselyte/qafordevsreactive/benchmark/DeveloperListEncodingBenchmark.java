@@ -0,0 +1,91 @@
+package net.proselyte.qafordevsreactive.benchmark;
+
+import io.netty.buffer.PooledByteBufAllocator;
+import net.proselyte.qafordevsreactive.codec.DeveloperEntityJsonEncoder;
+import net.proselyte.qafordevsreactive.dto.DeveloperDto;
+import net.proselyte.qafordevsreactive.entity.DeveloperEntity;
+import net.proselyte.qafordevsreactive.entity.Status;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import reactor.core.publisher.Flux;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class DeveloperListEncodingBenchmark {//ответ GET /api/v1/developers: было - ЭНТИТИ -> ДТО -> Jackson2JsonEncoder,
+    //стало - ЭНТИТИ сразу в DeveloperEntityJsonEncoder. Буферы берем из пула Netty как в реальном ответе и сразу освобождаем
+
+    private static final ResolvableType DTO_TYPE = ResolvableType.forClass(DeveloperDto.class);
+    private static final ResolvableType ENTITY_TYPE = ResolvableType.forClass(DeveloperEntity.class);
+
+    @Param({"10", "1000", "100000"})
+    private int size;
+
+    @Param({"application/json", "application/x-ndjson"})
+    private String mediaType;
+
+    private NettyDataBufferFactory bufferFactory;
+    private Jackson2JsonEncoder jacksonEncoder;
+    private DeveloperEntityJsonEncoder developerEncoder;
+    private MediaType contentType;
+    private List<DeveloperEntity> developers;
+
+    @Setup
+    public void setUp() {
+        bufferFactory = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+        jacksonEncoder = new Jackson2JsonEncoder(Jackson2ObjectMapperBuilder.json().build());
+        developerEncoder = new DeveloperEntityJsonEncoder();
+        contentType = MediaType.parseMediaType(mediaType);
+        developers = IntStream.rangeClosed(1, size)
+                .mapToObj(i -> DeveloperEntity.builder()
+                        .id(i)
+                        .firstName("First" + i)
+                        .lastName("Last" + i)
+                        .email("developer" + i + "@mail.com")
+                        .specialty("Java")
+                        .status(Status.ACTIVE)
+                        .version(0L)
+                        .build())
+                .toList();
+    }
+
+    @Benchmark
+    public long jacksonDto() {
+        return drain(jacksonEncoder.encode(Flux.fromIterable(developers).map(DeveloperDto::fromEntity), bufferFactory, DTO_TYPE,
+                contentType, Collections.emptyMap()));
+    }
+
+    @Benchmark
+    public long developerEncoder() {
+        return drain(developerEncoder.encode(Flux.fromIterable(developers), bufferFactory, ENTITY_TYPE,
+                contentType, Collections.emptyMap()));
+    }
+
+    private static long drain(Flux<DataBuffer> buffers) {//считаем байты и возвращаем буферы в пул
+        return buffers.map(buffer -> {
+                    long bytes = buffer.readableByteCount();
+                    DataBufferUtils.release(buffer);
+                    return bytes;
+                })
+                .reduce(0L, Long::sum)
+                .block();
+    }
+}
@@ -0,0 +1,67 @@
+package net.proselyte.qafordevsreactive.benchmark;
+
+import net.proselyte.qafordevsreactive.dto.DeveloperDto;
+import net.proselyte.qafordevsreactive.dto.DeveloperProjection;
+import net.proselyte.qafordevsreactive.entity.DeveloperEntity;
+import net.proselyte.qafordevsreactive.entity.Status;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class DeveloperProjectionBenchmark {//ЭНТИТИ -> ДТО на потоке строк: было - flatMap(entity -> Mono.just(...)),
+    //стало - DeveloperProjection (синхронный map). concatMap - тот же порядок что у map, но через внутренний Mono на строку
+
+    @Param({"1000", "100000"})
+    private int size;
+
+    private Flux<DeveloperEntity> developers;
+
+    @Setup
+    public void setUp() {
+        List<DeveloperEntity> rows = IntStream.rangeClosed(1, size)
+                .mapToObj(i -> DeveloperEntity.builder()
+                        .id(i)
+                        .firstName("First" + i)
+                        .lastName("Last" + i)
+                        .email("developer" + i + "@mail.com")
+                        .specialty("Java")
+                        .status(Status.ACTIVE)
+                        .version(0L)
+                        .build())
+                .toList();
+        developers = Flux.fromIterable(rows);
+    }
+
+    @Benchmark
+    public void flatMapMonoJust(Blackhole blackhole) {
+        developers.flatMap(entity -> Mono.just(DeveloperDto.fromEntity(entity)))
+                .subscribe(blackhole::consume);
+    }
+
+    @Benchmark
+    public void concatMapMonoJust(Blackhole blackhole) {
+        developers.concatMap(entity -> Mono.just(DeveloperDto.fromEntity(entity)))
+                .subscribe(blackhole::consume);
+    }
+
+    @Benchmark
+    public void projection(Blackhole blackhole) {
+        developers.transform(DeveloperProjection::toDtos)
+                .subscribe(blackhole::consume);
+    }
+}
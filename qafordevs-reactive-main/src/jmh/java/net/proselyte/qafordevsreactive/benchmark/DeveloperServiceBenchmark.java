@@ -0,0 +1,87 @@
+package net.proselyte.qafordevsreactive.benchmark;
+
+import net.proselyte.qafordevsreactive.config.DeveloperProperties;
+import net.proselyte.qafordevsreactive.entity.DeveloperEntity;
+import net.proselyte.qafordevsreactive.entity.Status;
+import net.proselyte.qafordevsreactive.event.DeveloperChangeFeed;
+import net.proselyte.qafordevsreactive.repository.InMemoryDeveloperRepository;
+import net.proselyte.qafordevsreactive.service.DeveloperByIdBatcher;
+import net.proselyte.qafordevsreactive.service.DeveloperServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DeveloperServiceBenchmark {//сквозные сценарии DeveloperServiceImpl поверх репозитория в памяти:
+    //БД из замера исключена, видно только сколько стоит сам реактивный конвейер сервиса
+
+    private static final String[] SPECIALTIES = {"Java", "Go", "Python", "Kotlin", "Rust"};
+
+    @Param({"1000"})
+    private int developers;
+
+    private DeveloperServiceImpl developerService;
+    private final AtomicLong emailSequence = new AtomicLong();
+
+    @Setup
+    public void setUp() {
+        DeveloperProperties developerProperties = new DeveloperProperties();
+        InMemoryDeveloperRepository developerRepository = new InMemoryDeveloperRepository();
+        developerService = new DeveloperServiceImpl(developerRepository, developerProperties,
+                new DeveloperChangeFeed(developerProperties), new DeveloperByIdBatcher(developerRepository, developerProperties));
+        for (int i = 0; i < developers; i++) {
+            developerService.createDeveloper(newDeveloper(SPECIALTIES[i % SPECIALTIES.length])).block();
+        }
+    }
+
+    private DeveloperEntity newDeveloper(String specialty) {
+        long number = emailSequence.incrementAndGet();
+        return DeveloperEntity.builder()
+                .firstName("First" + number)
+                .lastName("Last" + number)
+                .email("developer" + number + "@mail.com")
+                .specialty(specialty)
+                .status(Status.ACTIVE)
+                .build();
+    }
+
+    private int randomId() {
+        return ThreadLocalRandom.current().nextInt(1, developers + 1);
+    }
+
+    @Benchmark
+    public DeveloperEntity getById() {
+        return developerService.getById(randomId()).block();
+    }
+
+    @Benchmark
+    public List<DeveloperEntity> findAllActiveBySpecialty() {
+        return developerService.findAllActiveBySpecialty("Java").collectList().block();
+    }
+
+    @Benchmark
+    public DeveloperEntity patchDeveloper() {
+        DeveloperEntity changes = DeveloperEntity.builder()
+                .lastName("Patched")
+                .build();
+        return developerService.patchDeveloper(randomId(), changes).block();
+    }
+
+    @Benchmark
+    public void createAndHardDelete() {//создаем и сразу удаляем, чтобы размер таблицы не рос от итерации к итерации
+        DeveloperEntity created = developerService.createDeveloper(newDeveloper("Java")).block();
+        developerService.hardDeleteById(created.getId()).block();
+    }
+}
@@ -0,0 +1,86 @@
+package net.proselyte.qafordevsreactive.benchmark;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.proselyte.qafordevsreactive.dto.DeveloperDto;
+import net.proselyte.qafordevsreactive.entity.Status;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class DeveloperWireFormatBenchmark {//JSON против Smile и CBOR на списке ДТО: запись и чтение тем же Jackson что в WebFlux
+    //(Jackson2ObjectMapperBuilder), размер ответа - счетчик payloadBytes рядом с encode (байт в секунду, на операцию - payloadBytes / encode)
+
+    @Param({"json", "smile", "cbor"})
+    private String format;
+
+    @Param({"10", "1000", "100000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private JavaType listType;
+    private List<DeveloperDto> developers;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = switch (format) {
+            case "smile" -> Jackson2ObjectMapperBuilder.smile().build();
+            case "cbor" -> Jackson2ObjectMapperBuilder.cbor().build();
+            default -> Jackson2ObjectMapperBuilder.json().build();
+        };
+        listType = objectMapper.getTypeFactory().constructCollectionType(List.class, DeveloperDto.class);
+        developers = IntStream.rangeClosed(1, size)
+                .mapToObj(i -> DeveloperDto.builder()
+                        .id(i)
+                        .firstName("First" + i)
+                        .lastName("Last" + i)
+                        .email("developer" + i + "@mail.com")
+                        .specialty("Java")
+                        .status(Status.ACTIVE)
+                        .version(0L)
+                        .build())
+                .toList();
+        payload = objectMapper.writeValueAsBytes(developers);
+    }
+
+    @Benchmark
+    public byte[] encode(PayloadSize payloadSize) throws IOException {
+        byte[] encoded = objectMapper.writeValueAsBytes(developers);
+        payloadSize.payloadBytes += encoded.length;
+        return encoded;
+    }
+
+    @Benchmark
+    public List<DeveloperDto> decode() throws IOException {
+        return objectMapper.readValue(payload, listType);
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class PayloadSize {
+
+        public long payloadBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            payloadBytes = 0;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package net.proselyte.qafordevsreactive.benchmark;
+
+import net.proselyte.qafordevsreactive.config.DeveloperProperties;
+import net.proselyte.qafordevsreactive.entity.DeveloperEntity;
+import net.proselyte.qafordevsreactive.entity.Status;
+import net.proselyte.qafordevsreactive.event.DeveloperChangeFeed;
+import net.proselyte.qafordevsreactive.repository.InMemoryDeveloperRepository;
+import net.proselyte.qafordevsreactive.service.DeveloperByIdBatcher;
+import net.proselyte.qafordevsreactive.service.DeveloperService;
+import net.proselyte.qafordevsreactive.service.DeveloperServiceImpl;
+import net.proselyte.qafordevsreactive.service.VirtualThreadDeveloperService;
+import net.proselyte.qafordevsreactive.util.InMemoryBlockingDeveloperRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})//SampleTime дает p50/p95/p99 на запрос
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(64)//одновременные клиенты, меняется через -t
+public class ExecutionModelBenchmark {//реактивный DeveloperServiceImpl против VirtualThreadDeveloperService на одних и тех же
+    //данных в памяти. latencyMicros имитирует время запроса к БД: реактивный репозиторий ждет таймером не занимая поток,
+    //блокирующий спит в виртуальном потоке - именно в ожидании БД модели и отличаются
+
+    private static final String[] SPECIALTIES = {"Java", "Go", "Python", "Kotlin", "Rust"};
+
+    @Param({"reactive", "virtual-threads"})
+    private String execution;
+
+    @Param({"0", "1000"})
+    private long latencyMicros;
+
+    @Param({"1000"})
+    private int developers;
+
+    private Scheduler scheduler;
+    private DeveloperService developerService;
+
+    @Setup
+    public void setUp() {
+        Duration latency = Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(latencyMicros));
+        boolean reactive = "reactive".equals(execution);
+        InMemoryDeveloperRepository repository = reactive && !latency.isZero()//блокирующая заглушка задерживает запросы сама
+                ? new SlowRepository(latency)
+                : new InMemoryDeveloperRepository();
+        for (int i = 0; i < developers; i++) {
+            repository.save(DeveloperEntity.builder()
+                    .firstName("First" + i)
+                    .lastName("Last" + i)
+                    .email("developer" + i + "@mail.com")
+                    .specialty(SPECIALTIES[i % SPECIALTIES.length])
+                    .status(Status.ACTIVE)
+                    .build()).block();
+        }
+        DeveloperProperties developerProperties = new DeveloperProperties();
+        if (reactive) {
+            developerService = new DeveloperServiceImpl(repository, developerProperties, new DeveloperChangeFeed(developerProperties),
+                    new DeveloperByIdBatcher(repository, developerProperties));
+        } else {
+            scheduler = Schedulers.fromExecutorService(Executors.newVirtualThreadPerTaskExecutor());
+            developerService = new VirtualThreadDeveloperService(new InMemoryBlockingDeveloperRepository(repository, latency),
+                    developerProperties, new DeveloperChangeFeed(developerProperties), scheduler);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (scheduler != null) {
+            scheduler.dispose();
+        }
+    }
+
+    @Benchmark
+    public DeveloperEntity getById() {
+        return developerService.getById(ThreadLocalRandom.current().nextInt(1, developers + 1)).block();
+    }
+
+    @Benchmark
+    public List<DeveloperEntity> findAllActiveBySpecialty() {
+        return developerService.findAllActiveBySpecialty("Java").collectList().block();
+    }
+
+    @Benchmark
+    public List<DeveloperEntity> getPage() {
+        return developerService.getPage(ThreadLocalRandom.current().nextInt(0, developers), 50).collectList().block();
+    }
+
+    private static class SlowRepository extends InMemoryDeveloperRepository {//реактивные запросы с неблокирующей задержкой
+
+        private final Duration latency;
+
+        private SlowRepository(Duration latency) {
+            this.latency = latency;
+        }
+
+        @Override
+        public Mono<DeveloperEntity> findById(Integer id) {
+            return super.findById(id).delaySubscription(latency);
+        }
+
+        @Override
+        public Flux<DeveloperEntity> findAllActiveBySpecialty(String specialty) {
+            return super.findAllActiveBySpecialty(specialty).delaySubscription(latency);
+        }
+
+        @Override
+        public Flux<DeveloperEntity> findPageAfter(int after, int limit) {
+            return super.findPageAfter(after, limit).delaySubscription(latency);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package net.proselyte.qafordevsreactive.benchmark;
+
+import net.proselyte.qafordevsreactive.entity.DeveloperEntity;
+import net.proselyte.qafordevsreactive.entity.Status;
+import net.proselyte.qafordevsreactive.repository.InMemoryDeveloperRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(8)
+public class InMemoryDeveloperRepositoryBenchmark {//репозиторий в памяти под конкурентной нагрузкой: чтения по id без блокировки,
+    //запись блокирует одну полосу из 64. Размер кучи на строку смотреть через -prof gc на setUp или jcmd GC.class_histogram
+
+    private static final String[] SPECIALTIES = {"Java", "Go", "Python", "Kotlin", "Rust"};
+
+    @Param({"100000"})
+    private int developers;
+
+    private InMemoryDeveloperRepository developerRepository;
+
+    @Setup
+    public void setUp() {
+        developerRepository = new InMemoryDeveloperRepository(developers);
+        for (int i = 0; i < developers; i++) {
+            developerRepository.save(DeveloperEntity.builder()
+                    .firstName("First" + i)
+                    .lastName("Last" + i)
+                    .email("developer" + i + "@mail.com")
+                    .specialty(SPECIALTIES[i % SPECIALTIES.length])
+                    .status(Status.ACTIVE)
+                    .build()).block();
+        }
+    }
+
+    @Benchmark
+    public DeveloperEntity findById() {
+        return developerRepository.findById(ThreadLocalRandom.current().nextInt(1, developers + 1)).block();
+    }
+
+    @Benchmark
+    public DeveloperEntity findByEmail() {
+        return developerRepository.findByEmail("developer" + ThreadLocalRandom.current().nextInt(developers) + "@mail.com").block();
+    }
+
+    @Benchmark
+    public DeveloperEntity patch() {//без версии: параллельные потоки не конфликтуют, меряем стоимость самой записи
+        return developerRepository.patch(ThreadLocalRandom.current().nextInt(1, developers + 1),
+                DeveloperEntity.builder().lastName("Patched").build()).block();
+    }
+}
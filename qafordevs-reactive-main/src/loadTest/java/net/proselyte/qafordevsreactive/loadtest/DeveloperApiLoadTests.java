@@ -0,0 +1,143 @@
+package net.proselyte.qafordevsreactive.loadtest;
+
+import net.proselyte.qafordevsreactive.dto.DeveloperDto;
+import net.proselyte.qafordevsreactive.entity.Status;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+//нагрузочный прогон против embedded профиля (девелоперы в памяти, без Docker и сети): сначала прогрев, потом замер.
+//Запуск: ./gradlew loadTest [-Ploadtest.rate=800 -Ploadtest.duration=1m -Ploadtest.mix=getById=80,lookup=20]
+//Тест падает если p99 вырос или пропускная способность упала больше чем на tolerance относительно loadtest-baseline.properties
+//(пока в нем placeholder=true, сравнения нет: базовые числа еще не сняты с настоящего прогона).
+//Отчет текущего прогона - build/reports/loadtest/current.properties, чтобы обновить базу скопировать его в baseline
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "app.developers.rate-limit.trust-client-header=true")//все запросы идут с одного адреса, клиентов различаем
+//по X-Client-Id - генератор нагрузки здесь в роли своего шлюза
+@ActiveProfiles("embedded")
+public class DeveloperApiLoadTests {
+
+    private static final String BASELINE = "/loadtest-baseline.properties";
+    private static final int SEED_DEVELOPERS = 1000;
+    private static final int SEED_CHUNK = 200;
+    private static final double MAX_ERROR_RATE = 0.01;
+    private static final int CLIENTS = 100;
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    @DisplayName("Test developer api latency and throughput stay within baseline")
+    public void givenEmbeddedApplication_whenOpenModelLoad_thenLatencyAndThroughputWithinBaseline() throws IOException {
+        //given
+        LoadSettings settings = LoadSettings.fromSystemProperties();
+        ConnectionProvider connections = ConnectionProvider.builder("load-test")//открытая модель: соединений должно хватать
+                .maxConnections(1000)//на все запросы в полете, иначе очередь за соединением уйдет в латентность клиента
+                .pendingAcquireMaxCount(-1)
+                .build();
+        WebClient webClient = WebClient.builder()
+                .baseUrl("http://localhost:" + port)
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connections)))
+                .defaultRequest(request -> request.header("X-Client-Id",//нагрузка от многих клиентов, а не от одного:
+                        "load-client-" + ThreadLocalRandom.current().nextInt(CLIENTS)))//иначе ее целиком срежет RateLimitWebFilter
+                .build();
+        try {
+            seed(webClient);
+            LoadGenerator generator = new LoadGenerator(webClient, settings, SEED_DEVELOPERS);
+            generator.run(settings.warmup());//прогрев: JIT, пулы и кэши, результат не учитываем
+            //when
+            LoadResult result = generator.run(settings.duration());
+            //then
+            report(settings, result);
+            assertThat(result.count()).isPositive();
+            assertThat(result.errorRate()).as("error rate").isLessThanOrEqualTo(MAX_ERROR_RATE);
+            assertWithinBaseline(settings, result);
+        } finally {
+            connections.dispose();
+        }
+    }
+
+    private static void seed(WebClient webClient) {
+        for (int chunk = 0; chunk < SEED_DEVELOPERS / SEED_CHUNK; chunk++) {
+            int offset = chunk * SEED_CHUNK;
+            List<DeveloperDto> developers = IntStream.range(offset, offset + SEED_CHUNK)
+                    .mapToObj(i -> DeveloperDto.builder()
+                            .firstName("Seed" + i)
+                            .lastName("Developer" + i)
+                            .email("seed" + i + "@mail.com")
+                            .specialty(i % 2 == 0 ? "Java" : "Go")
+                            .status(Status.ACTIVE)
+                            .build())
+                    .toList();
+            webClient.post().uri("/api/v1/developers/batch")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(developers)
+                    .retrieve()
+                    .toBodilessEntity()
+                    .block(Duration.ofSeconds(30));
+        }
+    }
+
+    private static void report(LoadSettings settings, LoadResult result) throws IOException {
+        System.out.println(result.summary());
+        Files.createDirectories(settings.reportDir());
+        Files.writeString(settings.reportDir().resolve("summary.txt"), result.summary());
+        try (Writer writer = Files.newBufferedWriter(settings.reportDir().resolve("current.properties"))) {
+            Properties properties = result.toProperties();
+            properties.setProperty("rate", String.valueOf(settings.rate()));
+            properties.store(writer, "rate=" + settings.rate() + "/s, duration=" + settings.duration() + ", mix=" + settings.mix());
+        }
+    }
+
+    private static void assertWithinBaseline(LoadSettings settings, LoadResult result) throws IOException {
+        Properties baseline = new Properties();
+        try (InputStream in = DeveloperApiLoadTests.class.getResourceAsStream(BASELINE)) {
+            assertThat(in).as(BASELINE).isNotNull();
+            baseline.load(in);
+        }
+        if (Boolean.parseBoolean(baseline.getProperty("placeholder"))) {//сравнивать не с чем, а не "регрессий нет"
+            System.out.println(BASELINE + " is a placeholder, regression gate is disabled until it is replaced by a real run");
+            return;
+        }
+        Properties current = result.toProperties();
+        boolean sameRate = String.valueOf(settings.rate()).equals(baseline.getProperty("rate"));
+        List<String> regressions = new ArrayList<>();
+        for (String key : baseline.stringPropertyNames()) {
+            if (key.equals("rate") || !current.containsKey(key)) {//операции нет в текущем миксе
+                continue;
+            }
+            if (key.endsWith(".throughput") && !sameRate) {//при другой частоте запросов сравнивать пропускную способность не с чем
+                continue;
+            }
+            double expected = Double.parseDouble(baseline.getProperty(key));
+            double actual = Double.parseDouble(current.getProperty(key));
+            boolean regressed = key.endsWith(".throughput")//пропускная способность не должна падать, латентность - расти
+                    ? actual < expected * (1 - settings.tolerance())
+                    : actual > expected * (1 + settings.tolerance());
+            if (regressed) {
+                regressions.add(key + ": baseline " + expected + ", actual " + actual);
+            }
+        }
+        assertThat(regressions).as("regressions against " + BASELINE).isEmpty();
+    }
+}
@@ -0,0 +1,169 @@
+package net.proselyte.qafordevsreactive.loadtest;
+
+import net.proselyte.qafordevsreactive.dto.DeveloperDto;
+import net.proselyte.qafordevsreactive.entity.Status;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+//генератор нагрузки по открытой модели: запросы приходят с заданной частотой независимо от того, ответил ли сервер на предыдущие.
+//Латентность считается от момента когда запрос ДОЛЖЕН был уйти по расписанию, а не когда ушел - иначе тормозящий сервер сам
+//себе уменьшает нагрузку и хвост распределения пропадает из замера (coordinated omission)
+public class LoadGenerator {
+
+    private static final String BASE_PATH = "/api/v1/developers";
+    private static final String[] SPECIALTIES = {"Java", "Go", "Python", "Kotlin", "Rust"};
+    private static final Duration TICK = Duration.ofMillis(1);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+    private static final int LOOKUP_SIZE = 10;
+    private static final int PAGE_LIMIT = 50;
+    private static final int BATCH_SIZE = 5;
+    private static final int SEARCH_LIMIT = 20;
+
+    private final WebClient webClient;
+    private final LoadSettings settings;
+    private final LoadOperation[] operations;//операции разложены по весам: выбор операции - случайный индекс
+    private final AtomicInteger maxId;//верхняя граница id для чтений и изменений, растет вместе с созданными девелоперами
+    private final AtomicLong emails = new AtomicLong();
+
+    public LoadGenerator(WebClient webClient, LoadSettings settings, int seededDevelopers) {
+        this.webClient = webClient;
+        this.settings = settings;
+        this.operations = settings.mix().entrySet().stream()
+                .flatMap(entry -> IntStream.range(0, entry.getValue()).mapToObj(i -> entry.getKey()))
+                .toArray(LoadOperation[]::new);
+        this.maxId = new AtomicInteger(seededDevelopers);
+        if (operations.length == 0) {
+            throw new IllegalArgumentException("Load mix has no operations with positive weight");
+        }
+    }
+
+    public LoadResult run(Duration duration) {
+        LoadResult result = new LoadResult();
+        long intervalNanos = 1_000_000_000L / settings.rate();
+        long scheduled = duration.toNanos() / intervalNanos;
+        AtomicLong issued = new AtomicLong();
+        long start = System.nanoTime();
+        Flux.interval(TICK)
+                .map(tick -> System.nanoTime() - start)
+                .takeUntil(elapsed -> issued.get() >= scheduled)
+                .concatMapIterable(elapsed -> {//все запросы, время которых наступило с прошлого тика (тик может опоздать)
+                    long due = Math.min(scheduled, elapsed / intervalNanos + 1);
+                    List<Long> arrivals = new ArrayList<>();
+                    for (long i = issued.get(); i < due; i++) {
+                        arrivals.add(start + i * intervalNanos);
+                    }
+                    issued.set(due);
+                    return arrivals;
+                })
+                .flatMap(intendedStart -> execute(pickOperation(), intendedStart, result), Integer.MAX_VALUE)
+                .then()
+                .block(duration.plus(REQUEST_TIMEOUT).multipliedBy(2));
+        result.finish(Duration.ofNanos(System.nanoTime() - start));
+        return result;
+    }
+
+    private LoadOperation pickOperation() {
+        return operations[ThreadLocalRandom.current().nextInt(operations.length)];
+    }
+
+    private Mono<Void> execute(LoadOperation operation, long intendedStart, LoadResult result) {
+        return request(operation)
+                .map(LoadGenerator::isExpected)
+                .timeout(REQUEST_TIMEOUT)
+                .onErrorReturn(false)//обрыв соединения или таймаут - ошибка
+                .doOnNext(success -> result.record(operation, System.nanoTime() - intendedStart, success))
+                .then();
+    }
+
+    private static boolean isExpected(HttpStatusCode status) {//404, конфликт версии и занятый эмайл - нормальные ответы под
+        //случайной нагрузкой (девелопер мог быть удален или изменен параллельным запросом). Ошибка - 5xx (в том числе 503
+        //от RateLimitWebFilter) и 429: нагрузка идет от многих клиентов и ни один не должен упираться в свой лимит
+        return !status.is5xxServerError() && status != HttpStatus.TOO_MANY_REQUESTS;
+    }
+
+    private Mono<HttpStatusCode> request(LoadOperation operation) {
+        return switch (operation) {
+            case GET_BY_ID -> exchange(webClient.get().uri(BASE_PATH + "/{id}", randomId()));
+            case LOOKUP -> exchange(webClient.post().uri(BASE_PATH + "/lookup")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(IntStream.range(0, LOOKUP_SIZE).mapToObj(i -> randomId()).toList()));
+            case GET_PAGE -> exchange(webClient.get().uri(BASE_PATH + "?after={after}&limit={limit}", randomAfter(), PAGE_LIMIT));
+            case STREAM_PAGE -> exchange(webClient.get().uri(BASE_PATH + "?after={after}&limit={limit}", randomAfter(), PAGE_LIMIT)
+                    .accept(MediaType.APPLICATION_NDJSON));
+            case BY_SPECIALTY -> exchange(webClient.get().uri(BASE_PATH + "/specialty/{specialty}", randomSpecialty()));
+            case SEARCH -> exchange(webClient.get().uri(BASE_PATH + "/search?q={q}&limit={limit}", randomPrefix(), SEARCH_LIMIT));
+            case CREATE -> webClient.post().uri(BASE_PATH)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(newDeveloper(null))
+                    .exchangeToMono(this::trackCreated);
+            case BATCH -> exchange(webClient.post().uri(BASE_PATH + "/batch")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(IntStream.range(0, BATCH_SIZE).mapToObj(i -> newDeveloper(null)).toList()));
+            case UPDATE -> exchange(webClient.put().uri(BASE_PATH)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(newDeveloper(randomId())));
+            case PATCH -> exchange(webClient.patch().uri(BASE_PATH + "/{id}", randomId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(Map.of("specialty", randomSpecialty())));
+            case SOFT_DELETE -> exchange(webClient.delete().uri(BASE_PATH + "/{id}", randomId()));
+            case HARD_DELETE -> exchange(webClient.delete().uri(BASE_PATH + "/{id}?isHard=true", randomId()));
+        };
+    }
+
+    private static Mono<HttpStatusCode> exchange(WebClient.RequestHeadersSpec<?> request) {//тело ответа вычитываем целиком,
+        //иначе в замер не попадает время его записи сервером
+        return request.exchangeToMono(response -> response.releaseBody().thenReturn(response.statusCode()));
+    }
+
+    private Mono<HttpStatusCode> trackCreated(ClientResponse response) {
+        if (!response.statusCode().is2xxSuccessful()) {
+            return response.releaseBody().thenReturn(response.statusCode());
+        }
+        return response.bodyToMono(DeveloperDto.class)
+                .doOnNext(created -> maxId.accumulateAndGet(created.getId(), Math::max))
+                .thenReturn(response.statusCode());
+    }
+
+    private DeveloperDto newDeveloper(Integer id) {
+        long n = emails.incrementAndGet();
+        return DeveloperDto.builder()
+                .id(id)
+                .firstName("Load" + n)
+                .lastName("Test" + n)
+                .email("load-" + n + "-" + System.nanoTime() + "@mail.com")
+                .specialty(randomSpecialty())
+                .status(Status.ACTIVE)
+                .build();
+    }
+
+    private int randomId() {
+        return ThreadLocalRandom.current().nextInt(1, maxId.get() + 1);
+    }
+
+    private int randomAfter() {
+        return ThreadLocalRandom.current().nextInt(0, maxId.get() + 1);
+    }
+
+    private static String randomPrefix() {//как type-ahead: начало имени сидированного или созданного девелопера
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return (random.nextBoolean() ? "seed" : "load") + random.nextInt(100);
+    }
+
+    private static String randomSpecialty() {
+        return SPECIALTIES[ThreadLocalRandom.current().nextInt(SPECIALTIES.length)];
+    }
+}
@@ -0,0 +1,43 @@
+package net.proselyte.qafordevsreactive.loadtest;
+
+import java.util.Arrays;
+
+public enum LoadOperation {//все эндпоинты DeveloperRestControllerV1 и их вес в смеси по умолчанию (сумма 100):
+    //чтения по id преобладают, как и в реальном трафике
+
+    GET_BY_ID("getById", 36),
+    LOOKUP("lookup", 8),
+    GET_PAGE("getPage", 8),
+    STREAM_PAGE("streamPage", 4),
+    BY_SPECIALTY("bySpecialty", 5),
+    SEARCH("search", 4),
+    CREATE("create", 10),
+    BATCH("batch", 2),
+    UPDATE("update", 8),
+    PATCH("patch", 8),
+    SOFT_DELETE("softDelete", 4),
+    HARD_DELETE("hardDelete", 3);
+
+    private final String key;//имя в -Ploadtest.mix и в baseline
+    private final int defaultWeight;
+
+    LoadOperation(String key, int defaultWeight) {
+        this.key = key;
+        this.defaultWeight = defaultWeight;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public int defaultWeight() {
+        return defaultWeight;
+    }
+
+    public static LoadOperation byKey(String key) {
+        return Arrays.stream(values())
+                .filter(operation -> operation.key.equals(key))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown load operation " + key));
+    }
+}
@@ -0,0 +1,103 @@
+package net.proselyte.qafordevsreactive.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+public class LoadResult {//латентности прогона в HdrHistogram (микросекунды, 3 значащие цифры) по каждой операции и в сумме
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final Map<LoadOperation, Histogram> latencies = new EnumMap<>(LoadOperation.class);
+    private final Map<LoadOperation, LongAdder> errors = new EnumMap<>(LoadOperation.class);
+    private final Histogram total = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final LongAdder totalErrors = new LongAdder();
+    private volatile Duration elapsed = Duration.ZERO;
+
+    public LoadResult() {
+        for (LoadOperation operation : LoadOperation.values()) {
+            latencies.put(operation, new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3));
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    void record(LoadOperation operation, long latencyNanos, boolean success) {
+        long micros = Math.min(HIGHEST_TRACKABLE_MICROS, Math.max(1, TimeUnit.NANOSECONDS.toMicros(latencyNanos)));
+        latencies.get(operation).recordValue(micros);
+        total.recordValue(micros);
+        if (!success) {
+            errors.get(operation).increment();
+            totalErrors.increment();
+        }
+    }
+
+    void finish(Duration elapsed) {
+        this.elapsed = elapsed;
+    }
+
+    public long count() {
+        return total.getTotalCount();
+    }
+
+    public double throughput() {//завершенных запросов в секунду
+        return elapsed.isZero() ? 0 : total.getTotalCount() * 1_000_000_000.0 / elapsed.toNanos();
+    }
+
+    public double errorRate() {
+        return total.getTotalCount() == 0 ? 0 : (double) totalErrors.sum() / total.getTotalCount();
+    }
+
+    public double p99Millis() {
+        return total.getValueAtPercentile(99.0) / 1000.0;
+    }
+
+    public double p99Millis(LoadOperation operation) {
+        return latencies.get(operation).getValueAtPercentile(99.0) / 1000.0;
+    }
+
+    public long count(LoadOperation operation) {
+        return latencies.get(operation).getTotalCount();
+    }
+
+    public Properties toProperties() {//в формате baseline: файл отчета можно скопировать в loadtest-baseline.properties
+        Properties properties = new Properties();
+        properties.setProperty("total.throughput", format(throughput()));
+        properties.setProperty("total.p99.millis", format(p99Millis()));
+        for (LoadOperation operation : LoadOperation.values()) {
+            if (count(operation) > 0) {
+                properties.setProperty(operation.key() + ".p99.millis", format(p99Millis(operation)));
+            }
+        }
+        return properties;
+    }
+
+    public String summary() {
+        StringBuilder summary = new StringBuilder(String.format(Locale.ROOT, "%-12s %9s %9s %9s %9s %9s %7s%n",
+                "operation", "count", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "errors"));
+        for (LoadOperation operation : LoadOperation.values()) {
+            if (count(operation) > 0) {
+                appendRow(summary, operation.key(), latencies.get(operation), errors.get(operation).sum());
+            }
+        }
+        appendRow(summary, "total", total, totalErrors.sum());
+        summary.append(String.format(Locale.ROOT, "throughput %.1f req/s, errors %.3f%%%n", throughput(), errorRate() * 100));
+        return summary.toString();
+    }
+
+    private static void appendRow(StringBuilder summary, String name, Histogram histogram, long errors) {
+        summary.append(String.format(Locale.ROOT, "%-12s %9d %9.2f %9.2f %9.2f %9.2f %7d%n", name, histogram.getTotalCount(),
+                histogram.getValueAtPercentile(50.0) / 1000.0, histogram.getValueAtPercentile(99.0) / 1000.0,
+                histogram.getValueAtPercentile(99.9) / 1000.0, histogram.getMaxValue() / 1000.0, errors));
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.2f", value);
+    }
+}
@@ -0,0 +1,38 @@
+package net.proselyte.qafordevsreactive.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+public record LoadSettings(int rate, Duration warmup, Duration duration, double tolerance, Map<LoadOperation, Integer> mix,
+                           Path reportDir) {
+    //параметры прогона из системных свойств (их прокидывает задача loadTest из -Ploadtest.*)
+
+    public static LoadSettings fromSystemProperties() {
+        return new LoadSettings(
+                Integer.parseInt(System.getProperty("loadtest.rate", "400")),
+                DurationStyle.detectAndParse(System.getProperty("loadtest.warmup", "10s")),
+                DurationStyle.detectAndParse(System.getProperty("loadtest.duration", "30s")),
+                Double.parseDouble(System.getProperty("loadtest.tolerance", "0.2")),
+                parseMix(System.getProperty("loadtest.mix")),
+                Path.of(System.getProperty("loadtest.reportDir", "build/reports/loadtest")));
+    }
+
+    private static Map<LoadOperation, Integer> parseMix(String mix) {//getById=40,lookup=10 - не перечисленные операции не выполняются
+        Map<LoadOperation, Integer> weights = new EnumMap<>(LoadOperation.class);
+        if (mix == null || mix.isBlank()) {
+            for (LoadOperation operation : LoadOperation.values()) {
+                weights.put(operation, operation.defaultWeight());
+            }
+            return weights;
+        }
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            weights.put(LoadOperation.byKey(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,10 @@
+package net.proselyte.qafordevsreactive;
+
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration;
+
+@ImportAutoConfiguration(FlywayAutoConfiguration.class)
+class Migration {//контекст команды migrate. Отдельный файл, а не вложенный класс QafordevsReactiveApplication: вложенные классы
+    //конфигурации Spring разбирает вместе с ней, и Flyway попадал бы в каждый контекст (в том числе в срезы @WebFluxTest).
+    //Без @Configuration, чтобы сканирование компонентов его тоже не подтянуло
+}
@@ -1,13 +1,32 @@
 package net.proselyte.qafordevsreactive;
 
 import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+
+import java.util.Arrays;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class QafordevsReactiveApplication {
 
+	private static final String MIGRATE_COMMAND = "migrate";
+
 	public static void main(String[] args) {
+		if (args.length > 0 && MIGRATE_COMMAND.equals(args[0])) {//java -jar app.jar migrate: только накатить миграции и выйти
+			System.exit(migrate(Arrays.copyOfRange(args, 1, args.length)));
+		}
 		SpringApplication.run(QafordevsReactiveApplication.class, args);
 	}
 
+	private static int migrate(String[] args) {//поднимаем только Flyway: без R2DBC, веб сервера и бинов приложения.
+		//Flyway включаем аргументом командной строки, он главнее любого профиля (в том числе fast)
+		String[] migrateArgs = Arrays.copyOf(args, args.length + 1);
+		migrateArgs[args.length] = "--spring.flyway.enabled=true";
+		SpringApplication application = new SpringApplication(Migration.class);
+		application.setWebApplicationType(WebApplicationType.NONE);
+		return SpringApplication.exit(application.run(migrateArgs));
+	}
+
 }
@@ -0,0 +1,7 @@
+package net.proselyte.qafordevsreactive.cache;
+
+public record CacheStatistics(long hits, long misses, long evictions, long invalidations, long size) {
+    //evictions - вытеснение по размеру или TTL, invalidations - явное удаление записи при изменении девелопера
+
+    public static final CacheStatistics EMPTY = new CacheStatistics(0, 0, 0, 0, 0);
+}
@@ -0,0 +1,62 @@
+package net.proselyte.qafordevsreactive.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+public class CaffeineReactiveCache<K, V> implements ReactiveCache<K, V> {//реализация на Caffeine AsyncCache: в кэше лежат CompletableFuture,
+    //поэтому пока первый запрос еще идет в БД, все остальные промахи по этому ключу получают ту же самую future (request coalescing)
+
+    private final AsyncCache<K, V> cache;
+    private final LongAdder invalidations = new LongAdder();
+
+    public CaffeineReactiveCache(long maximumSize, Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)//ограничение по количеству записей
+                .expireAfterWrite(ttl)//и по времени жизни записи
+                .recordStats()//считаем попадания/промахи/вытеснения
+                .buildAsync();
+    }
+
+    @Override
+    public Mono<V> get(K key, Function<K, Mono<V>> loader) {
+        return Mono.defer(() -> Mono.fromFuture(cache.get(key, (k, executor) -> loader.apply(k).toFuture()), true));
+        //toFuture подписывается на loader сразу, поток при этом не блокируется. Пустой Mono дает null и Caffeine запись не сохраняет,
+        //ошибка тоже не кэшируется. suppressCancel = true: отмена одного подписчика не отменяет общую загрузку для остальных
+    }
+
+    @Override
+    public V getIfPresent(K key) {
+        CompletableFuture<V> future = cache.getIfPresent(key);
+        if (Objects.isNull(future) || !future.isDone() || future.isCompletedExceptionally()) {//загрузка еще идет или упала
+            return null;
+        }
+        return future.getNow(null);
+    }
+
+    @Override
+    public void evict(K key) {
+        cache.synchronous().invalidate(key);//если загрузка еще в процессе, future тоже удаляется и следующий запрос пойдет в БД заново
+        invalidations.increment();
+    }
+
+    @Override
+    public void evictAll() {
+        cache.synchronous().invalidateAll();
+        invalidations.increment();
+    }
+
+    @Override
+    public CacheStatistics statistics() {
+        CacheStats stats = cache.synchronous().stats();
+        return new CacheStatistics(stats.hitCount(), stats.missCount(), stats.evictionCount(),
+                invalidations.sum(), cache.synchronous().estimatedSize());
+    }
+}
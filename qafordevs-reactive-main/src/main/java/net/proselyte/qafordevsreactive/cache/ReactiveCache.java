@@ -0,0 +1,45 @@
+package net.proselyte.qafordevsreactive.cache;
+
+import reactor.core.publisher.Mono;
+
+import java.util.function.Function;
+
+public interface ReactiveCache<K, V> {//неблокирующий кэш: значение отдается как Mono, загрузка тоже идет через Mono
+
+    Mono<V> get(K key, Function<K, Mono<V>> loader);//read-through: если значения нет, вызываем loader (один раз на ключ, даже если промахов много)
+
+    V getIfPresent(K key);//уже загруженное значение или null, в БД не ходит
+
+    void evict(K key);
+
+    void evictAll();
+
+    CacheStatistics statistics();
+
+    static <K, V> ReactiveCache<K, V> disabled() {//заглушка для случая когда кэш выключен в настройках: всегда идем в loader
+        return new ReactiveCache<>() {
+            @Override
+            public Mono<V> get(K key, Function<K, Mono<V>> loader) {
+                return loader.apply(key);
+            }
+
+            @Override
+            public V getIfPresent(K key) {
+                return null;
+            }
+
+            @Override
+            public void evict(K key) {
+            }
+
+            @Override
+            public void evictAll() {
+            }
+
+            @Override
+            public CacheStatistics statistics() {
+                return CacheStatistics.EMPTY;
+            }
+        };
+    }
+}
@@ -0,0 +1,401 @@
+package net.proselyte.qafordevsreactive.cache;
+
+import net.proselyte.qafordevsreactive.config.DeveloperProperties;
+import net.proselyte.qafordevsreactive.entity.DeveloperEntity;
+import net.proselyte.qafordevsreactive.entity.Status;
+import net.proselyte.qafordevsreactive.event.DeveloperChangeEvent;
+import net.proselyte.qafordevsreactive.event.DeveloperChangeFeed;
+import net.proselyte.qafordevsreactive.repository.DeveloperRepository;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+@Component
+public class SpecialtyIndex implements SmartInitializingSingleton, DisposableBean {//индекс специальность -> активные девелоперы
+    //в памяти процесса: findAllActiveBySpecialty отдается без запроса в БД. Загружается при старте, дальше каждое изменение
+    //из DeveloperChangeFeed применяется к нему сразу (синхронно, до того как сервис вернет ответ). Изменения с других инстансов
+    //сюда не приходят, поэтому индекс периодически перечитывается целиком (refreshInterval).
+    //У каждого бакета своя версия специальности из specialty_versions (ETag списка): известна после чтения из БД и дальше
+    //поднимается на каждое событие, как триггер V6 поднимает ее в БД на каждую запись. БД читается только когда версия неизвестна
+
+    private static final long UNKNOWN = -1;
+
+    private final DeveloperRepository developerRepository;
+    private final DeveloperChangeFeed developerChangeFeed;
+    private final DeveloperProperties.SpecialtyIndex settings;
+    private final Disposable.Composite subscriptions = Disposables.composite();
+
+    private volatile Map<String, Bucket> bySpecialty;//null - еще не загружен. Бакеты меняются на месте под своим локом,
+    //поэтому изменение стоит поиск + сдвиг в одном бакете, а не копию всего индекса. Новая карта целиком - только при загрузке
+    private final Object lock = new Object();//порядок изменений и подмена карты при загрузке, читатели его не берут
+    private List<DeveloperChangeEvent> pending;//изменения, пришедшие пока идет загрузка из БД
+    private long applied;//сколько событий применено, только под lock
+    private final AtomicInteger writes = new AtomicInteger();//записи этого инстанса, о которых еще не пришло событие
+
+    public SpecialtyIndex(DeveloperRepository developerRepository, DeveloperChangeFeed developerChangeFeed,
+                          DeveloperProperties developerProperties) {
+        this.developerRepository = developerRepository;
+        this.developerChangeFeed = developerChangeFeed;
+        this.settings = developerProperties.getSpecialtyIndex();
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!settings.isEnabled()) {
+            return;
+        }
+        follow();//подписываемся до загрузки, чтобы не потерять изменения
+        subscriptions.add(load().onErrorResume(e -> Mono.empty())//пока не загрузился, сервис ходит в БД как раньше
+                .thenMany(Flux.interval(settings.getRefreshInterval())
+                        .concatMap(tick -> load().onErrorResume(e -> Mono.empty())))//БД недоступна - отдаем прежний снимок
+                .subscribe());
+    }
+
+    private void follow() {//live, а не changes: у changes ограниченный буфер с ERROR при переполнении, после которого
+        //индекс молча перестал бы обновляться
+        subscriptions.add(developerChangeFeed.live().subscribe(this::apply, error -> {
+            synchronized (lock) {//часть изменений потеряна - снимку больше нельзя верить, сервис ходит в БД до перезагрузки
+                bySpecialty = null;
+            }
+            if (!subscriptions.isDisposed()) {
+                follow();
+                subscriptions.add(load().onErrorResume(e -> Mono.empty()).subscribe());
+            }
+        }));
+    }
+
+    @Override
+    public void destroy() {
+        subscriptions.dispose();
+    }
+
+    public boolean isReady() {
+        return Objects.nonNull(bySpecialty);
+    }
+
+    public Flux<DeveloperEntity> findAllActiveBySpecialty(String specialty) {//строки общие для всех читателей, их нельзя менять
+        Map<String, Bucket> snapshot = bySpecialty;
+        Bucket bucket = Objects.isNull(snapshot) ? null : snapshot.get(specialty);
+        return Objects.isNull(bucket) ? Flux.empty() : Flux.fromArray(bucket.rows());
+    }
+
+    public <T> Mono<T> trackWrite(Mono<T> write) {//запись этого инстанса в БД: пока она идет, прочитанную из БД версию
+        //нельзя привязать к бакету - неизвестно, вошла ли в нее запись, а событие о ней поднимет версию бакета еще раз
+        return Mono.defer(() -> {
+            writes.incrementAndGet();
+            return write.doFinally(signal -> writes.decrementAndGet());
+        });
+    }
+
+    public <T> Flux<T> trackWrites(Flux<T> write) {
+        return Flux.defer(() -> {
+            writes.incrementAndGet();
+            return write.doFinally(signal -> writes.decrementAndGet());
+        });
+    }
+
+    public Mono<Long> version(String specialty) {//версия списка специальности для ETag: известна - без запроса в БД, иначе
+        //версия и список читаются из БД и список в индексе заменяется. Список, отданный после версии, не старше нее
+        Map<String, Bucket> snapshot = bySpecialty;
+        Bucket bucket = Objects.isNull(snapshot) ? null : snapshot.get(specialty);
+        long version = Objects.isNull(bucket) ? UNKNOWN : bucket.version;
+        return version == UNKNOWN ? refresh(specialty) : Mono.just(version);
+    }
+
+    private Mono<Long> refresh(String specialty) {
+        return Mono.defer(() -> {
+            long seen;
+            synchronized (lock) {
+                seen = applied;
+            }
+            boolean quiet = writes.get() == 0;
+            return developerRepository.findSpecialtyVersion(specialty)
+                    .flatMap(version -> developerRepository.findAllActiveBySpecialty(specialty).collectList()
+                            .doOnNext(developers -> replace(specialty, version, quiet, seen, developers))
+                            .thenReturn(version));
+        });
+    }
+
+    private void replace(String specialty, long version, boolean quiet, long seen, List<DeveloperEntity> developers) {
+        synchronized (lock) {
+            Map<String, Bucket> index = bySpecialty;
+            Bucket current = Objects.isNull(index) ? null : index.get(specialty);
+            if (Objects.isNull(index) || (Objects.nonNull(current) && current.version > version)) {//параллельное перечитывание
+                //уже поставило список новее
+                return;
+            }
+            if (seen != applied) {//во время чтения пришли события этого инстанса: прочитанный
+                //список мог их не увидеть, а в бакете они уже есть - оставляем бакет, версия остается неизвестной
+                return;
+            }
+            if (developers.isEmpty() && version == 0 && Objects.isNull(current)) {//такой специальности никогда не было:
+                //бакет не заводим, иначе любой запрос с новой строкой оставлял бы в индексе пустой бакет
+                return;
+            }
+            List<DeveloperEntity> reloaded = new ArrayList<>();
+            for (DeveloperEntity developer : developers) {//девелопер мог перейти сюда из другой специальности
+                boolean newerElsewhere = false;
+                for (Map.Entry<String, Bucket> entry : index.entrySet()) {
+                    DeveloperEntity indexed = entry.getKey().equals(specialty) ? null : entry.getValue().find(developer.getId());
+                    if (Objects.nonNull(indexed)) {
+                        if (isOlder(developer, indexed)) {
+                            newerElsewhere = true;//уже ушел обратно изменением этого инстанса
+                        } else {
+                            entry.getValue().remove(developer.getId());
+                            entry.getValue().version = UNKNOWN;//список поменялся без события - его версия больше не ETag
+                        }
+                    }
+                }
+                if (!newerElsewhere) {
+                    reloaded.add(developer);
+                }
+            }
+            Bucket bucket = Bucket.of(specialty, reloaded);
+            //версия точная только если ни одна запись этого инстанса не шла во время чтения: иначе она могла войти в версию
+            //из БД, и ее событие подняло бы версию бакета второй раз
+            bucket.version = quiet && writes.get() == 0 ? version : UNKNOWN;
+            index.put(specialty, bucket);
+        }
+    }
+
+    Mono<Void> load() {
+        return Mono.defer(() -> {
+            synchronized (lock) {
+                if (Objects.nonNull(pending)) {//загрузка уже идет, ее результат и будет новым снимком
+                    return Mono.<Void>empty();
+                }
+                pending = new ArrayList<>();
+            }
+            return developerRepository.findAllActive().collectList()
+                    .flatMap(this::recheck)
+                    .doFinally(signal -> {
+                        synchronized (lock) {//после ошибки или отмены следующая загрузка начнет заново
+                            pending = null;
+                        }
+                    });
+        });
+    }
+
+    private Mono<Void> recheck(List<DeveloperEntity> developers) {
+        Set<Integer> touched = new LinkedHashSet<>();
+        int checked;
+        synchronized (lock) {
+            pending.stream()
+                    .map(DeveloperChangeEvent::developerId)
+                    .filter(Objects::nonNull)
+                    .forEach(touched::add);
+            checked = pending.size();
+        }
+        //снимок из БД мог увидеть, а мог и не увидеть эти изменения. Доигрывать их вслепую нельзя: CREATED для строки,
+        //которую потом удалили на другом инстансе, вернул бы ее в индекс. Поэтому затронутые строки перечитываем -
+        //события уже опубликованы, значит их изменения в БД есть, и ответ не старее их
+        return (touched.isEmpty()
+                ? Mono.just(List.<DeveloperEntity>of())
+                : developerRepository.findAllByIds(touched.toArray(Integer[]::new)).collectList())
+                .doOnNext(rechecked -> install(developers, touched, rechecked, checked))
+                .then();
+    }
+
+    private void install(List<DeveloperEntity> developers, Set<Integer> touched, List<DeveloperEntity> rechecked, int checked) {
+        Map<Integer, DeveloperEntity> active = new HashMap<>();
+        developers.forEach(developer -> active.put(developer.getId(), developer));
+        touched.forEach(active::remove);
+        rechecked.stream()
+                .filter(SpecialtyIndex::isIndexed)
+                .forEach(developer -> active.put(developer.getId(), developer));
+        Map<String, Bucket> loaded = active.values().stream()
+                .filter(developer -> Objects.nonNull(developer.getSpecialty()))
+                .collect(Collectors.groupingBy(DeveloperEntity::getSpecialty))
+                .entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> Bucket.of(entry.getKey(), entry.getValue()),
+                        (left, right) -> left, ConcurrentHashMap::new));
+        synchronized (lock) {
+            for (DeveloperChangeEvent event : pending.subList(checked, pending.size())) {//пришли во время перечитывания -
+                //доигрываем по порядку, строку с более новой версией из БД они не перетрут
+                applyTo(loaded, event);
+            }
+            pending = null;
+            bySpecialty = loaded;
+        }
+    }
+
+    void apply(DeveloperChangeEvent event) {
+        synchronized (lock) {
+            applied++;
+            if (Objects.nonNull(pending)) {
+                pending.add(event);
+            }
+            if (Objects.nonNull(bySpecialty)) {
+                applyTo(bySpecialty, event);
+            }
+        }
+    }
+
+    private static void applyTo(Map<String, Bucket> index, DeveloperChangeEvent event) {//только под lock
+        if (event.type() == DeveloperChangeEvent.Type.RESYNC || Objects.isNull(event.developerId())) {
+            forgetVersions(index);//события могли потеряться, на каждое из них в БД поднялась версия
+            return;
+        }
+        int id = event.developerId();
+        DeveloperEntity developer = event.developer();
+        Bucket current = null;
+        for (Bucket bucket : index.values()) {//специальностей мало, поэтому девелопера просто ищем во всех (бинарный поиск по id)
+            DeveloperEntity indexed = bucket.find(id);
+            if (Objects.nonNull(indexed)) {
+                if (Objects.nonNull(developer) && isOlder(developer, indexed)) {//в индексе уже более новая версия
+                    //(например перечитанная из БД после изменения с другого инстанса) - оставляем ее
+                    forgetVersions(index);
+                    return;
+                }
+                current = bucket;
+                break;
+            }
+        }
+        //триггер V6 поднял на 1 версию прежней и новой специальности строки (одну, если она не менялась)
+        if (Objects.nonNull(current)) {
+            bump(current);
+        } else if (event.type() != DeveloperChangeEvent.Type.CREATED) {//строки не было в индексе (не активна): из какой
+            //специальности она ушла, неизвестно
+            forgetVersions(index);
+        }
+        String moved = Objects.isNull(developer) ? null : developer.getSpecialty();
+        Bucket target = Objects.isNull(moved) ? null : index.get(moved);
+        if (Objects.nonNull(target) && target != current) {
+            bump(target);
+        }
+        boolean indexed = Objects.nonNull(developer) && isIndexed(developer);
+        if (Objects.nonNull(current) && !(indexed && current.specialty.equals(developer.getSpecialty()))) {
+            current.remove(id);
+        }
+        if (indexed) {
+            index.computeIfAbsent(developer.getSpecialty(), specialty -> Bucket.of(specialty, List.of()))
+                    .put(developer);
+        }
+    }
+
+    private static void bump(Bucket bucket) {
+        if (bucket.version != UNKNOWN) {
+            bucket.version++;
+        }
+    }
+
+    private static void forgetVersions(Map<String, Bucket> index) {//следующий version() по каждой специальности - в БД
+        index.values().forEach(bucket -> bucket.version = UNKNOWN);
+    }
+
+    private static boolean isIndexed(DeveloperEntity developer) {
+        return developer.getStatus() == Status.ACTIVE && Objects.nonNull(developer.getSpecialty());
+    }
+
+    private static boolean isOlder(DeveloperEntity developer, DeveloperEntity indexed) {
+        return Objects.nonNull(developer.getVersion()) && Objects.nonNull(indexed.getVersion())
+                && indexed.getVersion() > developer.getVersion();
+    }
+
+    public long size() {
+        Map<String, Bucket> snapshot = bySpecialty;
+        return Objects.isNull(snapshot) ? 0 : snapshot.values().stream().mapToLong(Bucket::size).sum();
+    }
+
+    private static final class Bucket {//девелоперы одной специальности, отсортированные по id: int[] для поиска без распаковки
+        //Integer, строки в параллельном массиве. Специальность в строках заменена на один общий экземпляр ключа.
+        //Массивы растут с запасом, как у ArrayList: вставка нового (обычно самого большого) id - без копирования
+
+        private final String specialty;
+        private volatile long version = UNKNOWN;//версия специальности в БД, которую список точно отражает. Меняется только
+        //под lock индекса
+        private int[] ids;//поля меняются только под монитором бакета
+        private DeveloperEntity[] rows;
+        private int size;
+
+        private Bucket(String specialty, int[] ids, DeveloperEntity[] rows) {
+            this.specialty = specialty;
+            this.ids = ids;
+            this.rows = rows;
+            this.size = ids.length;
+        }
+
+        static Bucket of(String specialty, List<DeveloperEntity> developers) {
+            String key = specialty.intern();
+            DeveloperEntity[] rows = developers.stream()
+                    .map(developer -> copyOf(developer, key))
+                    .sorted(Comparator.comparingInt(DeveloperEntity::getId))
+                    .toArray(DeveloperEntity[]::new);
+            int[] ids = Arrays.stream(rows).mapToInt(DeveloperEntity::getId).toArray();
+            return new Bucket(key, ids, rows);
+        }
+
+        synchronized DeveloperEntity[] rows() {//читатель получает свою копию ссылок и дальше идет по ней без блокировки
+            return Arrays.copyOf(rows, size);
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        synchronized DeveloperEntity find(int id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            return position < 0 ? null : rows[position];
+        }
+
+        synchronized void put(DeveloperEntity developer) {//новая строка или замена строки с тем же id
+            int position = Arrays.binarySearch(ids, 0, size, developer.getId());
+            if (position >= 0) {
+                rows[position] = copyOf(developer, specialty);
+                return;
+            }
+            position = -(position + 1);
+            if (size == ids.length) {
+                int capacity = Math.max(8, size + (size >> 1));
+                ids = Arrays.copyOf(ids, capacity);
+                rows = Arrays.copyOf(rows, capacity);
+            }
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            System.arraycopy(rows, position, rows, position + 1, size - position);
+            ids[position] = developer.getId();
+            rows[position] = copyOf(developer, specialty);
+            size++;
+        }
+
+        synchronized void remove(int id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                return;
+            }
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            System.arraycopy(rows, position + 1, rows, position, size - position - 1);
+            size--;
+            rows[size] = null;//не держим удаленную строку
+        }
+
+        private static DeveloperEntity copyOf(DeveloperEntity developer, String specialty) {//своя копия: объект из события
+            //принадлежит вызывающему коду и может еще поменяться
+            return DeveloperEntity.builder()
+                    .id(developer.getId())
+                    .firstName(developer.getFirstName())
+                    .lastName(developer.getLastName())
+                    .email(developer.getEmail())
+                    .specialty(specialty)
+                    .status(developer.getStatus())
+                    .version(developer.getVersion())
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package net.proselyte.qafordevsreactive.codec;
+
+import org.springframework.http.MediaType;
+
+//бинарные форматы для межсервисных вызовов /api/v1/developers: те же ДТО и те же имена полей что в JSON, только компактнее
+//и без разбора текста. application/cbor уже есть в MediaType, остальных там нет
+public final class BinaryMediaTypes {
+
+    public static final String APPLICATION_CBOR_SEQ_VALUE = "application/cbor-seq";//RFC 8742: CBOR значения подряд, без массива
+    public static final MediaType APPLICATION_CBOR_SEQ = MediaType.parseMediaType(APPLICATION_CBOR_SEQ_VALUE);
+
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+    public static final MediaType APPLICATION_SMILE = MediaType.parseMediaType(APPLICATION_SMILE_VALUE);
+
+    public static final String APPLICATION_STREAM_SMILE_VALUE = "application/stream+x-jackson-smile";//поток Smile значений как NDJSON
+    public static final MediaType APPLICATION_STREAM_SMILE = MediaType.parseMediaType(APPLICATION_STREAM_SMILE_VALUE);
+
+    private BinaryMediaTypes() {
+    }
+}
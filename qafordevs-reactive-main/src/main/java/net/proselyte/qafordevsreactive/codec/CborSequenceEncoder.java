@@ -0,0 +1,48 @@
+package net.proselyte.qafordevsreactive.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.lang.Nullable;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+//Jackson2CborEncoder из спринга умеет только Mono, на Flux бросает UnsupportedOperationException. Здесь списки тоже работают:
+//application/cbor - один CBOR массив (как JSON массив, собирается целиком), application/cbor-seq - каждый элемент отдельным
+//CBOR значением и отдельным буфером, WebFlux сбрасывает их в сокет по мере чтения из БД (как NDJSON)
+public class CborSequenceEncoder extends Jackson2CborEncoder {
+
+    public CborSequenceEncoder(ObjectMapper mapper) {
+        super(mapper, MediaType.APPLICATION_CBOR, BinaryMediaTypes.APPLICATION_CBOR_SEQ);
+        setStreamingMediaTypes(List.of(BinaryMediaTypes.APPLICATION_CBOR_SEQ));
+    }
+
+    @Override
+    public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory, ResolvableType elementType,
+                                   @Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
+        if (inputStream instanceof Mono) {//одиночное значение - как есть
+            return Mono.from(inputStream)
+                    .map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints))
+                    .flux();
+        }
+        if (BinaryMediaTypes.APPLICATION_CBOR_SEQ.isCompatibleWith(mimeType)) {//значения CBOR самоограничены, разделитель не нужен
+            return Flux.from(inputStream)
+                    .map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints))
+                    .doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+        }
+        ResolvableType listType = ResolvableType.forClassWithGenerics(List.class, elementType);
+        return Flux.from(inputStream)
+                .collectList()
+                .map(values -> encodeValue(values, bufferFactory, listType, mimeType, hints))
+                .flux();
+    }
+}
@@ -0,0 +1,200 @@
+package net.proselyte.qafordevsreactive.codec;
+
+import net.proselyte.qafordevsreactive.entity.DeveloperEntity;
+import net.proselyte.qafordevsreactive.entity.Status;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.AbstractEncoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.HttpMessageEncoder;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+//Пишет DeveloperEntity сразу в DataBuffer (на Netty это буферы из пула) без промежуточного ДТО и без рефлексии Jackson.
+//Имена полей закодированы в байты заранее, на строку тратится один буфер. Формат ответа тот же что у DeveloperDto через Jackson:
+//те же имена и порядок полей, null поля пропускаются (@JsonInclude NON_NULL)
+public class DeveloperEntityJsonEncoder extends AbstractEncoder<DeveloperEntity> implements HttpMessageEncoder<DeveloperEntity> {
+
+    private static final int ROW_BUFFER_SIZE = 256;//хватает на типичную строку, при необходимости буфер растет сам
+
+    private static final byte[] ID = bytes("\"id\":");
+    private static final byte[] FIRST_NAME = bytes("\"firstName\":");
+    private static final byte[] LAST_NAME = bytes("\"lastName\":");
+    private static final byte[] EMAIL = bytes("\"email\":");
+    private static final byte[] SPECIALTY = bytes("\"specialty\":");
+    private static final byte[] STATUS = bytes("\"status\":");
+    private static final byte[] VERSION = bytes("\"version\":");
+    private static final byte[] ARRAY_START = bytes("[");
+    private static final byte[] ARRAY_END = bytes("]");
+    private static final byte NEW_LINE = '\n';
+
+    private static final Map<Status, byte[]> STATUS_VALUES = new EnumMap<>(Status.class);
+
+    static {
+        for (Status status : Status.values()) {
+            STATUS_VALUES.put(status, bytes("\"" + status.name() + "\""));
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    public DeveloperEntityJsonEncoder() {
+        super(MediaType.APPLICATION_JSON, MediaType.APPLICATION_NDJSON);
+    }
+
+    @Override
+    public boolean canEncode(ResolvableType elementType, MimeType mimeType) {
+        return DeveloperEntity.class.isAssignableFrom(elementType.toClass()) && super.canEncode(elementType, mimeType);
+    }
+
+    @Override
+    public List<MediaType> getStreamingMediaTypes() {//для NDJSON WebFlux сбрасывает в сокет каждую строку сразу
+        return List.of(MediaType.APPLICATION_NDJSON);
+    }
+
+    @Override
+    public Flux<DataBuffer> encode(Publisher<? extends DeveloperEntity> inputStream, DataBufferFactory bufferFactory,
+                                   ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
+        if (inputStream instanceof Mono) {//одиночный девелопер - просто объект
+            return Mono.from(inputStream)
+                    .map(developer -> encodeValue(developer, bufferFactory, elementType, mimeType, hints))
+                    .flux();
+        }
+        if (MediaType.APPLICATION_NDJSON.isCompatibleWith(mimeType)) {//NDJSON: объект на строку
+            return Flux.from(inputStream)
+                    .map(developer -> {
+                        DataBuffer buffer = bufferFactory.allocateBuffer(ROW_BUFFER_SIZE);
+                        writeDeveloper(buffer, developer);
+                        return buffer.write(NEW_LINE);
+                    })
+                    .doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+        }
+        return Flux.defer(() -> {//JSON массив: скобки отдельными буферами, запятая в начале каждой строки кроме первой
+            boolean[] first = {true};
+            Flux<DataBuffer> rows = Flux.from(inputStream)
+                    .map(developer -> {
+                        DataBuffer buffer = bufferFactory.allocateBuffer(ROW_BUFFER_SIZE);
+                        if (!first[0]) {
+                            buffer.write((byte) ',');
+                        }
+                        first[0] = false;
+                        writeDeveloper(buffer, developer);
+                        return buffer;
+                    });
+            return Flux.concat(Mono.fromSupplier(() -> bufferFactory.wrap(ARRAY_START)), rows,
+                            Mono.fromSupplier(() -> bufferFactory.wrap(ARRAY_END)))
+                    .doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+        });
+    }
+
+    @Override
+    public DataBuffer encodeValue(DeveloperEntity developer, DataBufferFactory bufferFactory, ResolvableType valueType,
+                                  MimeType mimeType, Map<String, Object> hints) {
+        DataBuffer buffer = bufferFactory.allocateBuffer(ROW_BUFFER_SIZE);
+        writeDeveloper(buffer, developer);
+        return buffer;
+    }
+
+    private static void writeDeveloper(DataBuffer buffer, DeveloperEntity developer) {
+        buffer.write((byte) '{');
+        boolean first = true;
+        if (Objects.nonNull(developer.getId())) {
+            first = writeName(buffer, ID, first);
+            writeNumber(buffer, developer.getId());
+        }
+        if (Objects.nonNull(developer.getFirstName())) {
+            first = writeName(buffer, FIRST_NAME, first);
+            writeString(buffer, developer.getFirstName());
+        }
+        if (Objects.nonNull(developer.getLastName())) {
+            first = writeName(buffer, LAST_NAME, first);
+            writeString(buffer, developer.getLastName());
+        }
+        if (Objects.nonNull(developer.getEmail())) {
+            first = writeName(buffer, EMAIL, first);
+            writeString(buffer, developer.getEmail());
+        }
+        if (Objects.nonNull(developer.getSpecialty())) {
+            first = writeName(buffer, SPECIALTY, first);
+            writeString(buffer, developer.getSpecialty());
+        }
+        if (Objects.nonNull(developer.getStatus())) {
+            first = writeName(buffer, STATUS, first);
+            buffer.write(STATUS_VALUES.get(developer.getStatus()));
+        }
+        if (Objects.nonNull(developer.getVersion())) {
+            writeName(buffer, VERSION, first);
+            writeNumber(buffer, developer.getVersion());
+        }
+        buffer.write((byte) '}');
+    }
+
+    private static boolean writeName(DataBuffer buffer, byte[] name, boolean first) {
+        if (!first) {
+            buffer.write((byte) ',');
+        }
+        buffer.write(name);
+        return false;
+    }
+
+    private static void writeNumber(DataBuffer buffer, long value) {
+        buffer.write(Long.toString(value), StandardCharsets.US_ASCII);
+    }
+
+    private static void writeString(DataBuffer buffer, String value) {//экранируем так же как Jackson по умолчанию: кавычка, обратный слэш
+        //и управляющие символы, все остальное (включая кириллицу) пишется как есть в UTF-8
+        buffer.write((byte) '"');
+        if (needsEscaping(value)) {
+            buffer.write(escape(value), StandardCharsets.UTF_8);
+        } else {
+            buffer.write(value, StandardCharsets.UTF_8);
+        }
+        buffer.write((byte) '"');
+    }
+
+    private static boolean needsEscaping(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x20 || c == '"' || c == '\\') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String escape(String value) {
+        StringBuilder escaped = new StringBuilder(value.length() + 16);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> escaped.append("\\\"");
+                case '\\' -> escaped.append("\\\\");
+                case '\n' -> escaped.append("\\n");
+                case '\r' -> escaped.append("\\r");
+                case '\t' -> escaped.append("\\t");
+                case '\b' -> escaped.append("\\b");
+                case '\f' -> escaped.append("\\f");
+                default -> {
+                    if (c < 0x20) {
+                        escaped.append(String.format("\\u%04X", (int) c));
+                    } else {
+                        escaped.append(c);
+                    }
+                }
+            }
+        }
+        return escaped.toString();
+    }
+}
@@ -0,0 +1,27 @@
+package net.proselyte.qafordevsreactive.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.spi.ConnectionFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class ConnectionPoolWarmUp implements SmartInitializingSingleton {//пул открывает соединения лениво, при первых запросах.
+    //Здесь открываем их заранее: afterSingletonsInstantiated вызывается после создания всех бинов, но до старта веб сервера,
+    //поэтому первые запросы после деплоя не платят за установку соединения с БД
+
+    private final ObjectProvider<ConnectionFactory> connectionFactory;//в профиле embedded R2DBC не поднимается
+    private final DeveloperProperties developerProperties;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        DeveloperProperties.Pool pool = developerProperties.getPool();
+        if (!pool.isWarmUp() || !(connectionFactory.getIfAvailable() instanceof ConnectionPool connectionPool)) {//пул выключен (spring.r2dbc.pool.enabled=false) - греть нечего
+            return;
+        }
+        connectionPool.warmup().block(pool.getWarmUpTimeout());//ошибка подключения или таймаут валят старт
+    }
+}
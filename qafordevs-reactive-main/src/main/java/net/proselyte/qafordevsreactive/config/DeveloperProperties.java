@@ -0,0 +1,98 @@
+package net.proselyte.qafordevsreactive.config;
+
+import lombok.Data;
+import reactor.core.publisher.BufferOverflowStrategy;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "app.developers")//все настройки работы с девелоперами лежат под префиксом app.developers в application.yaml
+public class DeveloperProperties {
+
+    private int pageSize = 500;//размер страницы (keyset по id) которой сервис вычитывает всю таблицу, в памяти держим не больше одной страницы
+
+    private boolean schemaCheck = true;//при выключенном Flyway (профиль fast) на старте сверяем версию схемы в БД с последней миграцией
+
+    private final Cache cache = new Cache();
+
+    private final Batch batch = new Batch();
+
+    private final Pool pool = new Pool();
+
+    private final Jdbc jdbc = new Jdbc();
+
+    private final Changes changes = new Changes();
+
+    private final SpecialtyIndex specialtyIndex = new SpecialtyIndex();
+
+    private final Coalescing coalescing = new Coalescing();
+
+    private final RateLimit rateLimit = new RateLimit();
+
+    @Data
+    public static class Cache {//настройки read-through кэша для getById и findAllActiveBySpecialty
+        private boolean enabled = true;
+        private long maximumSize = 10_000;//сколько девелоперов по id держим в кэше
+        private long specialtyMaximumSize = 256;//сколько списков по специальности
+        private Duration ttl = Duration.ofMinutes(1);//через сколько запись устаревает даже без изменений (изменения с других подов)
+    }
+
+    @Data
+    public static class Batch {//настройки пачечного создания/изменения POST /api/v1/developers/batch
+        private int chunkSize = 500;//сколько девелоперов уходит в БД одним запросом
+        private int concurrency = 4;//сколько пачек обрабатываются одновременно (каждая занимает соединение из пула)
+    }
+
+    @Data
+    public static class Pool {//прогрев пула соединений (размеры самого пула в spring.r2dbc.pool)
+        private boolean warmUp = true;//открыть initial-size соединений до того как сервер начнет принимать запросы
+        private Duration warmUpTimeout = Duration.ofSeconds(10);//дольше старт не ждем - падаем, как и без БД
+    }
+
+    @Data
+    public static class Jdbc {//соединение для режима app.developers.execution=virtual-threads (JdbcDeveloperRepository)
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 20;//виртуальных потоков сколько угодно, соединений - нет: остальные ждут в очереди пула
+    }
+
+    @Data
+    public static class Changes {//лента изменений GET /api/v1/developers/changes
+        private int historySize = 1024;//сколько последних событий храним для переподключившихся клиентов
+        private int bufferSize = 256;//сколько событий ждут медленного клиента, прежде чем сработает overflowStrategy
+        private BufferOverflowStrategy overflowStrategy = BufferOverflowStrategy.ERROR;//ERROR - оборвать поток (клиент
+        //переподключится и дочитает из истории), DROP_OLDEST/DROP_LATEST - молча терять события
+        private Duration heartbeat = Duration.ofSeconds(15);//комментарий в SSE поток, чтобы прокси не закрывали тихое соединение
+    }
+
+    @Data
+    public static class SpecialtyIndex {//индекс специальность -> активные девелоперы в памяти (SpecialtyIndex)
+        private boolean enabled = false;//по умолчанию выключен: запись в БД мимо сервиса (руками, миграцией) индекс не увидит до перезагрузки
+        private Duration refreshInterval = Duration.ofMinutes(1);//как часто индекс перечитывается целиком (изменения с других инстансов)
+    }
+
+    @Data
+    public static class Coalescing {//склейка одновременных getById в один запрос WHERE id = ANY(...) (DeveloperByIdBatcher)
+        private boolean enabled = false;//по умолчанию каждый getById - свой findById
+        private Duration window = Duration.ofMillis(2);//сколько первый запрос пачки ждет остальных - это и есть добавка к задержке
+        private int maxBatchSize = 100;//пачка набралась раньше окна - уходит в БД сразу
+    }
+
+    @Data
+    public static class RateLimit {//ограничение нагрузки перед DeveloperRestControllerV1 (RateLimitWebFilter)
+        private boolean enabled = true;//умолчание только здесь, в application.yaml его нет
+        private String clientHeader = "X-Client-Id";//по этому заголовку различаем клиентов (только при trustClientHeader)
+        private boolean trustClientHeader = false;//true - только за своим шлюзом/прокси, который сам проставляет clientHeader.
+        //Иначе клиент, меняя заголовок, получает новый лимит на каждый запрос - по умолчанию клиент это IP адрес
+        private long maxClients = 100_000;//сколько клиентов помним одновременно, редкие вытесняются
+        private int clientRate = 100;//запросов в секунду на клиента в среднем, сверх этого - 429
+        private int clientBurst = 200;//сколько запросов клиент может прислать разом после паузы
+        private int maxConcurrent = 64;//одновременных запросов на один эндпоинт, остальные ждут в очереди
+        private int maxQueue = 256;//сколько запросов эндпоинта может ждать, дальше сразу 503
+        private Duration queueTarget = Duration.ofMillis(20);//ожидание в очереди дольше этого - признак перегрузки:
+        //новые запросы сверх maxConcurrent сразу получают 503 вместо очереди, пока ожидание не вернется в норму
+        private Duration maxQueueWait = Duration.ofMillis(200);//дольше в очереди не ждем - 503
+    }
+}
@@ -0,0 +1,18 @@
+package net.proselyte.qafordevsreactive.config;
+
+import net.proselyte.qafordevsreactive.repository.DeveloperRepository;
+import net.proselyte.qafordevsreactive.repository.InMemoryDeveloperRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "app.developers.storage", havingValue = "in-memory")
+public class EmbeddedStorageConfig {//профиль embedded: девелоперы хранятся в памяти процесса, PostgreSQL не нужен.
+    //Автоконфигурации R2DBC и Flyway в этом профиле выключены, поэтому Spring Data свой репозиторий не создает
+
+    @Bean
+    public DeveloperRepository developerRepository() {
+        return new InMemoryDeveloperRepository();
+    }
+}
@@ -0,0 +1,68 @@
+package net.proselyte.qafordevsreactive.config;
+
+import lombok.RequiredArgsConstructor;
+import org.flywaydb.core.api.MigrationVersion;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Objects;
+
+@Component
+@RequiredArgsConstructor
+public class SchemaVersionCheck implements SmartInitializingSingleton {//в профиле fast Flyway на старте не запускается
+    //(не поднимаем JDBC драйвер и не сканируем миграции), миграции катит отдельная команда migrate. Здесь одним запросом
+    //через R2DBC проверяем что схема в БД уже на последней версии, иначе не стартуем
+
+    private static final String MIGRATIONS = "classpath:db/migration/V*__*.sql";
+    private static final String APPLIED_VERSION_SQL = "SELECT version FROM flyway_schema_history " +
+            "WHERE success AND version IS NOT NULL ORDER BY installed_rank DESC LIMIT 1";
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private final ObjectProvider<DatabaseClient> databaseClient;//в профиле embedded БД нет и проверять нечего
+    private final DeveloperProperties developerProperties;
+
+    @Value("${spring.flyway.enabled:true}")//флаг читаем в рантайме а не через @ConditionalOnProperty: при AOT условия вычисляются на сборке
+    private boolean flywayEnabled;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        DatabaseClient client = databaseClient.getIfAvailable();
+        if (flywayEnabled || !developerProperties.isSchemaCheck() || Objects.isNull(client)) {//Flyway включен - он сам все проверил и накатил
+            return;
+        }
+        MigrationVersion expected = latestMigration();
+        MigrationVersion applied = client.sql(APPLIED_VERSION_SQL)
+                .map(row -> MigrationVersion.fromVersion(row.get("version", String.class)))
+                .one()
+                .onErrorMap(e -> new IllegalStateException("Cannot read flyway_schema_history, run the migrate command first", e))
+                .blockOptional(TIMEOUT)
+                .orElse(MigrationVersion.EMPTY);
+        if (!Objects.equals(expected, applied)) {
+            throw new IllegalStateException("Database schema version " + applied + " does not match expected " + expected
+                    + ", run the migrate command first");
+        }
+    }
+
+    private static MigrationVersion latestMigration() {//V4__ADD_DEVELOPERS_VERSION_COLUMN.sql -> 4
+        try {
+            Resource[] migrations = new PathMatchingResourcePatternResolver().getResources(MIGRATIONS);
+            return Arrays.stream(migrations)
+                    .map(Resource::getFilename)
+                    .filter(Objects::nonNull)
+                    .map(name -> MigrationVersion.fromVersion(name.substring(1, name.indexOf("__"))))
+                    .max(Comparator.naturalOrder())
+                    .orElse(MigrationVersion.EMPTY);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot list migrations", e);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package net.proselyte.qafordevsreactive.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "app.developers.execution", havingValue = "virtual-threads")
+public class VirtualThreadConfig {//бины блокирующего режима: JDBC пул и планировщик на виртуальных потоках.
+    //При AOT сборке условие вычисляется на этапе сборки, поэтому AOT артефакт работает в том режиме, под который собран
+
+    @Bean(destroyMethod = "close")
+    public HikariDataSource developerDataSource(DeveloperProperties developerProperties) {
+        DeveloperProperties.Jdbc jdbc = developerProperties.getJdbc();
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(jdbc.getUrl());
+        dataSource.setUsername(jdbc.getUsername());
+        dataSource.setPassword(jdbc.getPassword());
+        dataSource.setMaximumPoolSize(jdbc.getMaximumPoolSize());
+        return dataSource;
+    }
+
+    @Bean
+    public JdbcClient developerJdbcClient(@Qualifier("developerDataSource") HikariDataSource developerDataSource) {
+        return JdbcClient.create(developerDataSource);
+    }
+
+    @Bean(destroyMethod = "close")
+    public ExecutorService developerVirtualThreadExecutor() {//новый виртуальный поток на каждую задачу, пул не нужен
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public Scheduler developerVirtualThreadScheduler(@Qualifier("developerVirtualThreadExecutor") ExecutorService developerVirtualThreadExecutor) {
+        return Schedulers.fromExecutorService(developerVirtualThreadExecutor, "developer-virtual-threads");
+    }
+}
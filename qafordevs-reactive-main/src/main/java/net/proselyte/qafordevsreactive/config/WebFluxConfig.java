@@ -0,0 +1,43 @@
+package net.proselyte.qafordevsreactive.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.proselyte.qafordevsreactive.codec.BinaryMediaTypes;
+import net.proselyte.qafordevsreactive.codec.CborSequenceEncoder;
+import net.proselyte.qafordevsreactive.codec.DeveloperEntityJsonEncoder;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+
+@Configuration
+public class WebFluxConfig implements WebFluxConfigurer {
+
+    private final ObjectMapper objectMapper;
+
+    public WebFluxConfig(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void configureHttpMessageCodecs(ServerCodecConfigurer configurer) {//свои кодеки идут раньше стандартных,
+        //поэтому DeveloperEntity в JSON и NDJSON пишет DeveloperEntityJsonEncoder, все остальное по-прежнему Jackson
+        configurer.customCodecs().register(new DeveloperEntityJsonEncoder());
+        //при Accept */* или без него WebFlux берет первый подходящий писатель, поэтому JSON регистрируется раньше бинарных
+        configurer.customCodecs().register(new Jackson2JsonEncoder(objectMapper));
+        //бинарные форматы выбираются по Content-Type тела и Accept ответа, ДТО и ЭНТИТИ пишет тот же Jackson что и JSON.
+        //Типы указаны явно: конструкторы (ObjectMapper, MimeType...) без них берут JSON типы и перехватывают application/json
+        ObjectMapper smileMapper = Jackson2ObjectMapperBuilder.smile().build();
+        configurer.customCodecs().register(new Jackson2SmileEncoder(smileMapper,
+                BinaryMediaTypes.APPLICATION_SMILE, BinaryMediaTypes.APPLICATION_STREAM_SMILE));//stream+x-jackson-smile - поток
+        configurer.customCodecs().register(new Jackson2SmileDecoder(smileMapper,
+                BinaryMediaTypes.APPLICATION_SMILE, BinaryMediaTypes.APPLICATION_STREAM_SMILE));
+        ObjectMapper cborMapper = Jackson2ObjectMapperBuilder.cbor().build();
+        configurer.customCodecs().register(new CborSequenceEncoder(cborMapper));
+        configurer.customCodecs().register(new Jackson2CborDecoder(cborMapper, MediaType.APPLICATION_CBOR));//только одиночное тело
+    }
+}
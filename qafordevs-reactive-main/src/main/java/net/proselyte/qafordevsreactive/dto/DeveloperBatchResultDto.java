@@ -0,0 +1,33 @@
+package net.proselyte.qafordevsreactive.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import net.proselyte.qafordevsreactive.service.DeveloperBatchResult;
+
+import java.util.Objects;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DeveloperBatchResultDto {
+    private Long index;
+    private DeveloperBatchResult.Outcome outcome;
+    private DeveloperDto developer;
+    private String errorCode;
+    private String message;
+
+    public static DeveloperBatchResultDto fromResult(DeveloperBatchResult result) {
+        return DeveloperBatchResultDto.builder()
+                .index(result.index())
+                .outcome(result.outcome())
+                .developer(Objects.isNull(result.developer()) ? null : DeveloperDto.fromEntity(result.developer()))
+                .errorCode(result.errorCode())
+                .message(result.message())
+                .build();
+    }
+}
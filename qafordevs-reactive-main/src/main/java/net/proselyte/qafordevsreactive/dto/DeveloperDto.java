@@ -24,6 +24,7 @@ DeveloperDto {
     private String email;
     private String specialty;
     private Status status;
+    private Long version;
 
     public static DeveloperDto fromEntity(DeveloperEntity entity) {
         return DeveloperDto.builder()
@@ -33,6 +34,7 @@ DeveloperDto {
                 .email(entity.getEmail())
                 .specialty(entity.getSpecialty())
                 .status(entity.getStatus())
+                .version(entity.getVersion())
                 .build();
     }
 
@@ -44,6 +46,7 @@ DeveloperDto {
                 .email(email)
                 .specialty(specialty)
                 .status(status)
+                .version(version)
                 .build();
     }
 }
@@ -0,0 +1,31 @@
+package net.proselyte.qafordevsreactive.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import net.proselyte.qafordevsreactive.service.DeveloperLookupResult;
+
+import java.util.Objects;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DeveloperLookupResultDto {
+    private Integer id;
+    private DeveloperLookupResult.Outcome outcome;
+    private DeveloperDto developer;
+    private String errorCode;
+
+    public static DeveloperLookupResultDto fromResult(DeveloperLookupResult result) {
+        return DeveloperLookupResultDto.builder()
+                .id(result.id())
+                .outcome(result.outcome())
+                .developer(Objects.isNull(result.developer()) ? null : DeveloperDto.fromEntity(result.developer()))
+                .errorCode(result.outcome() == DeveloperLookupResult.Outcome.NOT_FOUND ? "DEVELOPER_NOT_FOUND" : null)
+                .build();
+    }
+}
@@ -0,0 +1,24 @@
+package net.proselyte.qafordevsreactive.dto;
+
+import net.proselyte.qafordevsreactive.entity.DeveloperEntity;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+//ЭНТИТИ -> ДТО в реактивной цепочке, подключается через transform: .transform(DeveloperProjection::toDto).
+//Раньше контроллер делал flatMap(entity -> Mono.just(DeveloperDto.fromEntity(entity))): на каждую строку подписка на
+//внутренний Mono, для Flux еще и до 256 внутренних подписок одновременно без гарантии порядка. Здесь обычный синхронный map:
+//Reactor сливает его с соседними операторами (fusion), порядок строк из БД (страницы по курсору) сохраняется как есть
+public final class DeveloperProjection {
+
+    private DeveloperProjection() {
+    }
+
+    public static Mono<DeveloperDto> toDto(Mono<DeveloperEntity> developer) {
+        return developer.map(DeveloperDto::fromEntity);
+    }
+
+    public static Flux<DeveloperDto> toDtos(Flux<DeveloperEntity> developers) {//списки в JSON/NDJSON контроллер отдает ЭНТИТИ напрямую
+        //(DeveloperEntityJsonEncoder), этот вариант для мест где нужны именно ДТО
+        return developers.map(DeveloperDto::fromEntity);
+    }
+}
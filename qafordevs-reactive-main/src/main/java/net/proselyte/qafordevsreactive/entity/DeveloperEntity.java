@@ -1,10 +1,13 @@
 package net.proselyte.qafordevsreactive.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.domain.Persistable;
 import org.springframework.data.relational.core.mapping.Table;
 
@@ -14,6 +17,7 @@ import java.util.Objects;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)//если ЭНТИТИ все же попадет в Jackson (например Accept: application/*+json) - формат как у DeveloperDto
 @Table("developers")//важно что здесь мы используем спринговые зависимости (import org.springframework.data.relational.core.mapping.Table)
 //в прошлом проэкте где тестирововали РЕСТ приложение зависимости все были джакартовские (import jakarta.persistence.*)
 public class DeveloperEntity implements Persistable<Integer> {
@@ -31,7 +35,12 @@ public class DeveloperEntity implements Persistable<Integer> {
 
     private Status status;
 
+    @Version//версия строки: save() для существующей записи делает UPDATE ... WHERE id = ? AND version = ? и увеличивает версию,
+    //если кто-то успел изменить строку раньше - OptimisticLockingFailureException вместо молчаливой перезаписи
+    private Long version;
+
     @Override
+    @JsonIgnore
     public boolean isNew() {//проверяем обьет новый или нет
         return Objects.isNull(id);
     }
@@ -1,26 +1,74 @@
 package net.proselyte.qafordevsreactive.errorhandling;
 
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import net.proselyte.qafordevsreactive.exception.ApiException;
+import net.proselyte.qafordevsreactive.exception.DeveloperLookupLimitExceededException;
 import net.proselyte.qafordevsreactive.exception.DeveloperNotFoundException;
+import net.proselyte.qafordevsreactive.exception.DeveloperVersionConflictException;
 import net.proselyte.qafordevsreactive.exception.DeveloperWithEmailAlreadyExistsException;
+import net.proselyte.qafordevsreactive.exception.RateLimitExceededException;
+import net.proselyte.qafordevsreactive.exception.ServiceOverloadedException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.web.error.ErrorAttributeOptions;
 import org.springframework.boot.web.reactive.error.DefaultErrorAttributes;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.server.ServerRequest;
 
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 public class AppErrorAttributes extends DefaultErrorAttributes {//компонент AppErrorAttributes экстендит DefaultErrorAttributes
     //который входит в стандартный набор обработки ошибок спринга
 
+    public static final String ERRORS_COUNTER = "developer.api.errors";
+
+    private static final Map<Class<? extends ApiException>, HttpStatus> STATUSES = Map.of(//какой статус отдаем на какое исключение,
+            //новое исключение - новая строка в таблице, а не еще одна ветка if
+            DeveloperWithEmailAlreadyExistsException.class, HttpStatus.BAD_REQUEST,
+            DeveloperLookupLimitExceededException.class, HttpStatus.BAD_REQUEST,
+            DeveloperNotFoundException.class, HttpStatus.NOT_FOUND,
+            DeveloperVersionConflictException.class, HttpStatus.CONFLICT,
+            RateLimitExceededException.class, HttpStatus.TOO_MANY_REQUESTS,
+            ServiceOverloadedException.class, HttpStatus.SERVICE_UNAVAILABLE);
+
+    private static final ClassValue<HttpStatus> STATUS_BY_TYPE = new ClassValue<>() {//поиск по таблице с учетом наследников,
+        //результат запоминается для каждого класса исключения
+        @Override
+        protected HttpStatus computeValue(Class<?> type) {
+            for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+                HttpStatus status = STATUSES.get(current);
+                if (status != null) {
+                    return status;
+                }
+            }
+            return ApiException.class.isAssignableFrom(type) ? HttpStatus.NOT_FOUND : HttpStatus.INTERNAL_SERVER_ERROR;
+        }
+    };
+
+    private static final int MAX_CACHED_BODIES = 256;//тексты ошибок у нас константы, но на случай сообщений с данными кэш ограничен
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final MeterRegistry meterRegistry;//может отсутствовать (тесты контроллера, бенчмарки) - тогда ошибки просто не считаем
+    private final Map<BodyKey, ErrorBody> bodies = new ConcurrentHashMap<>();
+
     public AppErrorAttributes() {
         super();
+        this.meterRegistry = null;
+    }
+
+    @Autowired
+    public AppErrorAttributes(ObjectProvider<MeterRegistry> meterRegistry) {
+        super();
+        this.meterRegistry = meterRegistry.getIfAvailable();
     }
 
     @Override
@@ -29,45 +77,73 @@ public class AppErrorAttributes extends DefaultErrorAttributes {//компоне
         var errorAttributes = super.getErrorAttributes(request, ErrorAttributeOptions.defaults());
         var error = getError(request);
 
-        var errorList = new ArrayList<Map<String, Object>>();
-
-        HttpStatus status;
-        if (error instanceof DeveloperWithEmailAlreadyExistsException) { //если ошибка которая была перехвачена относится к DeveloperWithEmailAlreadyExistsException
-            status = HttpStatus.BAD_REQUEST;//присваиваем этой ошибки 400 BAD_REQUEST
-            var errorMap = new LinkedHashMap<String, Object>();
-            errorMap.put("code", ((ApiException) error).getErrorCode());//накидываем код ошибки
-            errorMap.put("message", error.getMessage());//накидываем сообщение
-            errorList.add(errorMap);//и в коллекцию ошибок передаем эту ошибку (эту мапу: var errorMap = new LinkedHashMap<String, Object>(); )
-        } else if (error instanceof DeveloperNotFoundException) {//если ошибка которая была перехвачена относится к DeveloperNotFoundException
-            status = HttpStatus.NOT_FOUND;//устанавливаем статус NOT_FOUND и ниже все по аналогии
-            var errorMap = new LinkedHashMap<String, Object>();
-            errorMap.put("code", ((ApiException) error).getErrorCode());
-            errorMap.put("message", error.getMessage());
-            errorList.add(errorMap);
-        } else if (error instanceof ApiException) {
-            status = HttpStatus.NOT_FOUND;
-            var errorMap = new LinkedHashMap<String, Object>();
-            errorMap.put("code", ((ApiException) error).getErrorCode());
-            errorMap.put("message", error.getMessage());
-            errorList.add(errorMap);
-        } else {//если все вышесказанное не подошло
-            status = HttpStatus.INTERNAL_SERVER_ERROR;//даем статус самый страшный))) 500
-            var message = error.getMessage();
-            if (message == null)
-                message = error.getClass().getName();
-
-            var errorMap = new LinkedHashMap<String, Object>();
-            errorMap.put("code", "INTERNAL_ERROR");
-            errorMap.put("message", message);
-            errorList.add(errorMap);
+        HttpStatus status = statusOf(error);
+        String code;
+        String message;
+        if (error instanceof ApiException apiException) {//ошибка для клиента: код и сообщение из исключения
+            code = apiException.getErrorCode();
+            message = apiException.getMessage();
+        } else {//если все вышесказанное не подошло - статус самый страшный))) 500
+            code = "INTERNAL_ERROR";
+            message = error.getMessage() == null ? error.getClass().getName() : error.getMessage();
+        }
+
+        if (meterRegistry != null) {
+            errorCounter(code, status).increment();
         }
 
         //здесь ошибки кладутся в мапу и отдаются наверх
-        var errors = new HashMap<String, Object>();
-        errors.put("errors", errorList);
         errorAttributes.put("status", status.value());
-        errorAttributes.put("errors", errors);
+        errorAttributes.put("errors", errorsBody(code, message));
 
         return errorAttributes;
     }
+
+    public ErrorBody errorBody(ApiException error) {//быстрый путь для ApiException: статус и уже сериализованное тело ответа
+        //берутся из кэша, на частые 404 не создаются ни мапы DefaultErrorAttributes, ни JSON
+        BodyKey key = new BodyKey(error.getClass(), error.getErrorCode(), error.getMessage());
+        ErrorBody body = bodies.get(key);
+        if (body == null) {
+            body = createBody(key);
+            if (bodies.size() < MAX_CACHED_BODIES) {
+                bodies.putIfAbsent(key, body);
+            }
+        }
+        if (body.counter() != null) {
+            body.counter().increment();
+        }
+        return body;
+    }
+
+    private static HttpStatus statusOf(Throwable error) {
+        return STATUS_BY_TYPE.get(error.getClass());
+    }
+
+    private ErrorBody createBody(BodyKey key) {
+        HttpStatus status = STATUS_BY_TYPE.get(key.type());
+        try {
+            byte[] json = OBJECT_MAPPER.writeValueAsBytes(errorsBody(key.code(), key.message()));
+            return new ErrorBody(status, json, meterRegistry == null ? null : errorCounter(key.code(), status));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize error body", e);
+        }
+    }
+
+    private static Map<String, Object> errorsBody(String code, String message) {//{"errors":[{"code":...,"message":...}]}
+        var error = new LinkedHashMap<String, Object>();
+        error.put("code", code);
+        error.put("message", message);
+        return Map.of("errors", List.of(error));
+    }
+
+    private Counter errorCounter(String code, HttpStatus status) {//счетчик на каждый код ошибки:
+        //видно какие ошибки и как часто отдаем клиентам, например всплеск DEVELOPER_VERSION_CONFLICT
+        return meterRegistry.counter(ERRORS_COUNTER, "code", String.valueOf(code), "status", String.valueOf(status.value()));
+    }
+
+    public record ErrorBody(HttpStatus status, byte[] json, Counter counter) {
+    }
+
+    private record BodyKey(Class<?> type, String code, String message) {
+    }
 }
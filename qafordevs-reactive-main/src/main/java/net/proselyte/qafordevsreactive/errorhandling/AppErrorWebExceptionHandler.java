@@ -1,6 +1,7 @@
 package net.proselyte.qafordevsreactive.errorhandling;
 
 
+import net.proselyte.qafordevsreactive.exception.ApiException;
 import org.springframework.boot.autoconfigure.web.WebProperties;
 import org.springframework.boot.autoconfigure.web.reactive.error.AbstractErrorWebExceptionHandler;
 import org.springframework.boot.web.error.ErrorAttributeOptions;
@@ -14,19 +15,32 @@ import org.springframework.web.reactive.function.server.RequestPredicates;
 import org.springframework.web.reactive.function.server.RouterFunction;
 import org.springframework.web.reactive.function.server.RouterFunctions;
 import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
 
 @Component
 public class AppErrorWebExceptionHandler extends AbstractErrorWebExceptionHandler {//данный класс наследуется от AbstractErrorWebExceptionHandler
     // в который передаем errorAttributes из класса AppErrorAttributes
+
+    private final AppErrorAttributes appErrorAttributes;
+
     public AppErrorWebExceptionHandler(AppErrorAttributes g, ApplicationContext applicationContext, ServerCodecConfigurer serverCodecConfigurer) {
         super(g, new WebProperties.Resources(), applicationContext);
         super.setMessageWriters(serverCodecConfigurer.getWriters());
         super.setMessageReaders(serverCodecConfigurer.getReaders());
+        this.appErrorAttributes = g;
     }
 
     @Override
     protected RouterFunction<ServerResponse> getRoutingFunction(final ErrorAttributes errorAttributes) {
         return RouterFunctions.route(RequestPredicates.all(), request -> {
+            if (errorAttributes.getError(request) instanceof ApiException apiException) {//ожидаемая ошибка: готовые байты тела из кэша,
+                //без DefaultErrorAttributes и без Jackson на каждый ответ
+                AppErrorAttributes.ErrorBody body = appErrorAttributes.errorBody(apiException);
+                return ServerResponse.status(body.status())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body((response, context) -> response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(body.json()))));
+            }
+
             var props = getErrorAttributes(request, ErrorAttributeOptions.defaults());
 
             return ServerResponse.status(Integer.parseInt(props.getOrDefault("status", 500).toString()))
@@ -0,0 +1,21 @@
+package net.proselyte.qafordevsreactive.event;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import net.proselyte.qafordevsreactive.entity.DeveloperEntity;
+
+import java.time.Instant;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record DeveloperChangeEvent(long sequence, Type type, Integer developerId, DeveloperEntity developer, Instant timestamp) {
+    //одно изменение девелопера в ленте GET /api/v1/developers/changes. sequence растет на 1 с каждым изменением,
+    //по нему клиент продолжает чтение после переподключения. developer - состояние после изменения (для удаления не заполняется)
+
+    public enum Type {
+        CREATED, UPDATED, SOFT_DELETED, HARD_DELETED,
+        RESYNC//клиент пропустил изменения (их уже нет в истории или сервер перезапустился) - надо перечитать список целиком
+    }
+
+    static DeveloperChangeEvent resync(long sequence) {
+        return new DeveloperChangeEvent(sequence, Type.RESYNC, null, null, Instant.now());
+    }
+}
@@ -0,0 +1,111 @@
+package net.proselyte.qafordevsreactive.event;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.proselyte.qafordevsreactive.config.DeveloperProperties;
+import net.proselyte.qafordevsreactive.entity.DeveloperEntity;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Instant;
+import java.util.Objects;
+
+@Component
+public class DeveloperChangeFeed {//лента изменений девелоперов: сервис публикует каждое успешное изменение,
+    //подписчики SSE получают их по порядку. Последние historySize событий хранятся, чтобы переподключившийся клиент
+    //мог продолжить с последнего полученного sequence. Лента живет в памяти одного инстанса, после рестарта sequence начинается заново
+
+    public static final String FAILED_COUNTER = "developer.changes.failed";
+
+    private final DeveloperProperties.Changes changes;
+    private final Sinks.Many<DeveloperChangeEvent> sink;
+    private final Counter failed;//события, которые sink не принял (подписчики их не увидят), null - без метрик
+    private final Scheduler scheduler = Schedulers.parallel();
+    private long sequence;//меняется только под synchronized publish
+    private long failedCount;//меняется только под synchronized publish
+
+    public DeveloperChangeFeed(DeveloperProperties developerProperties) {
+        this(developerProperties, (MeterRegistry) null);
+    }
+
+    @Autowired
+    public DeveloperChangeFeed(DeveloperProperties developerProperties, ObjectProvider<MeterRegistry> meterRegistry) {
+        this(developerProperties, meterRegistry.getIfAvailable());
+    }
+
+    private DeveloperChangeFeed(DeveloperProperties developerProperties, MeterRegistry registry) {
+        this.changes = developerProperties.getChanges();
+        this.sink = Sinks.many().replay().limit(changes.getHistorySize());//ограниченная история + раздача всем подписчикам
+        this.failed = registry == null ? null : Counter.builder(FAILED_COUNTER).register(registry);
+    }
+
+    public void created(DeveloperEntity developer) {
+        publish(DeveloperChangeEvent.Type.CREATED, developer.getId(), developer);
+    }
+
+    public void updated(DeveloperEntity developer) {
+        publish(DeveloperChangeEvent.Type.UPDATED, developer.getId(), developer);
+    }
+
+    public void softDeleted(Integer id) {
+        publish(DeveloperChangeEvent.Type.SOFT_DELETED, id, null);
+    }
+
+    public void hardDeleted(Integer id) {
+        publish(DeveloperChangeEvent.Type.HARD_DELETED, id, null);
+    }
+
+    private synchronized void publish(DeveloperChangeEvent.Type type, Integer id, DeveloperEntity developer) {//sequence и порядок
+        //в sink должны совпадать, а sink не принимает одновременные emit из разных потоков - поэтому под одним локом
+        sequence++;
+        Sinks.EmitResult result = sink.tryEmitNext(new DeveloperChangeEvent(sequence, type, id, developer, Instant.now()));
+        if (result.isFailure()) {//изменение в БД уже есть, а в ленте его не будет (sink завершен) - молча терять нельзя,
+            //считаем в метрику. Индекс догонит БД при ближайшей перезагрузке
+            failedCount++;
+            if (failed != null) {
+                failed.increment();
+            }
+        }
+    }
+
+    private synchronized long currentSequence() {
+        return sequence;
+    }
+
+    public synchronized long failedCount() {
+        return failedCount;
+    }
+
+    public Flux<DeveloperChangeEvent> changes(Long since) {//since - последний полученный клиентом sequence, null - только новые изменения
+        return Flux.defer(() -> {
+                    long current = currentSequence();
+                    if (Objects.nonNull(since) && since > current) {//клиент знает sequence больше нашего - сервер перезапускался
+                        return Flux.concat(Flux.just(DeveloperChangeEvent.resync(current)), after(current));
+                    }
+                    long from = Objects.isNull(since) ? current : since;
+                    return after(from)
+                            .switchOnFirst((first, events) -> first.hasValue() && first.get().sequence() > from + 1
+                                    ? Flux.concat(Flux.just(DeveloperChangeEvent.resync(first.get().sequence() - 1)), events)//часть
+                                    //изменений после from уже вытеснена из истории
+                                    : events);
+                })
+                .onBackpressureBuffer(changes.getBufferSize(), dropped -> {
+                }, changes.getOverflowStrategy())//у каждого подписчика свой ограниченный буфер: медленный клиент не держит
+                //память и не тормозит остальных. При ERROR его поток обрывается, и он переподключается с Last-Event-ID
+                .publishOn(scheduler);//под локом publish только кладем в буфер, сериализация и запись в сокет - на своем потоке
+    }
+
+    public Flux<DeveloperChangeEvent> live() {//новые изменения без буфера и смены потока, для подписчиков внутри приложения:
+        //обработчик вызывается прямо в publish (под его локом), поэтому должен быть коротким и не бросать исключений
+        return Flux.defer(() -> after(currentSequence()));
+    }
+
+    private Flux<DeveloperChangeEvent> after(long from) {//история из replay + новые события, без уже полученных клиентом
+        return sink.asFlux().filter(event -> event.sequence() > from);
+    }
+}
@@ -2,13 +2,14 @@ package net.proselyte.qafordevsreactive.exception;
 
 import lombok.Getter;
 
-public class ApiException extends RuntimeException {
+public class ApiException extends RuntimeException {//ожидаемая ошибка для клиента (404, 400, 409), а не сбой:
+    //стек вызовов не нужен ни в ответе, ни в логах, поэтому его не собираем - это самая дорогая часть создания исключения
 
     @Getter
-    protected String errorCode;
+    protected final String errorCode;
 
     public ApiException(String message, String errorCode) {
-        super(message);
+        super(message, null, false, false);//без suppressed и без fillInStackTrace
         this.errorCode = errorCode;
     }
 }
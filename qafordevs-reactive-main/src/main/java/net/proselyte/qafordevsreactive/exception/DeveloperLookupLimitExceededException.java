@@ -0,0 +1,8 @@
+package net.proselyte.qafordevsreactive.exception;
+
+public class DeveloperLookupLimitExceededException extends ApiException {
+
+    public DeveloperLookupLimitExceededException(String message, String errorCode) {
+        super(message, errorCode);
+    }
+}
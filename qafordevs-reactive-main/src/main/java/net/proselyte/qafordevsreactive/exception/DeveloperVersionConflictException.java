@@ -0,0 +1,8 @@
+package net.proselyte.qafordevsreactive.exception;
+
+public class DeveloperVersionConflictException extends ApiException {
+
+    public DeveloperVersionConflictException(String message, String errorCode) {
+        super(message, errorCode);
+    }
+}
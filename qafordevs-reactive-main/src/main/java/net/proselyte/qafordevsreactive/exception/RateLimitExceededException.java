@@ -0,0 +1,8 @@
+package net.proselyte.qafordevsreactive.exception;
+
+public class RateLimitExceededException extends ApiException {//клиент превысил свою частоту запросов (429)
+
+    public RateLimitExceededException(String message, String errorCode) {
+        super(message, errorCode);
+    }
+}
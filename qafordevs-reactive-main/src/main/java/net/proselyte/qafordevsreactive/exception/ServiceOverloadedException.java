@@ -0,0 +1,8 @@
+package net.proselyte.qafordevsreactive.exception;
+
+public class ServiceOverloadedException extends ApiException {//запрос сброшен без обработки, сервис перегружен (503)
+
+    public ServiceOverloadedException(String message, String errorCode) {
+        super(message, errorCode);
+    }
+}
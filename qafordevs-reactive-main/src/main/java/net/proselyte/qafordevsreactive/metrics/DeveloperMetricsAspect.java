@@ -0,0 +1,99 @@
+package net.proselyte.qafordevsreactive.metrics;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class DeveloperMetricsAspect {//таймеры на каждый метод сервиса и каждый запрос репозитория.
+    //Реактивный метод возвращает управление сразу, поэтому для Mono/Flux время меряем от подписки до завершения, а не сам вызов метода
+
+    public static final String SERVICE_TIMER = "developer.service";
+    public static final String REPOSITORY_TIMER = "developer.repository";
+
+    private final MeterRegistry meterRegistry;
+    //таймеры по имени метода: builder и register (поиск в реестре по имени и тегам) - только при первом вызове, а не на каждый
+    private final Map<String, MethodTimers> serviceTimers = new ConcurrentHashMap<>();
+    private final Map<String, MethodTimers> repositoryTimers = new ConcurrentHashMap<>();
+
+    @Around("execution(public * net.proselyte.qafordevsreactive.service.DeveloperServiceImpl.*(..)) || " +
+            "execution(public * net.proselyte.qafordevsreactive.service.VirtualThreadDeveloperService.*(..))")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return timed(joinPoint, serviceTimers, SERVICE_TIMER, "operation");
+    }
+
+    @Around("execution(* net.proselyte.qafordevsreactive.repository.DeveloperRepository+.*(..)) || " +
+            "execution(* net.proselyte.qafordevsreactive.repository.BlockingDeveloperRepository+.*(..))")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {//и производные/@Query запросы, и методы фрагмента DeveloperRepositoryCustom
+        return timed(joinPoint, repositoryTimers, REPOSITORY_TIMER, "query");
+    }
+
+    private Object timed(ProceedingJoinPoint joinPoint, Map<String, MethodTimers> timers, String name, String tag) throws Throwable {
+        MethodTimers methodTimers = timers.computeIfAbsent(joinPoint.getSignature().getName(),
+                method -> new MethodTimers(name, tag, method));
+        Timer.Sample call = Timer.start(meterRegistry);
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable e) {
+            call.stop(methodTimers.of(SignalType.ON_ERROR));
+            throw e;
+        }
+        if (result instanceof Mono<?> mono) {
+            return Mono.defer(() -> {
+                Timer.Sample sample = Timer.start(meterRegistry);
+                return mono.doFinally(signal -> sample.stop(methodTimers.of(signal)));
+            });
+        }
+        if (result instanceof Flux<?> flux) {
+            return Flux.defer(() -> {
+                Timer.Sample sample = Timer.start(meterRegistry);
+                return flux.doFinally(signal -> sample.stop(methodTimers.of(signal)));
+            });
+        }
+        call.stop(methodTimers.of(SignalType.ON_COMPLETE));//блокирующий метод (JdbcDeveloperRepository) уже все сделал
+        return result;
+    }
+
+    private final class MethodTimers {//таймеры одного метода по исходу, регистрируются при первом таком исходе
+
+        private static final String[] OUTCOMES = {"SUCCESS", "ERROR", "CANCELLED"};
+
+        private final Meter.MeterProvider<Timer> provider;
+        private final AtomicReferenceArray<Timer> byOutcome = new AtomicReferenceArray<>(OUTCOMES.length);
+
+        private MethodTimers(String name, String tag, String method) {
+            this.provider = Timer.builder(name)//гистограмма и перцентили включаются в application.yaml (management.metrics.distribution)
+                    .tag(tag, method)
+                    .withRegistry(meterRegistry);
+        }
+
+        private Timer of(SignalType signal) {
+            int outcome = switch (signal) {
+                case ON_ERROR -> 1;
+                case CANCEL -> 2;
+                default -> 0;
+            };
+            Timer timer = byOutcome.get(outcome);
+            if (timer == null) {//гонка безопасна: реестр вернет обоим один и тот же таймер
+                timer = provider.withTag("outcome", OUTCOMES[outcome]);
+                byOutcome.set(outcome, timer);
+            }
+            return timer;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package net.proselyte.qafordevsreactive.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+//token bucket на каждого клиента в форме GCRA: вместо пары "токены + время пополнения" у клиента одно число - момент,
+//когда его ведро снова будет полным (theoretical arrival time). Проверка и списание - один compareAndSet без блокировок.
+//Ведра лежат в Caffeine кэше: не больше maxClients, а ведро, к которому не обращались дольше времени полного пополнения,
+//уже полное и ничем не отличается от нового - Caffeine выкидывает его сам, без проходов по всем клиентам
+public class ClientRateLimiter {
+
+    private final Cache<String, AtomicLong> buckets;
+    private final long emissionIntervalNanos;//одно списание, т.е. 1 / rate
+    private final long burstNanos;//emissionInterval * burst: на сколько время полного ведра может уйти вперед от текущего
+    private final LongSupplier clock;
+
+    public ClientRateLimiter(int rate, int burst, long maxClients) {
+        this(rate, burst, maxClients, System::nanoTime);
+    }
+
+    ClientRateLimiter(int rate, int burst, long maxClients, LongSupplier clock) {
+        if (rate <= 0 || burst <= 0 || maxClients <= 0) {
+            throw new IllegalArgumentException("Rate, burst and max clients must be positive");
+        }
+        this.emissionIntervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        this.burstNanos = emissionIntervalNanos * burst;
+        this.clock = clock;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxClients)//при переполнении вытесняются редкие клиенты, частые остаются
+                .expireAfterAccess(Duration.ofNanos(burstNanos))
+                .ticker(clock::getAsLong)
+                .build();
+    }
+
+    public boolean tryAcquire(String client) {//true - запрос пропускаем, false - клиент исчерпал свою частоту
+        long now = clock.getAsLong();
+        AtomicLong fullAt = buckets.get(client, key -> new AtomicLong(now));
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + emissionIntervalNanos;
+            if (next - now > burstNanos) {//ведро пустое
+                return false;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+
+    long clients() {
+        buckets.cleanUp();
+        return buckets.estimatedSize();
+    }
+}
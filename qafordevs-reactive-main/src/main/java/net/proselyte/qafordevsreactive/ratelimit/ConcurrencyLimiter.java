@@ -0,0 +1,135 @@
+package net.proselyte.qafordevsreactive.ratelimit;
+
+import net.proselyte.qafordevsreactive.exception.ServiceOverloadedException;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+//ограничение одновременных запросов одного эндпоинта: maxConcurrent выполняются, остальные ждут в очереди без блокировки
+//потоков (Mono, который завершится когда освободится место). Сброс нагрузки по времени ожидания, как в CoDel:
+//если запрос простоял в очереди дольше queueTarget, эндпоинт считается перегруженным и следующие запросы сверх maxConcurrent
+//сразу получают 503, а не встают в очередь, в которой все равно не дождутся. Как только очередь снова проходится
+//быстрее queueTarget (или прошло maxQueueWait), запросы снова ставятся в очередь
+public class ConcurrencyLimiter {
+
+    private final int maxConcurrent;
+    private final int maxQueue;
+    private final long queueTargetNanos;
+    private final Duration maxQueueWait;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+    private volatile long sheddingUntil = System.nanoTime();//до этого момента (nanoTime) новые запросы в очередь не ставим
+
+    public ConcurrencyLimiter(int maxConcurrent, int maxQueue, Duration queueTarget, Duration maxQueueWait) {
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueue = maxQueue;
+        this.queueTargetNanos = queueTarget.toNanos();
+        this.maxQueueWait = maxQueueWait;
+    }
+
+    public Mono<Void> acquire() {//завершается когда запрос может выполняться, после выполнения обязательно release()
+        return Mono.defer(() -> {
+            if (tryAcquire()) {
+                return Mono.empty();
+            }
+            if (isShedding() || queued.get() >= maxQueue) {
+                return Mono.error(ConcurrencyLimiter::overloaded);
+            }
+            return Mono.<Void>create(this::enqueue)
+                    .timeout(maxQueueWait, Schedulers.parallel())
+                    .onErrorMap(TimeoutException.class, e -> {
+                        observeQueueDelay(maxQueueWait.toNanos());
+                        return overloaded();
+                    });
+        });
+    }
+
+    public void release() {
+        inFlight.decrementAndGet();
+        drain();
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    public int queued() {
+        return queued.get();
+    }
+
+    public boolean isShedding() {
+        return System.nanoTime() - sheddingUntil < 0;
+    }
+
+    private void enqueue(MonoSink<Void> sink) {
+        Waiter waiter = new Waiter(sink, System.nanoTime());
+        sink.onCancel(() -> {//таймаут или клиент ушел
+            if (waiter.claim()) {
+                queued.decrementAndGet();
+            } else {//место уже отдали этому запросу, но он его не дождался - возвращаем
+                release();
+            }
+        });
+        queued.incrementAndGet();
+        waiters.offer(waiter);
+        drain();//место могло освободиться пока запрос вставал в очередь
+    }
+
+    private void drain() {
+        while (!waiters.isEmpty() && tryAcquire()) {
+            Waiter waiter = waiters.poll();
+            if (waiter == null || !waiter.claim()) {//очередь опустела или запрос уже отменен - место не нужно
+                inFlight.decrementAndGet();
+                continue;
+            }
+            queued.decrementAndGet();
+            observeQueueDelay(System.nanoTime() - waiter.enqueuedAt);
+            waiter.sink.success();
+        }
+    }
+
+    private boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= maxConcurrent) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private void observeQueueDelay(long delayNanos) {
+        long now = System.nanoTime();
+        sheddingUntil = delayNanos > queueTargetNanos ? now + maxQueueWait.toNanos() : now;
+    }
+
+    private static ServiceOverloadedException overloaded() {
+        return new ServiceOverloadedException("Service is overloaded, retry later", "SERVICE_OVERLOADED");
+    }
+
+    private static final class Waiter extends AtomicBoolean {//true - запрос уже получил место или отменен
+
+        private final MonoSink<Void> sink;
+        private final long enqueuedAt;
+
+        private Waiter(MonoSink<Void> sink, long enqueuedAt) {
+            this.sink = sink;
+            this.enqueuedAt = enqueuedAt;
+        }
+
+        private boolean claim() {
+            return compareAndSet(false, true);
+        }
+    }
+}
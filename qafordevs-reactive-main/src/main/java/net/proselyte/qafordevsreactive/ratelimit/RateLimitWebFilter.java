@@ -0,0 +1,167 @@
+package net.proselyte.qafordevsreactive.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.proselyte.qafordevsreactive.codec.BinaryMediaTypes;
+import net.proselyte.qafordevsreactive.config.DeveloperProperties;
+import net.proselyte.qafordevsreactive.exception.RateLimitExceededException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class RateLimitWebFilter implements WebFilter, Ordered {//ограничение нагрузки перед DeveloperRestControllerV1:
+    //сначала частота запросов клиента (ClientRateLimiter, 429), потом одновременные запросы эндпоинта (ConcurrencyLimiter, 503).
+    //Отказ - ApiException, поэтому ответ в общем формате AppErrorWebExceptionHandler. Выключен - запросы идут мимо
+
+    public static final String REQUESTS_COUNTER = "developer.ratelimit.requests";
+
+    private static final String API_PATH = "/api/v1/developers";
+    private static final String CHANGES_PATH = API_PATH + "/changes";//SSE поток держит соединение минутами, место в лимите ему не нужно
+    private static final List<MediaType> STREAMING_TYPES = List.of(MediaType.APPLICATION_NDJSON,//потоковый GET /api/v1/developers
+            BinaryMediaTypes.APPLICATION_STREAM_SMILE, BinaryMediaTypes.APPLICATION_CBOR_SEQ);//(streamAll) - вся таблица, долго
+    private static final int ENDPOINT_SEGMENTS = 4;// /api/v1/developers/{id|batch|lookup|search|specialty}
+    private static final int MAX_ENDPOINTS = 64;//путей с мусором может быть сколько угодно, лимитеров - нет
+    private static final String OTHER_ENDPOINT = "OTHER";
+
+    private final DeveloperProperties.RateLimit rateLimit;
+    private final MeterRegistry meterRegistry;
+    private final ClientRateLimiter clientRateLimiter;
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    public RateLimitWebFilter(DeveloperProperties developerProperties, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.rateLimit = developerProperties.getRateLimit();
+        this.meterRegistry = meterRegistry.getIfAvailable();
+        this.clientRateLimiter = new ClientRateLimiter(rateLimit.getClientRate(), rateLimit.getClientBurst(), rateLimit.getMaxClients());
+    }
+
+    @Override
+    public int getOrder() {//раньше остальных фильтров, но после замера http.server.requests: отказы тоже попадают в метрики
+        return Ordered.HIGHEST_PRECEDENCE + 100;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String path = request.getPath().pathWithinApplication().value();
+        if (!rateLimit.isEnabled() || !path.startsWith(API_PATH) || path.startsWith(CHANGES_PATH)) {
+            return chain.filter(exchange);
+        }
+        Endpoint endpoint = endpointOf(request.getMethod().name(), path);
+        if (!clientRateLimiter.tryAcquire(clientOf(request))) {
+            increment(endpoint.throttled);
+            return Mono.error(() -> new RateLimitExceededException("Too many requests, slow down", "RATE_LIMIT_EXCEEDED"));
+        }
+        if (isStream(request)) {//место в ConcurrencyLimiter поток занимал бы до последней строки: несколько выгрузок таблицы
+            //забили бы лимит эндпоинта и обычные страницы получали бы 503. Частоту запросов клиента он при этом проходит
+            increment(endpoint.admitted);
+            return chain.filter(exchange);
+        }
+        ConcurrencyLimiter limiter = endpoint.limiter;
+        return limiter.acquire()
+                .doOnError(e -> increment(endpoint.shed))
+                .then(Mono.defer(() -> {
+                    increment(endpoint.admitted);
+                    return chain.filter(exchange).doFinally(signal -> limiter.release());
+                }));
+    }
+
+    private static boolean isStream(ServerHttpRequest request) {//именно потоковый тип в Accept, а не совместимый с ним */*
+        if (request.getMethod() != HttpMethod.GET || !request.getPath().pathWithinApplication().value().equals(API_PATH)) {
+            return false;
+        }
+        for (MediaType accepted : request.getHeaders().getAccept()) {
+            for (MediaType streaming : STREAMING_TYPES) {
+                if (accepted.equalsTypeAndSubtype(streaming)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private String clientOf(ServerHttpRequest request) {//заголовок клиент ставит сам и может менять с каждым запросом, получая
+        //новое полное ведро. Поэтому ему верим только за своим шлюзом, который заголовок перезаписывает (trust-client-header)
+        if (rateLimit.isTrustClientHeader()) {
+            String client = request.getHeaders().getFirst(rateLimit.getClientHeader());
+            if (Objects.nonNull(client)) {
+                return client;
+            }
+        }
+        InetSocketAddress address = request.getRemoteAddress();
+        return Objects.isNull(address) || Objects.isNull(address.getAddress())
+                ? "unknown"
+                : address.getAddress().getHostAddress();//адрес, а не имя: getHostString мог бы вернуть имя из заголовков
+    }
+
+    private Endpoint endpointOf(String method, String path) {//метод + первые сегменты пути, числовой id -> {id}:
+        //все GET /api/v1/developers/{id} делят один лимит, а не по лимиту на каждого девелопера
+        StringBuilder key = new StringBuilder(method).append(' ');
+        int segments = 0;
+        int start = 1;
+        while (start <= path.length() && segments < ENDPOINT_SEGMENTS) {
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = path.length();
+            }
+            String segment = path.substring(start, end);
+            if (!segment.isEmpty()) {
+                key.append('/').append(isNumber(segment) ? "{id}" : segment);
+                segments++;
+            }
+            start = end + 1;
+        }
+        String name = key.toString();
+        Endpoint endpoint = endpoints.get(name);
+        if (endpoint != null) {
+            return endpoint;
+        }
+        return endpoints.size() < MAX_ENDPOINTS
+                ? endpoints.computeIfAbsent(name, this::newEndpoint)
+                : endpoints.computeIfAbsent(OTHER_ENDPOINT, this::newEndpoint);
+    }
+
+    private static boolean isNumber(String segment) {
+        for (int i = 0; i < segment.length(); i++) {
+            if (!Character.isDigit(segment.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Endpoint newEndpoint(String name) {
+        return new Endpoint(
+                new ConcurrencyLimiter(rateLimit.getMaxConcurrent(), rateLimit.getMaxQueue(), rateLimit.getQueueTarget(),
+                        rateLimit.getMaxQueueWait()),
+                counter(name, "admitted"),
+                counter(name, "throttled"),//429: клиент превысил свою частоту
+                counter(name, "shed"));//503: эндпоинт перегружен
+    }
+
+    private Counter counter(String endpoint, String outcome) {
+        return meterRegistry == null ? null : meterRegistry.counter(REQUESTS_COUNTER, "endpoint", endpoint, "outcome", outcome);
+    }
+
+    private static void increment(Counter counter) {
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+
+    private record Endpoint(ConcurrencyLimiter limiter, Counter admitted, Counter throttled, Counter shed) {
+    }
+}
@@ -0,0 +1,38 @@
+package net.proselyte.qafordevsreactive.repository;
+
+import net.proselyte.qafordevsreactive.entity.DeveloperEntity;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface BlockingDeveloperRepository {//те же запросы что в DeveloperRepository, но блокирующие: для режима
+    //app.developers.execution=virtual-threads, где каждый вызов сервиса выполняется в своем виртуальном потоке
+
+    Optional<DeveloperEntity> findById(Integer id);
+
+    boolean existsById(Integer id);
+
+    List<DeveloperEntity> findAllByIdIn(Collection<Integer> ids);
+
+    List<DeveloperEntity> findAllByEmailIn(Collection<String> emails);
+
+    List<DeveloperEntity> findAllActiveBySpecialty(String specialty);
+
+    List<DeveloperEntity> findPageAfter(int after, int limit);
+
+    long findSpecialtyVersion(String specialty);//как DeveloperRepository.findSpecialtyVersion
+
+    List<DeveloperEntity> searchActiveByPrefix(String prefix, int limit);//как DeveloperRepositoryCustom.searchActiveByPrefix
+
+    Optional<Integer> insertIfEmailAbsent(DeveloperEntity developer);//id новой строки или пустой Optional если такой эмайл уже есть
+
+    Optional<DeveloperEntity> update(DeveloperEntity developer, boolean checkVersion);//строка после изменения или пустой Optional
+    //если строки с таким id нет (или при checkVersion у нее другая версия)
+
+    Optional<DeveloperEntity> patch(Integer id, DeveloperEntity changes);//как DeveloperRepositoryCustom.patch
+
+    long softDeleteById(Integer id);
+
+    long hardDeleteById(Integer id);
+}
@@ -1,15 +1,45 @@
 package net.proselyte.qafordevsreactive.repository;
 
 import net.proselyte.qafordevsreactive.entity.DeveloperEntity;
+import org.springframework.data.r2dbc.repository.Modifying;
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-public interface DeveloperRepository extends R2dbcRepository<DeveloperEntity, Integer> {
+import java.util.Collection;
+
+public interface DeveloperRepository extends R2dbcRepository<DeveloperEntity, Integer>, DeveloperRepositoryCustom {
 
     Mono<DeveloperEntity> findByEmail(String email);
 
-    @Query("SELECT d FROM developers d WHERE d.status = 'ACTIVE' AND d.specialty = ?1")
-    Flux<DeveloperEntity> findAllActiveBySpecialty(String specialty);
+    Flux<DeveloperEntity> findAllByEmailIn(Collection<String> emails);//проверка уникальности эмайлов сразу для целой пачки одним запросом
+
+    @Query("SELECT * FROM developers WHERE status = 'ACTIVE' AND specialty = :specialty")//условие по статусу должно совпадать
+    //с условием частичного индекса developers_active_specialty_index (V3), иначе планировщик его не использует
+    Flux<DeveloperEntity> findAllActiveBySpecialty(@Param("specialty") String specialty);
+
+    @Query("SELECT COALESCE((SELECT version FROM specialty_versions WHERE specialty = :specialty), 0)")//версия списка
+    //специальности (V6), поднимается триггером при каждом изменении ее девелоперов. Специальность еще не менялась - 0
+    Mono<Long> findSpecialtyVersion(@Param("specialty") String specialty);
+
+    @Query("SELECT * FROM developers WHERE status = 'ACTIVE'")
+    Flux<DeveloperEntity> findAllActive();//начальная загрузка SpecialtyIndex
+
+    @Query("SELECT * FROM developers WHERE id = ANY(:ids)")//один параметр-массив вместо IN (?, ?, ...): текст запроса не зависит
+    //от количества id, поэтому подготовленный запрос переиспользуется для пачки любого размера
+    Flux<DeveloperEntity> findAllByIds(@Param("ids") Integer[] ids);//порядок строк не гарантирован, отсутствующих id в ответе нет
+
+    @Query("SELECT * FROM developers WHERE id > :after ORDER BY id LIMIT :limit")//keyset пагинация: следующая страница начинается сразу после
+    //последнего отданного id, поэтому БД идет по индексу первичного ключа и не пересчитывает OFFSET строк
+    Flux<DeveloperEntity> findPageAfter(@Param("after") int after, @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE developers SET status = 'DELETED', version = version + 1 WHERE id = :id")//меняем только статус (и версию), остальные колонки не трогаем
+    Mono<Long> softDeleteById(@Param("id") Integer id);//количество измененных строк: 0 - девелопера с таким id нет
+
+    @Modifying
+    @Query("DELETE FROM developers WHERE id = :id")
+    Mono<Long> hardDeleteById(@Param("id") Integer id);//в отличие от deleteById сообщает сколько строк удалено
 }
@@ -0,0 +1,39 @@
+package net.proselyte.qafordevsreactive.repository;
+
+import net.proselyte.qafordevsreactive.entity.DeveloperEntity;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+public interface DeveloperRepositoryCustom {//запросы которые Spring Data сам не умеет: пачечные вставки/апдейты одним Statement
+
+    Mono<Integer> insertIfEmailAbsent(DeveloperEntity developer);//id новой строки или пустой Mono если такой эмайл уже есть
+
+    Flux<Optional<Integer>> insertAll(List<DeveloperEntity> developers);//по одному элементу на каждого девелопера в порядке входного списка:
+    //id новой строки или пустой Optional если эмайл уже занят
+
+    Flux<Long> updateAll(List<DeveloperEntity> developers);//количество обновленных строк для каждого девелопера
+    //(0 - такого id нет или его version уже другая), version обязательна
+
+    Mono<DeveloperEntity> patch(Integer id, DeveloperEntity changes);//частичное изменение: в UPDATE попадают только не null поля changes,
+    //если задана changes.version - строка меняется только при совпадении версии. Возвращает строку после изменения
+    //или пустой Mono если строки с таким id (и версией) нет. Без полей (hasChanges false) строка не меняется и версия
+    //не растет: возвращается текущая строка
+
+    Flux<DeveloperEntity> searchActiveByPrefix(String prefix, int limit);//активные девелоперы, у которых эмайл, имя или фамилия
+    //начинаются с prefix (в нижнем регистре). Сначала совпадения по эмайлу, потом по имени, потом по фамилии,
+    //внутри - по алфавиту совпавшего значения и по id. Не больше limit строк
+
+    static boolean hasChanges(DeveloperEntity changes) {//есть хотя бы одно поле для patch (версия - условие, а не изменение)
+        return Objects.nonNull(changes.getEmail()) || Objects.nonNull(changes.getFirstName())
+                || Objects.nonNull(changes.getLastName()) || Objects.nonNull(changes.getSpecialty())
+                || Objects.nonNull(changes.getStatus());
+    }
+
+    static String likePrefix(String prefix) {//экранируем спецсимволы LIKE, иначе "_" и "%" из запроса клиента станут шаблоном
+        return prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+}
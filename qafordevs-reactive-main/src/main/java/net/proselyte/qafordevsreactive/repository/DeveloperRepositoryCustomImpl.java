@@ -0,0 +1,166 @@
+package net.proselyte.qafordevsreactive.repository;
+
+import io.r2dbc.spi.Statement;
+import lombok.RequiredArgsConstructor;
+import net.proselyte.qafordevsreactive.entity.DeveloperEntity;
+import org.springframework.data.r2dbc.convert.R2dbcConverter;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+@RequiredArgsConstructor
+public class DeveloperRepositoryCustomImpl implements DeveloperRepositoryCustom {//Spring Data находит реализацию по суффиксу Impl
+    //и подмешивает ее методы в DeveloperRepository
+
+    private static final String INSERT_SQL =
+            "INSERT INTO developers (email, first_name, last_name, specialty, status) VALUES ($1, $2, $3, $4, $5) " +
+                    "ON CONFLICT (email) DO NOTHING";//при дубликате эмайла строка просто не вставляется и RETURNING ничего не вернет
+    private static final String UPDATE_SQL =
+            "UPDATE developers SET email = $1, first_name = $2, last_name = $3, specialty = $4, status = $5, version = version + 1 " +
+                    "WHERE id = $6 AND version = $7";//оптимистическая блокировка как у save() с @Version
+    public static final String SEARCH_SQL =//каждая ветка идет по своему частичному индексу V7 в порядке индекса (COLLATE "C" в запросе
+            //и в индексе - один и тот же порядок, сортировать не нужно) и останавливается на $2 строках, поэтому запрос не зависит
+            //от размера таблицы. Девелопер совпавший по нескольким полям попадает только в первую подходящую ветку.
+            //Ветки UNION ALL читаются по очереди, внешний LIMIT останавливает запрос как только набралось $2 строк
+            "(SELECT * FROM developers WHERE status = 'ACTIVE' AND lower(email) COLLATE \"C\" LIKE $1 " +
+                    "ORDER BY lower(email) COLLATE \"C\", id LIMIT $2) " +
+                    "UNION ALL " +
+                    "(SELECT * FROM developers WHERE status = 'ACTIVE' AND lower(first_name) COLLATE \"C\" LIKE $1 " +
+                    "AND (lower(email) COLLATE \"C\" LIKE $1) IS NOT TRUE " +
+                    "ORDER BY lower(first_name) COLLATE \"C\", id LIMIT $2) " +
+                    "UNION ALL " +
+                    "(SELECT * FROM developers WHERE status = 'ACTIVE' AND lower(last_name) COLLATE \"C\" LIKE $1 " +
+                    "AND (lower(email) COLLATE \"C\" LIKE $1) IS NOT TRUE AND (lower(first_name) COLLATE \"C\" LIKE $1) IS NOT TRUE " +
+                    "ORDER BY lower(last_name) COLLATE \"C\", id LIMIT $2) " +
+                    "LIMIT $2";
+
+    private final DatabaseClient databaseClient;
+    private final R2dbcConverter r2dbcConverter;
+
+    @Override
+    public Mono<Integer> insertIfEmailAbsent(DeveloperEntity developer) {//проверка уникальности и вставка одним запросом
+        return databaseClient.inConnection(connection -> {
+            Statement statement = connection.createStatement(INSERT_SQL).returnGeneratedValues("id");
+            bindColumns(statement, developer);
+            return Flux.from(statement.execute())
+                    .concatMap(result -> result.map((row, metadata) -> row.get("id", Integer.class)))
+                    .next();
+        });
+    }
+
+    @Override
+    public Flux<Optional<Integer>> insertAll(List<DeveloperEntity> developers) {
+        if (developers.isEmpty()) {
+            return Flux.empty();
+        }
+        return databaseClient.inConnectionMany(connection -> {
+            Statement statement = connection.createStatement(INSERT_SQL).returnGeneratedValues("id");
+            for (int i = 0; i < developers.size(); i++) {//один Statement с набором биндингов: драйвер отправляет их пачкой,
+                //а не ждет ответа на каждую строку
+                if (i > 0) {
+                    statement.add();
+                }
+                bindColumns(statement, developers.get(i));
+            }
+            return Flux.from(statement.execute())//на каждый биндинг приходит свой Result, порядок совпадает с порядком биндингов
+                    .concatMap(result -> Flux.from(result.map((row, metadata) -> row.get("id", Integer.class)))
+                            .next()
+                            .map(Optional::of)
+                            .defaultIfEmpty(Optional.empty()));//строки нет - сработал ON CONFLICT
+        });
+    }
+
+    @Override
+    public Flux<Long> updateAll(List<DeveloperEntity> developers) {
+        if (developers.isEmpty()) {
+            return Flux.empty();
+        }
+        return databaseClient.inConnectionMany(connection -> {
+            Statement statement = connection.createStatement(UPDATE_SQL);
+            for (int i = 0; i < developers.size(); i++) {
+                if (i > 0) {
+                    statement.add();
+                }
+                DeveloperEntity developer = developers.get(i);
+                bindColumns(statement, developer);
+                statement.bind(5, developer.getId());
+                statement.bind(6, developer.getVersion());
+            }
+            return Flux.from(statement.execute())
+                    .concatMap(result -> Flux.from(result.getRowsUpdated()).map(Number::longValue));
+        });
+    }
+
+    @Override
+    public Mono<DeveloperEntity> patch(Integer id, DeveloperEntity changes) {
+        Map<String, Object> columns = new LinkedHashMap<>();//только те колонки, которые клиент прислал (dirty tracking)
+        putIfNotNull(columns, "email", changes.getEmail());
+        putIfNotNull(columns, "first_name", changes.getFirstName());
+        putIfNotNull(columns, "last_name", changes.getLastName());
+        putIfNotNull(columns, "specialty", changes.getSpecialty());
+        putIfNotNull(columns, "status", Objects.isNull(changes.getStatus()) ? null : changes.getStatus().name());
+
+        StringBuilder sql = new StringBuilder(columns.isEmpty()//менять нечего - UPDATE только поднял бы версию и
+                ? "SELECT * FROM developers"//сбросил ETag у клиентов, поэтому просто читаем строку с теми же условиями
+                : "UPDATE developers SET ");
+        List<Object> parameters = new ArrayList<>();
+        columns.forEach((column, value) -> {
+            parameters.add(value);
+            sql.append(column).append(" = $").append(parameters.size()).append(", ");
+        });
+        sql.append(columns.isEmpty() ? " WHERE id = $" : "version = version + 1 WHERE id = $").append(parameters.size() + 1);
+        parameters.add(id);
+        if (Objects.nonNull(changes.getVersion())) {//оптимистическая блокировка без предварительного чтения: версия проверяется в самом UPDATE
+            sql.append(" AND version = $").append(parameters.size() + 1);
+            parameters.add(changes.getVersion());
+        }
+        if (!columns.isEmpty()) {
+            sql.append(" RETURNING *");//сразу возвращаем строку после изменения, отдельный SELECT не нужен
+        }
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString());
+        for (int i = 0; i < parameters.size(); i++) {
+            spec = spec.bind(i, parameters.get(i));
+        }
+        return spec.map((row, metadata) -> r2dbcConverter.read(DeveloperEntity.class, row, metadata))
+                .one();
+    }
+
+    @Override
+    public Flux<DeveloperEntity> searchActiveByPrefix(String prefix, int limit) {
+        return databaseClient.sql(SEARCH_SQL)
+                .bind(0, DeveloperRepositoryCustom.likePrefix(prefix))
+                .bind(1, limit)
+                .map((row, metadata) -> r2dbcConverter.read(DeveloperEntity.class, row, metadata))
+                .all();
+    }
+
+    private static void putIfNotNull(Map<String, Object> columns, String column, Object value) {
+        if (Objects.nonNull(value)) {
+            columns.put(column, value);
+        }
+    }
+
+    private static void bindColumns(Statement statement, DeveloperEntity developer) {
+        bind(statement, 0, developer.getEmail());
+        bind(statement, 1, developer.getFirstName());
+        bind(statement, 2, developer.getLastName());
+        bind(statement, 3, developer.getSpecialty());
+        bind(statement, 4, Objects.isNull(developer.getStatus()) ? null : developer.getStatus().name());
+    }
+
+    private static void bind(Statement statement, int index, String value) {//null нельзя передать в bind, для него отдельный bindNull с типом
+        if (Objects.isNull(value)) {
+            statement.bindNull(index, String.class);
+        } else {
+            statement.bind(index, value);
+        }
+    }
+}
@@ -0,0 +1,775 @@
+package net.proselyte.qafordevsreactive.repository;
+
+import net.proselyte.qafordevsreactive.entity.DeveloperEntity;
+import net.proselyte.qafordevsreactive.entity.Status;
+import net.proselyte.qafordevsreactive.util.IntObjectHashMap;
+import org.reactivestreams.Publisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.data.repository.query.FluentQuery;
+import org.springframework.data.support.ExampleMatcherAccessor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+//DeveloperRepository целиком в памяти: для тестов, бенчмарков и профиля embedded (без PostgreSQL).
+//Семантика как у R2DBC репозитория над таблицей developers: id из последовательности, @Version, уникальный эмайл,
+//ON CONFLICT (email) DO NOTHING в insert*. Строки разложены по STRIPES полосам (id & (STRIPES - 1)), у каждой
+//своя IntObjectHashMap и StampedLock: чтение по id идет без блокировки (tryOptimisticRead), запись блокирует одну полосу
+public class InMemoryDeveloperRepository implements DeveloperRepository {
+
+    private static final int STRIPES = 64;//степень двойки
+
+    private static final Map<String, Function<DeveloperEntity, Object>> PROPERTIES = Map.of(//свойства для Sort и Example
+            "id", DeveloperEntity::getId,
+            "firstName", DeveloperEntity::getFirstName,
+            "lastName", DeveloperEntity::getLastName,
+            "email", DeveloperEntity::getEmail,
+            "specialty", DeveloperEntity::getSpecialty,
+            "status", DeveloperEntity::getStatus,
+            "version", DeveloperEntity::getVersion);
+    private static final ProjectionFactory PROJECTIONS = new SpelAwareProxyProjectionFactory();
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final Map<String, Integer> idByEmail = new ConcurrentHashMap<>();//уникальный индекс по эмайлу (NULL как в БД не индексируется)
+    private final Map<String, String> specialties = new ConcurrentHashMap<>();//специальностей единицы, а девелоперов миллионы:
+    //храним одну строку на специальность
+    private final Map<String, AtomicLong> specialtyVersions = new ConcurrentHashMap<>();//как таблица specialty_versions (V6)
+    private final AtomicInteger sequence = new AtomicInteger();
+
+    public InMemoryDeveloperRepository() {
+        this(1024);
+    }
+
+    public InMemoryDeveloperRepository(int expectedSize) {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(expectedSize / STRIPES);
+        }
+    }
+
+    @Override
+    public Mono<DeveloperEntity> findByEmail(String email) {
+        return Mono.fromSupplier(() -> {
+            Row row = Objects.isNull(email) ? null : read(idByEmail.get(email));
+            return Objects.isNull(row) ? null : row.toEntity();
+        });
+    }
+
+    @Override
+    public Flux<DeveloperEntity> findAllByEmailIn(Collection<String> emails) {
+        return Flux.defer(() -> Flux.fromIterable(emails.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .map(idByEmail::get)
+                .filter(Objects::nonNull)
+                .map(this::read)
+                .filter(Objects::nonNull)
+                .map(Row::toEntity)
+                .toList()));
+    }
+
+    @Override
+    public Flux<DeveloperEntity> findAllActiveBySpecialty(String specialty) {
+        return scan(row -> row.status == Status.ACTIVE && Objects.equals(row.specialty, specialty));
+    }
+
+    @Override
+    public Mono<Long> findSpecialtyVersion(String specialty) {
+        return Mono.fromSupplier(() -> {
+            AtomicLong version = Objects.isNull(specialty) ? null : specialtyVersions.get(specialty);
+            return Objects.isNull(version) ? 0L : version.get();
+        });
+    }
+
+    @Override
+    public Flux<DeveloperEntity> findAllActive() {
+        return scan(row -> row.status == Status.ACTIVE);
+    }
+
+    @Override
+    public Flux<DeveloperEntity> findAllByIds(Integer[] ids) {
+        return Flux.defer(() -> Flux.fromStream(Arrays.stream(ids)
+                .distinct()
+                .map(this::read)
+                .filter(Objects::nonNull)
+                .map(Row::toEntity)));
+    }
+
+    @Override
+    public Flux<DeveloperEntity> findPageAfter(int after, int limit) {
+        return Flux.defer(() -> {
+            if (limit <= 0) {
+                return Flux.empty();
+            }
+            PriorityQueue<Row> page = new PriorityQueue<>(limit + 1, Comparator.comparingInt((Row row) -> row.id).reversed());
+            for (Stripe stripe : stripes) {//top-N по id без сортировки всей таблицы
+                stripe.forEach(row -> {
+                    if (row.id > after && (page.size() < limit || row.id < page.peek().id)) {
+                        page.add(row);
+                        if (page.size() > limit) {
+                            page.poll();
+                        }
+                    }
+                });
+            }
+            List<Row> rows = new ArrayList<>(page);
+            rows.sort(Comparator.comparingInt(row -> row.id));
+            return Flux.fromIterable(rows).map(Row::toEntity);
+        });
+    }
+
+    @Override
+    public Flux<DeveloperEntity> searchActiveByPrefix(String prefix, int limit) {//индексов нет: полный проход с top-N как в
+        //findPageAfter, порядок как у SEARCH_SQL (эмайл, имя, фамилия, затем совпавшее значение и id)
+        return Flux.defer(() -> {
+            if (limit <= 0) {
+                return Flux.empty();
+            }
+            PriorityQueue<Match> top = new PriorityQueue<>(limit + 1, Match.ORDER.reversed());
+            for (Stripe stripe : stripes) {
+                stripe.forEach(row -> {
+                    Match match = row.status == Status.ACTIVE ? Match.of(row, prefix) : null;
+                    if (Objects.nonNull(match) && (top.size() < limit || Match.ORDER.compare(match, top.peek()) < 0)) {
+                        top.add(match);
+                        if (top.size() > limit) {
+                            top.poll();
+                        }
+                    }
+                });
+            }
+            List<Match> matches = new ArrayList<>(top);
+            matches.sort(Match.ORDER);
+            return Flux.fromIterable(matches).map(match -> match.row.toEntity());
+        });
+    }
+
+    @Override
+    public Mono<Integer> insertIfEmailAbsent(DeveloperEntity developer) {
+        return Mono.fromSupplier(() -> insert(developer).orElse(null));
+    }
+
+    @Override
+    public Flux<Optional<Integer>> insertAll(List<DeveloperEntity> developers) {
+        return Flux.defer(() -> Flux.fromIterable(developers).map(this::insert));
+    }
+
+    private Optional<Integer> insert(DeveloperEntity developer) {//аналог INSERT ... ON CONFLICT (email) DO NOTHING RETURNING id
+        int id = sequence.incrementAndGet();//как и serial в БД, при конфликте номер просто пропадает
+        if (Objects.nonNull(developer.getEmail()) && Objects.nonNull(idByEmail.putIfAbsent(developer.getEmail(), id))) {
+            return Optional.empty();
+        }
+        Stripe stripe = stripeOf(id);
+        long stamp = stripe.lock.writeLock();
+        try {
+            Row row = newRow(id, developer, 0L);
+            stripe.rows.put(id, row);
+            bumpSpecialtyVersion(row.specialty);
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+        return Optional.of(id);
+    }
+
+    @Override
+    public Flux<Long> updateAll(List<DeveloperEntity> developers) {
+        return Flux.defer(() -> Flux.fromIterable(developers)
+                .map(developer -> Objects.isNull(update(developer.getId(), stored -> Objects.equals(stored.version, developer.getVersion())
+                        ? newRow(stored.id, developer, stored.version + 1)
+                        : null)) ? 0L : 1L));//как UPDATE ... AND version = ?
+    }
+
+    @Override
+    public Mono<DeveloperEntity> patch(Integer id, DeveloperEntity changes) {
+        if (!DeveloperRepositoryCustom.hasChanges(changes)) {//как SELECT вместо UPDATE в DeveloperRepositoryCustomImpl
+            return findById(id).filter(stored -> Objects.isNull(changes.getVersion())
+                    || changes.getVersion().equals(stored.getVersion()));
+        }
+        return Mono.fromSupplier(() -> {
+            Row patched = update(id, stored -> {
+                if (Objects.nonNull(changes.getVersion()) && changes.getVersion() != stored.version) {//версия не совпала - как UPDATE ... AND version = ?
+                    return null;
+                }
+                return new Row(stored.id,
+                        Objects.requireNonNullElse(changes.getFirstName(), stored.firstName),
+                        Objects.requireNonNullElse(changes.getLastName(), stored.lastName),
+                        Objects.requireNonNullElse(changes.getEmail(), stored.email),
+                        Objects.isNull(changes.getSpecialty()) ? stored.specialty : intern(changes.getSpecialty()),
+                        Objects.requireNonNullElse(changes.getStatus(), stored.status),
+                        stored.version + 1);
+            });
+            return Objects.isNull(patched) ? null : patched.toEntity();
+        });
+    }
+
+    @Override
+    public Mono<Long> softDeleteById(Integer id) {
+        return Mono.fromSupplier(() -> Objects.isNull(update(id, stored -> new Row(stored.id, stored.firstName, stored.lastName,
+                stored.email, stored.specialty, Status.DELETED, stored.version + 1))) ? 0L : 1L);
+    }
+
+    @Override
+    public Mono<Long> hardDeleteById(Integer id) {
+        return Mono.fromSupplier(() -> remove(id) ? 1L : 0L);
+    }
+
+    @Override
+    public <S extends DeveloperEntity> Mono<S> save(S entity) {
+        return Mono.fromSupplier(() -> {
+            if (entity.isNew()) {
+                Integer id = insert(entity).orElseThrow(() -> duplicateEmail(entity.getEmail()));
+                entity.setId(id);
+                entity.setVersion(0L);
+                return entity;
+            }
+            Row[] previous = new Row[1];
+            Row updated = update(entity.getId(), stored -> {
+                previous[0] = stored;
+                return Objects.equals(stored.version, entity.getVersion()) ? newRow(stored.id, entity, stored.version + 1) : null;
+            });
+            if (Objects.isNull(previous[0])) {//так же ведет себя R2DBC при апдейте строки которой нет
+                throw new TransientDataAccessResourceException(
+                        "Failed to update table [developers]; Row with Id [" + entity.getId() + "] does not exist");
+            }
+            if (Objects.isNull(updated)) {//и при несовпадении @Version
+                throw new OptimisticLockingFailureException(
+                        "Failed to update table [developers]; Version does not match for row with Id [" + entity.getId() + "]");
+            }
+            entity.setVersion(updated.version);
+            return entity;
+        });
+    }
+
+    @Override
+    public <S extends DeveloperEntity> Flux<S> saveAll(Iterable<S> entities) {
+        return Flux.fromIterable(entities).concatMap(this::save);
+    }
+
+    @Override
+    public <S extends DeveloperEntity> Flux<S> saveAll(Publisher<S> entityStream) {
+        return Flux.from(entityStream).concatMap(this::save);
+    }
+
+    @Override
+    public Mono<DeveloperEntity> findById(Integer id) {
+        return Mono.fromSupplier(() -> {
+            Row row = read(id);
+            return Objects.isNull(row) ? null : row.toEntity();
+        });
+    }
+
+    @Override
+    public Mono<DeveloperEntity> findById(Publisher<Integer> id) {
+        return Mono.from(id).flatMap(this::findById);
+    }
+
+    @Override
+    public Mono<Boolean> existsById(Integer id) {
+        return Mono.fromSupplier(() -> Objects.nonNull(read(id)));
+    }
+
+    @Override
+    public Mono<Boolean> existsById(Publisher<Integer> id) {
+        return Mono.from(id).flatMap(this::existsById);
+    }
+
+    @Override
+    public Flux<DeveloperEntity> findAll() {
+        return scan(row -> true);
+    }
+
+    @Override
+    public Flux<DeveloperEntity> findAll(Sort sort) {
+        return find(developer -> true, sort, 0);
+    }
+
+    @Override
+    public Flux<DeveloperEntity> findAllById(Iterable<Integer> ids) {
+        return Flux.fromIterable(ids).concatMap(this::findById);
+    }
+
+    @Override
+    public Flux<DeveloperEntity> findAllById(Publisher<Integer> idStream) {
+        return Flux.from(idStream).concatMap(this::findById);
+    }
+
+    @Override
+    public Mono<Long> count() {
+        return Mono.fromSupplier(() -> {
+            long count = 0;
+            for (Stripe stripe : stripes) {
+                long stamp = stripe.lock.readLock();
+                try {
+                    count += stripe.rows.size();
+                } finally {
+                    stripe.lock.unlockRead(stamp);
+                }
+            }
+            return count;
+        });
+    }
+
+    @Override
+    public Mono<Void> deleteById(Integer id) {
+        return Mono.fromRunnable(() -> remove(id));
+    }
+
+    @Override
+    public Mono<Void> deleteById(Publisher<Integer> id) {
+        return Mono.from(id).flatMap(this::deleteById);
+    }
+
+    @Override
+    public Mono<Void> delete(DeveloperEntity entity) {
+        return deleteById(entity.getId());
+    }
+
+    @Override
+    public Mono<Void> deleteAllById(Iterable<? extends Integer> ids) {
+        return Flux.fromIterable(ids).concatMap(this::deleteById).then();
+    }
+
+    @Override
+    public Mono<Void> deleteAll(Iterable<? extends DeveloperEntity> entities) {
+        return Flux.fromIterable(entities).concatMap(this::delete).then();
+    }
+
+    @Override
+    public Mono<Void> deleteAll(Publisher<? extends DeveloperEntity> entityStream) {
+        return Flux.from(entityStream).concatMap(this::delete).then();
+    }
+
+    @Override
+    public Mono<Void> deleteAll() {
+        return Mono.fromRunnable(() -> {
+            long[] stamps = new long[STRIPES];
+            for (int i = 0; i < STRIPES; i++) {//все полосы в одном порядке - взаимной блокировки с другим deleteAll не будет
+                stamps[i] = stripes[i].lock.writeLock();
+            }
+            try {
+                for (Stripe stripe : stripes) {
+                    stripe.rows.clear();
+                }
+                idByEmail.clear();
+                specialtyVersions.values().forEach(AtomicLong::incrementAndGet);
+            } finally {
+                for (int i = 0; i < STRIPES; i++) {
+                    stripes[i].lock.unlockWrite(stamps[i]);
+                }
+            }
+        });
+    }
+
+    @Override
+    public <S extends DeveloperEntity> Mono<S> findOne(Example<S> example) {
+        return findBy(example, FluentQuery.ReactiveFluentQuery::one);
+    }
+
+    @Override
+    public <S extends DeveloperEntity> Flux<S> findAll(Example<S> example) {
+        return findBy(example, FluentQuery.ReactiveFluentQuery::all);
+    }
+
+    @Override
+    public <S extends DeveloperEntity> Flux<S> findAll(Example<S> example, Sort sort) {
+        return findBy(example, query -> query.sortBy(sort).all());
+    }
+
+    @Override
+    public <S extends DeveloperEntity> Mono<Long> count(Example<S> example) {
+        return findBy(example, FluentQuery.ReactiveFluentQuery::count);
+    }
+
+    @Override
+    public <S extends DeveloperEntity> Mono<Boolean> exists(Example<S> example) {
+        return findBy(example, FluentQuery.ReactiveFluentQuery::exists);
+    }
+
+    @Override
+    public <S extends DeveloperEntity, R, P extends Publisher<R>> P findBy(Example<S> example,
+                                                                          Function<FluentQuery.ReactiveFluentQuery<S>, P> queryFunction) {
+        Class<S> probeType = example.getProbeType();
+        return queryFunction.apply(new ExampleQuery<>(matcherOf(example), Sort.unsorted(), 0, probeType::cast));
+    }
+
+    private Stripe stripeOf(int id) {
+        return stripes[id & (STRIPES - 1)];
+    }
+
+    private Row read(Integer id) {
+        if (Objects.isNull(id)) {
+            return null;
+        }
+        Stripe stripe = stripeOf(id);
+        long stamp = stripe.lock.tryOptimisticRead();//без записи в общую память: читатели не мешают друг другу
+        Row row = stripe.rows.get(id);
+        if (!stripe.lock.validate(stamp)) {//параллельно шла запись в эту полосу - перечитываем под блокировкой
+            stamp = stripe.lock.readLock();
+            try {
+                row = stripe.rows.get(id);
+            } finally {
+                stripe.lock.unlockRead(stamp);
+            }
+        }
+        return row;
+    }
+
+    private Row update(Integer id, Function<Row, Row> change) {//возвращает новую строку или null если строки нет или change вернул null.
+        //Смена эмайла занимает новый эмайл в индексе до записи строки: конфликт - DuplicateKeyException, как от уникального индекса БД
+        if (Objects.isNull(id)) {
+            return null;
+        }
+        Stripe stripe = stripeOf(id);
+        long stamp = stripe.lock.writeLock();
+        try {
+            Row stored = stripe.rows.get(id);
+            if (Objects.isNull(stored)) {
+                return null;
+            }
+            Row updated = change.apply(stored);
+            if (Objects.isNull(updated)) {
+                return null;
+            }
+            if (!Objects.equals(stored.email, updated.email)) {
+                if (Objects.nonNull(updated.email)) {
+                    Integer owner = idByEmail.putIfAbsent(updated.email, id);
+                    if (Objects.nonNull(owner) && owner != id.intValue()) {
+                        throw duplicateEmail(updated.email);
+                    }
+                }
+                if (Objects.nonNull(stored.email)) {
+                    idByEmail.remove(stored.email, id);
+                }
+            }
+            stripe.rows.put(id, updated);
+            bumpSpecialtyVersion(stored.specialty);
+            if (!Objects.equals(stored.specialty, updated.specialty)) {
+                bumpSpecialtyVersion(updated.specialty);
+            }
+            return updated;
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    private boolean remove(Integer id) {
+        if (Objects.isNull(id)) {
+            return false;
+        }
+        Stripe stripe = stripeOf(id);
+        long stamp = stripe.lock.writeLock();
+        try {
+            Row removed = stripe.rows.remove(id);
+            if (Objects.isNull(removed)) {
+                return false;
+            }
+            if (Objects.nonNull(removed.email)) {
+                idByEmail.remove(removed.email, id);
+            }
+            bumpSpecialtyVersion(removed.specialty);
+            return true;
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    private void bumpSpecialtyVersion(String specialty) {//под блокировкой полосы и после записи строки: кто прочитал новую
+        //версию, тот увидит и изменение (версия может быть только новее списка, но не наоборот)
+        if (Objects.nonNull(specialty)) {
+            specialtyVersions.computeIfAbsent(specialty, key -> new AtomicLong()).incrementAndGet();
+        }
+    }
+
+    private Flux<DeveloperEntity> find(Predicate<DeveloperEntity> filter, Sort sort, int limit) {//limit 0 - без ограничения
+        return Flux.defer(() -> {//неизвестное свойство в sort - ошибка в потоке, а не при сборке запроса
+            Flux<DeveloperEntity> found = sort.isUnsorted()
+                    ? scan(row -> true).filter(filter)
+                    : scan(row -> true).filter(filter).collectSortedList(comparatorOf(sort)).flatMapIterable(Function.identity());
+            return limit > 0 ? found.take(limit) : found;
+        });
+    }
+
+    private static Function<DeveloperEntity, Object> property(String name) {//имена свойств ЭНТИТИ, как в Sort и ExampleMatcher
+        Function<DeveloperEntity, Object> property = PROPERTIES.get(name);
+        if (Objects.isNull(property)) {
+            throw new InvalidDataAccessApiUsageException("No property " + name + " found for type DeveloperEntity");
+        }
+        return property;
+    }
+
+    private static Comparator<DeveloperEntity> comparatorOf(Sort sort) {//как ORDER BY в PostgreSQL: статус сравнивается
+        //как текст, NULL по умолчанию больше любого значения (в конце при ASC, в начале при DESC). При равенстве остается
+        //порядок по id - сортировка устойчивая
+        Comparator<DeveloperEntity> comparator = (left, right) -> 0;
+        for (Sort.Order order : sort) {
+            Function<DeveloperEntity, Object> property = property(order.getProperty());
+            Function<DeveloperEntity, Comparable<Object>> key = developer -> sortKey(property.apply(developer), order.isIgnoreCase());
+            Comparator<Comparable<Object>> values = Comparator.naturalOrder();
+            if (order.isDescending()) {
+                values = values.reversed();
+            }
+            boolean nullsFirst = switch (order.getNullHandling()) {
+                case NULLS_FIRST -> true;
+                case NULLS_LAST -> false;
+                case NATIVE -> order.isDescending();
+            };
+            comparator = comparator.thenComparing(key, nullsFirst ? Comparator.nullsFirst(values) : Comparator.nullsLast(values));
+        }
+        return comparator;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Comparable<Object> sortKey(Object value, boolean ignoreCase) {
+        if (value instanceof Enum<?> constant) {
+            value = constant.name();
+        }
+        if (ignoreCase && value instanceof String text) {
+            value = text.toLowerCase(Locale.ROOT);
+        }
+        return (Comparable<Object>) value;
+    }
+
+    private static Predicate<DeveloperEntity> matcherOf(Example<? extends DeveloperEntity> example) {//условия по заполненным
+        //свойствам образца с учетом ExampleMatcher: игнорируемые пути, NullHandler, сравнение строк, регистр, ALL/ANY
+        ExampleMatcher matcher = example.getMatcher();
+        ExampleMatcherAccessor accessor = new ExampleMatcherAccessor(matcher);
+        DeveloperEntity probe = example.getProbe();
+        List<Predicate<DeveloperEntity>> conditions = new ArrayList<>();
+        PROPERTIES.forEach((path, property) -> {
+            if (accessor.isIgnoredPath(path)) {
+                return;
+            }
+            Optional<Object> value = accessor.getValueTransformerForPath(path).apply(Optional.ofNullable(property.apply(probe)));
+            if (value.isEmpty()) {
+                if (accessor.getNullHandler() == ExampleMatcher.NullHandler.INCLUDE) {
+                    conditions.add(developer -> Objects.isNull(property.apply(developer)));
+                }
+                return;
+            }
+            Object expected = value.get();
+            if (expected instanceof String text) {
+                ExampleMatcher.StringMatcher stringMatcher = accessor.getStringMatcherForPath(path);
+                boolean ignoreCase = accessor.isIgnoreCaseForPath(path);
+                conditions.add(developer -> property.apply(developer) instanceof String actual
+                        && matches(actual, text, stringMatcher, ignoreCase));
+            } else {
+                conditions.add(developer -> expected.equals(property.apply(developer)));
+            }
+        });
+        if (conditions.isEmpty()) {//пустой образец - подходят все строки
+            return developer -> true;
+        }
+        return matcher.isAllMatching()
+                ? developer -> conditions.stream().allMatch(condition -> condition.test(developer))
+                : developer -> conditions.stream().anyMatch(condition -> condition.test(developer));
+    }
+
+    private static boolean matches(String actual, String expected, ExampleMatcher.StringMatcher stringMatcher, boolean ignoreCase) {
+        if (stringMatcher == ExampleMatcher.StringMatcher.REGEX) {
+            return Pattern.compile(expected, ignoreCase ? Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE : 0).matcher(actual).matches();
+        }
+        String value = ignoreCase ? actual.toLowerCase(Locale.ROOT) : actual;
+        String pattern = ignoreCase ? expected.toLowerCase(Locale.ROOT) : expected;
+        return switch (stringMatcher) {
+            case STARTING -> value.startsWith(pattern);
+            case ENDING -> value.endsWith(pattern);
+            case CONTAINING -> value.contains(pattern);
+            default -> value.equals(pattern);
+        };
+    }
+
+    private Flux<DeveloperEntity> scan(Predicate<Row> filter) {//полный проход как seq scan в БД, результат по возрастанию id
+        return Flux.defer(() -> {
+            List<Row> rows = new ArrayList<>();
+            for (Stripe stripe : stripes) {
+                stripe.forEach(row -> {
+                    if (filter.test(row)) {
+                        rows.add(row);
+                    }
+                });
+            }
+            rows.sort(Comparator.comparingInt(row -> row.id));
+            return Flux.fromIterable(rows).map(Row::toEntity);
+        });
+    }
+
+    private Row newRow(int id, DeveloperEntity developer, long version) {
+        return new Row(id, developer.getFirstName(), developer.getLastName(), developer.getEmail(),
+                intern(developer.getSpecialty()), developer.getStatus(), version);
+    }
+
+    private String intern(String specialty) {
+        if (Objects.isNull(specialty)) {
+            return null;
+        }
+        String canonical = specialties.putIfAbsent(specialty, specialty);
+        return Objects.isNull(canonical) ? specialty : canonical;
+    }
+
+    private static DuplicateKeyException duplicateEmail(String email) {
+        return new DuplicateKeyException("duplicate key value violates unique constraint \"developers_email_uindex\": email [" + email + "]");
+    }
+
+    private final class ExampleQuery<T> implements FluentQuery.ReactiveFluentQuery<T> {//findBy(Example, ...) поверх find:
+        //строка в памяти целиком, поэтому project ничего не экономит и просто запоминается как есть
+
+        private final Predicate<DeveloperEntity> filter;
+        private final Sort sort;
+        private final int limit;
+        private final Function<DeveloperEntity, T> mapper;
+
+        private ExampleQuery(Predicate<DeveloperEntity> filter, Sort sort, int limit, Function<DeveloperEntity, T> mapper) {
+            this.filter = filter;
+            this.sort = sort;
+            this.limit = limit;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public FluentQuery.ReactiveFluentQuery<T> sortBy(Sort sort) {
+            return new ExampleQuery<>(filter, this.sort.and(sort), limit, mapper);
+        }
+
+        @Override
+        public FluentQuery.ReactiveFluentQuery<T> limit(int limit) {
+            if (limit < 0) {
+                throw new IllegalArgumentException("Limit must not be negative");
+            }
+            return new ExampleQuery<>(filter, sort, limit, mapper);
+        }
+
+        @Override
+        public <R> FluentQuery.ReactiveFluentQuery<R> as(Class<R> resultType) {
+            if (resultType.isAssignableFrom(DeveloperEntity.class)) {
+                return new ExampleQuery<>(filter, sort, limit, resultType::cast);
+            }
+            if (resultType.isInterface()) {//интерфейсная проекция - прокси поверх строки, как у Spring Data
+                return new ExampleQuery<>(filter, sort, limit, developer -> PROJECTIONS.createProjection(resultType, developer));
+            }
+            throw new InvalidDataAccessApiUsageException("DTO projection " + resultType.getName()
+                    + " is not supported by the in-memory repository, use an interface projection");
+        }
+
+        @Override
+        public FluentQuery.ReactiveFluentQuery<T> project(Collection<String> properties) {
+            properties.forEach(InMemoryDeveloperRepository::property);//неизвестное свойство - ошибка, как в БД
+            return this;
+        }
+
+        @Override
+        public Mono<T> one() {
+            return all().take(2).collectList()
+                    .flatMap(found -> found.size() > 1
+                            ? Mono.error(new IncorrectResultSizeDataAccessException(1, found.size()))
+                            : Mono.justOrEmpty(found.stream().findFirst()));
+        }
+
+        @Override
+        public Mono<T> first() {
+            return all().next();
+        }
+
+        @Override
+        public Flux<T> all() {
+            return find(filter, sort, limit).map(mapper);
+        }
+
+        @Override
+        public Mono<Page<T>> page(Pageable pageable) {
+            if (pageable.isUnpaged()) {
+                return all().collectList().map(PageImpl::new);
+            }
+            return find(filter, sort.and(pageable.getSort()), limit).collectList()
+                    .map(found -> {
+                        int from = (int) Math.min(pageable.getOffset(), found.size());
+                        int to = Math.min(from + pageable.getPageSize(), found.size());
+                        return new PageImpl<>(found.subList(from, to).stream().map(mapper).toList(), pageable, found.size());
+                    });
+        }
+
+        @Override
+        public Mono<Long> count() {
+            return find(filter, Sort.unsorted(), limit).count();
+        }
+
+        @Override
+        public Mono<Boolean> exists() {
+            return find(filter, Sort.unsorted(), limit).hasElements();
+        }
+    }
+
+    private static final class Stripe {
+
+        private final IntObjectHashMap<Row> rows;
+        private final StampedLock lock = new StampedLock();
+
+        private Stripe(int expectedSize) {
+            this.rows = new IntObjectHashMap<>(expectedSize);
+        }
+
+        private void forEach(Consumer<Row> action) {
+            long stamp = lock.readLock();
+            try {
+                rows.forEachValue(action);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+    }
+
+    //неизменяемая строка таблицы: изменение заменяет ее целиком, поэтому прочитанную без блокировки строку никто не поменяет.
+    //~48 байт против ~100 у DeveloperEntity с упакованными Integer id и Long version
+    private record Row(int id, String firstName, String lastName, String email, String specialty, Status status, long version) {
+
+        private DeveloperEntity toEntity() {//наружу всегда новый объект, как будто строка прочитана из БД
+            return new DeveloperEntity(id, firstName, lastName, email, specialty, status, version);
+        }
+    }
+
+    //совпадение поиска по префиксу: ранг поля (эмайл, имя, фамилия) и совпавшее значение в нижнем регистре
+    private record Match(Row row, int rank, String value) {
+
+        private static final Comparator<Match> ORDER = Comparator.comparingInt((Match match) -> match.rank)
+                .thenComparing(match -> match.value)
+                .thenComparingInt(match -> match.row.id);
+
+        private static Match of(Row row, String prefix) {//первое по рангу поле, которое начинается с prefix, или null
+            String[] fields = {row.email, row.firstName, row.lastName};
+            for (int rank = 0; rank < fields.length; rank++) {
+                String field = fields[rank];
+                if (Objects.nonNull(field) && field.regionMatches(true, 0, prefix, 0, prefix.length())) {
+                    return new Match(row, rank, field.toLowerCase(Locale.ROOT));
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package net.proselyte.qafordevsreactive.repository;
+
+import net.proselyte.qafordevsreactive.entity.DeveloperEntity;
+import net.proselyte.qafordevsreactive.entity.Status;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.StringJoiner;
+
+@Repository
+@ConditionalOnProperty(name = "app.developers.execution", havingValue = "virtual-threads")
+public class JdbcDeveloperRepository implements BlockingDeveloperRepository {//запросы те же что и в R2DBC репозитории
+    //(и используют те же индексы V2/V3), только через JDBC
+
+    private static final RowMapper<DeveloperEntity> ROW_MAPPER = (rs, rowNum) -> DeveloperEntity.builder()
+            .id(rs.getInt("id"))
+            .firstName(rs.getString("first_name"))
+            .lastName(rs.getString("last_name"))
+            .email(rs.getString("email"))
+            .specialty(rs.getString("specialty"))
+            .status(Objects.isNull(rs.getString("status")) ? null : Status.valueOf(rs.getString("status")))
+            .version(rs.getLong("version"))
+            .build();
+
+    private static final String SEARCH_SQL = DeveloperRepositoryCustomImpl.SEARCH_SQL//тот же запрос, только с именованными параметрами
+            .replace("$1", ":prefix")
+            .replace("$2", ":limit");
+
+    private final JdbcClient jdbcClient;
+
+    public JdbcDeveloperRepository(@Qualifier("developerJdbcClient") JdbcClient jdbcClient) {
+        this.jdbcClient = jdbcClient;
+    }
+
+    @Override
+    public Optional<DeveloperEntity> findById(Integer id) {
+        return jdbcClient.sql("SELECT * FROM developers WHERE id = :id")
+                .param("id", id)
+                .query(ROW_MAPPER)
+                .optional();
+    }
+
+    @Override
+    public boolean existsById(Integer id) {
+        return jdbcClient.sql("SELECT EXISTS (SELECT 1 FROM developers WHERE id = :id)")
+                .param("id", id)
+                .query(Boolean.class)
+                .single();
+    }
+
+    @Override
+    public List<DeveloperEntity> findAllByIdIn(Collection<Integer> ids) {
+        return jdbcClient.sql("SELECT * FROM developers WHERE id IN (:ids)")
+                .param("ids", ids)
+                .query(ROW_MAPPER)
+                .list();
+    }
+
+    @Override
+    public List<DeveloperEntity> findAllByEmailIn(Collection<String> emails) {
+        return jdbcClient.sql("SELECT * FROM developers WHERE email IN (:emails)")
+                .param("emails", emails)
+                .query(ROW_MAPPER)
+                .list();
+    }
+
+    @Override
+    public List<DeveloperEntity> findAllActiveBySpecialty(String specialty) {
+        return jdbcClient.sql("SELECT * FROM developers WHERE status = 'ACTIVE' AND specialty = :specialty")
+                .param("specialty", specialty)
+                .query(ROW_MAPPER)
+                .list();
+    }
+
+    @Override
+    public long findSpecialtyVersion(String specialty) {
+        return jdbcClient.sql("SELECT COALESCE((SELECT version FROM specialty_versions WHERE specialty = :specialty), 0)")
+                .param("specialty", specialty)
+                .query(Long.class)
+                .single();
+    }
+
+    @Override
+    public List<DeveloperEntity> findPageAfter(int after, int limit) {
+        return jdbcClient.sql("SELECT * FROM developers WHERE id > :after ORDER BY id LIMIT :limit")
+                .param("after", after)
+                .param("limit", limit)
+                .query(ROW_MAPPER)
+                .list();
+    }
+
+    @Override
+    public List<DeveloperEntity> searchActiveByPrefix(String prefix, int limit) {
+        return jdbcClient.sql(SEARCH_SQL)
+                .param("prefix", DeveloperRepositoryCustom.likePrefix(prefix))
+                .param("limit", limit)
+                .query(ROW_MAPPER)
+                .list();
+    }
+
+    @Override
+    public Optional<Integer> insertIfEmailAbsent(DeveloperEntity developer) {
+        return jdbcClient.sql("INSERT INTO developers (email, first_name, last_name, specialty, status) " +
+                        "VALUES (:email, :firstName, :lastName, :specialty, :status) ON CONFLICT (email) DO NOTHING RETURNING id")
+                .param("email", developer.getEmail())
+                .param("firstName", developer.getFirstName())
+                .param("lastName", developer.getLastName())
+                .param("specialty", developer.getSpecialty())
+                .param("status", statusOf(developer))
+                .query(Integer.class)
+                .optional();
+    }
+
+    @Override
+    public Optional<DeveloperEntity> update(DeveloperEntity developer, boolean checkVersion) {
+        String sql = "UPDATE developers SET email = :email, first_name = :firstName, last_name = :lastName, specialty = :specialty, " +
+                "status = :status, version = version + 1 WHERE id = :id" + (checkVersion ? " AND version = :version" : "") + " RETURNING *";
+        JdbcClient.StatementSpec statement = jdbcClient.sql(sql)
+                .param("email", developer.getEmail())
+                .param("firstName", developer.getFirstName())
+                .param("lastName", developer.getLastName())
+                .param("specialty", developer.getSpecialty())
+                .param("status", statusOf(developer))
+                .param("id", developer.getId());
+        if (checkVersion) {
+            statement = statement.param("version", developer.getVersion());
+        }
+        return statement.query(ROW_MAPPER).optional();
+    }
+
+    @Override
+    public Optional<DeveloperEntity> patch(Integer id, DeveloperEntity changes) {//тот же динамический UPDATE что и в DeveloperRepositoryCustomImpl
+        StringJoiner columns = new StringJoiner(", ", "UPDATE developers SET ", "");
+        if (Objects.nonNull(changes.getEmail())) {
+            columns.add("email = :email");
+        }
+        if (Objects.nonNull(changes.getFirstName())) {
+            columns.add("first_name = :firstName");
+        }
+        if (Objects.nonNull(changes.getLastName())) {
+            columns.add("last_name = :lastName");
+        }
+        if (Objects.nonNull(changes.getSpecialty())) {
+            columns.add("specialty = :specialty");
+        }
+        if (Objects.nonNull(changes.getStatus())) {
+            columns.add("status = :status");
+        }
+        String condition = " WHERE id = :id" + (Objects.nonNull(changes.getVersion()) ? " AND version = :version" : "");
+        columns.add("version = version + 1");
+        String sql = DeveloperRepositoryCustom.hasChanges(changes)
+                ? columns + condition + " RETURNING *"
+                : "SELECT * FROM developers" + condition;//менять нечего - версию не поднимаем, отдаем текущую строку
+        return jdbcClient.sql(sql)
+                .param("email", changes.getEmail())//лишние параметры, которых нет в запросе, JdbcClient игнорирует
+                .param("firstName", changes.getFirstName())
+                .param("lastName", changes.getLastName())
+                .param("specialty", changes.getSpecialty())
+                .param("status", statusOf(changes))
+                .param("id", id)
+                .param("version", changes.getVersion())
+                .query(ROW_MAPPER)
+                .optional();
+    }
+
+    @Override
+    public long softDeleteById(Integer id) {
+        return jdbcClient.sql("UPDATE developers SET status = 'DELETED', version = version + 1 WHERE id = :id")
+                .param("id", id)
+                .update();
+    }
+
+    @Override
+    public long hardDeleteById(Integer id) {
+        return jdbcClient.sql("DELETE FROM developers WHERE id = :id")
+                .param("id", id)
+                .update();
+    }
+
+    private static String statusOf(DeveloperEntity developer) {
+        return Objects.isNull(developer.getStatus()) ? null : developer.getStatus().name();
+    }
+}
@@ -0,0 +1,26 @@
+package net.proselyte.qafordevsreactive.rest;
+
+import lombok.RequiredArgsConstructor;
+import net.proselyte.qafordevsreactive.cache.CacheStatistics;
+import net.proselyte.qafordevsreactive.service.CachingDeveloperService;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/v1/cache")
+public class CacheRestControllerV1 {
+
+    private final CachingDeveloperService cachingDeveloperService;
+
+    @GetMapping("/developers")
+    public Mono<Map<String, CacheStatistics>> getDeveloperCacheStatistics() {//счетчики попаданий, промахов и вытеснений по обоим кэшам
+        return Mono.fromSupplier(() -> Map.of(
+                "byId", cachingDeveloperService.getByIdStatistics(),
+                "bySpecialty", cachingDeveloperService.getBySpecialtyStatistics()));
+    }
+}
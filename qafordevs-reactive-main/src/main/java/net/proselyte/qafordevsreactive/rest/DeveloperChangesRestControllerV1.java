@@ -0,0 +1,41 @@
+package net.proselyte.qafordevsreactive.rest;
+
+import lombok.RequiredArgsConstructor;
+import net.proselyte.qafordevsreactive.config.DeveloperProperties;
+import net.proselyte.qafordevsreactive.event.DeveloperChangeEvent;
+import net.proselyte.qafordevsreactive.event.DeveloperChangeFeed;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+import java.util.Objects;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/v1/developers/changes")
+public class DeveloperChangesRestControllerV1 {//лента изменений девелоперов по SSE: вместо периодического чтения всей таблицы
+    //клиент один раз подписывается и получает создание, изменение и удаление девелоперов по мере того как они происходят
+
+    private final DeveloperChangeFeed developerChangeFeed;
+    private final DeveloperProperties developerProperties;
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<DeveloperChangeEvent>> streamChanges(
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,//браузерный EventSource сам шлет его при переподключении
+            @RequestParam(value = "since", required = false) Long since) {//или явно: последний полученный sequence
+        Long from = Objects.nonNull(lastEventId) ? lastEventId : since;
+        Flux<ServerSentEvent<DeveloperChangeEvent>> events = developerChangeFeed.changes(from)
+                .map(event -> ServerSentEvent.builder(event)
+                        .id(event.type() == DeveloperChangeEvent.Type.RESYNC ? null : String.valueOf(event.sequence()))
+                        .event(event.type().name())
+                        .build());
+        Flux<ServerSentEvent<DeveloperChangeEvent>> heartbeats = Flux.interval(developerProperties.getChanges().getHeartbeat())
+                .map(tick -> ServerSentEvent.<DeveloperChangeEvent>builder().comment("heartbeat").build());
+        return Flux.merge(events, heartbeats);//ошибка ленты (переполнение буфера) завершает merge целиком, heartbeat тоже отписывается
+    }
+}
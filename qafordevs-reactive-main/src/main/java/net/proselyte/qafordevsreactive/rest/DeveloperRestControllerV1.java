@@ -1,47 +1,144 @@
 package net.proselyte.qafordevsreactive.rest;
 
 import lombok.RequiredArgsConstructor;
+import net.proselyte.qafordevsreactive.codec.BinaryMediaTypes;
+import net.proselyte.qafordevsreactive.dto.DeveloperBatchResultDto;
 import net.proselyte.qafordevsreactive.dto.DeveloperDto;
+import net.proselyte.qafordevsreactive.dto.DeveloperLookupResultDto;
+import net.proselyte.qafordevsreactive.dto.DeveloperProjection;
+import net.proselyte.qafordevsreactive.entity.DeveloperEntity;
+import net.proselyte.qafordevsreactive.exception.DeveloperLookupLimitExceededException;
 import net.proselyte.qafordevsreactive.service.DeveloperService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+import java.util.Objects;
+
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/api/v1/developers")
 public class DeveloperRestControllerV1 {
 
+    private static final int MAX_PAGE_LIMIT = 1000;//больше этого за одну страницу не отдаем
+    private static final int PREFETCH = 256;//сколько строк запрашиваем у сервиса наперед пока клиент читает ответ
+    private static final int MAX_LOOKUP_IDS = 1000;//столько id за один lookup, больше - 400
+    private static final int MAX_SEARCH_LIMIT = 100;//поиск для подсказок при вводе, больше одной страницы не нужно
+
     private final DeveloperService developerService;
 
     @PostMapping
     public Mono<?> createDeveloper(@RequestBody DeveloperDto developerDto) {//создаем нового девелопера
         return developerService.createDeveloper(developerDto.toEntity())//отдаем сервису уже ЭНТИТИ конвертируя его из ДТО
-                .flatMap(entity -> Mono.just(DeveloperDto.fromEntity(entity)));//вернувшуюся ЭНТИТИ конвертируем в ДТО и отдаем в ответе
+                .transform(DeveloperProjection::toDto);//вернувшуюся ЭНТИТИ конвертируем в ДТО и отдаем в ответе
     }
 
     @PutMapping
     public Mono<?> updateDeveloper(@RequestBody DeveloperDto developerDto) {//изменяем девелопера
         return developerService.updateDeveloper(developerDto.toEntity())//также отдаем ЭНТИТИ сервису предварительно сконвертировав его из ДТО
-                .flatMap(entity -> Mono.just(DeveloperDto.fromEntity(entity)));//вернувшуюся ЭНТИТИ мапив в ДТО и отдаем в ответ
+                .transform(DeveloperProjection::toDto);//вернувшуюся ЭНТИТИ мапив в ДТО и отдаем в ответ
+    }
+
+    @PatchMapping("/{id}")
+    public Mono<?> patchDeveloper(@PathVariable("id") Integer id, @RequestBody DeveloperDto developerDto) {//частичное изменение:
+        //меняются только присланные поля, остальные остаются как есть. Если прислана version - изменение пройдет только для этой версии
+        return developerService.patchDeveloper(id, developerDto.toEntity())
+                .transform(DeveloperProjection::toDto);
+    }
+
+    @PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE,
+            BinaryMediaTypes.APPLICATION_SMILE_VALUE, BinaryMediaTypes.APPLICATION_STREAM_SMILE_VALUE})
+    public Flux<?> saveDevelopers(@RequestBody Flux<DeveloperDto> developers) {//пачка девелоперов JSON массивом или NDJSON потоком
+        //(или то же самое в Smile, потоковый CBOR Jackson2CborDecoder читать не умеет):
+        //без id - создаем, с id - изменяем. В ответ по каждому девелоперу свой результат, ошибка одного не валит остальных
+        return developerService.saveDevelopers(developers.map(DeveloperDto::toEntity))
+                .map(DeveloperBatchResultDto::fromResult);
     }
 
     @GetMapping
-    public Flux<?> getAll() {//отдаем всех девелоперов
-        return developerService.getAll()
-                .flatMap(entity -> Mono.just(DeveloperDto.fromEntity(entity)));//мапив в ДТО пришедших ЭНТИТИ .just это для каждой
+    public Flux<DeveloperEntity> getAll(@RequestParam(value = "after", required = false) Integer after,//курсор: id последнего девелопера предыдущей страницы
+                                        @RequestParam(value = "limit", required = false) Integer limit) {//отдаем всех девелоперов или одну страницу если задан limit
+        return findDevelopers(after, limit)
+                .limitRate(PREFETCH);//ограничиваем запрос вверх по цепочке, память не растет вместе с таблицей
+        //ЭНТИТИ отдаем как есть без ДТО: DeveloperEntityJsonEncoder пишет их прямо в буфер ответа в том же формате что и ДТО
+    }
+
+    @GetMapping(produces = {MediaType.APPLICATION_NDJSON_VALUE, BinaryMediaTypes.APPLICATION_STREAM_SMILE_VALUE,
+            BinaryMediaTypes.APPLICATION_CBOR_SEQ_VALUE})
+    public Flux<DeveloperEntity> streamAll(@RequestParam(value = "after", required = false) Integer after,
+                                           @RequestParam(value = "limit", required = false) Integer limit) {//то же самое, но при Accept: application/x-ndjson
+        //(или потоковых Smile и CBOR для межсервисных вызовов)
+        //каждый девелопер уходит отдельной строкой сразу как прочитан из БД, клиент может обрабатывать поток не дожидаясь конца
+        return findDevelopers(after, limit)
+                .limitRate(PREFETCH);
+    }
+
+    private Flux<DeveloperEntity> findDevelopers(Integer after, Integer limit) {
+        if (Objects.isNull(limit)) {//без limit отдаем всю таблицу (начиная с курсора если он задан)
+            return Objects.isNull(after) ? developerService.getAll() : developerService.getAllAfter(after);
+        }
+        return developerService.getPage(after, Math.max(1, Math.min(limit, MAX_PAGE_LIMIT)));
     }
 
     @GetMapping("/specialty/{specialty}")
-    public Flux<?> getAllBySpecialty(@PathVariable("specialty") String specialty) {//возвращаем всех девелоперов по специальности
-        return developerService.findAllActiveBySpecialty(specialty)//вызываем сервис отдавая специальность
-                .flatMap(entity -> Mono.just(DeveloperDto.fromEntity(entity)));//мапим вернувшиеса ЭНТИТИ на ДТО и отдаем наверх
+    public Mono<ResponseEntity<Flux<DeveloperEntity>>> getAllBySpecialty(@PathVariable("specialty") String specialty,//возвращаем всех девелоперов по специальности
+                                                                         ServerWebExchange exchange) {
+        return developerService.getSpecialtyVersion(specialty)//ETag - версия списка: у клиента тот же список - 304 без чтения списка
+                .map(version -> isNotModified(exchange, version)
+                        ? ResponseEntity.status(HttpStatus.NOT_MODIFIED).<Flux<DeveloperEntity>>build()//без тела: пустой Flux
+                        //DeveloperEntityJsonEncoder записал бы как []
+                        : ResponseEntity.ok(developerService.findAllActiveBySpecialty(specialty)));//вызываем сервис отдавая специальность, ЭНТИТИ пишет DeveloperEntityJsonEncoder
+    }
+
+    @GetMapping("/search")
+    public Flux<DeveloperEntity> search(@RequestParam("q") String query,//поиск по началу эмайла, имени или фамилии (type-ahead)
+                                        @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        return developerService.search(query, Math.max(1, Math.min(limit, MAX_SEARCH_LIMIT)));//ЭНТИТИ пишет DeveloperEntityJsonEncoder
     }
 
     @GetMapping("/{id}")
-    public Mono<?> getById(@PathVariable("id") Integer id) {//поиск девелопера по ID
+    public Mono<?> getById(@PathVariable("id") Integer id, ServerWebExchange exchange) {//поиск девелопера по ID
         return developerService.getById(id)
-                .flatMap(entity -> Mono.just(DeveloperDto.fromEntity(entity)));
+                .filter(entity -> !isNotModified(exchange, entity.getVersion()))//ETag - версия строки, совпала с If-None-Match -
+                //304 без тела: ни ДТО, ни JSON
+                .transform(DeveloperProjection::toDto);
+    }
+
+    private static boolean isNotModified(ServerWebExchange exchange, Long version) {//выставляет ETag и при совпадении статус 304.
+        //Сильный ETag: версия меняется при любом изменении, одна версия в одном формате - байт в байт тот же ответ
+        if (Objects.isNull(version)) {
+            return false;
+        }
+        //одна и та же версия в JSON, Smile и CBOR - разные байты, кэши по пути должны различать их по Accept
+        exchange.getResponse().getHeaders().add(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        return exchange.checkNotModified(String.valueOf(version));
+    }
+
+    @PostMapping(value = "/lookup", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Flux<DeveloperLookupResultDto> lookup(@RequestBody List<Integer> ids) {//несколько девелоперов одним запросом вместо
+        //N вызовов getById: тело - JSON массив id. Ответ (JSON массив или NDJSON при Accept: application/x-ndjson) - по результату
+        //на каждый id, найденные идут по мере чтения из БД, отсутствующие отдаются как NOT_FOUND и не валят весь запрос
+        return lookupDevelopers(ids);
+    }
+
+    @GetMapping("/lookup")
+    public Flux<DeveloperLookupResultDto> lookupByParam(@RequestParam("ids") List<Integer> ids) {//то же самое: ?ids=1,2,3
+        return lookupDevelopers(ids);
+    }
+
+    private Flux<DeveloperLookupResultDto> lookupDevelopers(List<Integer> ids) {
+        if (ids.size() > MAX_LOOKUP_IDS) {
+            return Flux.error(() -> new DeveloperLookupLimitExceededException("Too many ids in lookup, maximum is " + MAX_LOOKUP_IDS,
+                    "DEVELOPER_LOOKUP_LIMIT_EXCEEDED"));
+        }
+        return developerService.lookup(ids)
+                .map(DeveloperLookupResultDto::fromResult);
     }
 
     @DeleteMapping("/{id}")
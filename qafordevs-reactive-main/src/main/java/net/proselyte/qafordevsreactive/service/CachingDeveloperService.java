@@ -0,0 +1,209 @@
+package net.proselyte.qafordevsreactive.service;
+
+import net.proselyte.qafordevsreactive.cache.CacheStatistics;
+import net.proselyte.qafordevsreactive.cache.CaffeineReactiveCache;
+import net.proselyte.qafordevsreactive.cache.ReactiveCache;
+import net.proselyte.qafordevsreactive.cache.SpecialtyIndex;
+import net.proselyte.qafordevsreactive.config.DeveloperProperties;
+import net.proselyte.qafordevsreactive.entity.DeveloperEntity;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+
+@Primary//контроллер получает именно этот сервис, а он уже делегирует в DeveloperServiceImpl (или VirtualThreadDeveloperService)
+@Service
+public class CachingDeveloperService implements DeveloperService {//read-through кэш поверх DeveloperServiceImpl для самых частых чтений:
+    //getById и findAllActiveBySpecialty. Все изменения идут в делегат, после чего затронутые записи кэша удаляются.
+    //Изменения отмечаются в SpecialtyIndex, пока идут: версию специальности из БД он привязывает к бакету только без них
+
+    public static final String DELEGATE = "developerServiceDelegate";//квалификатор реализации, которую оборачивает кэш
+
+    private final DeveloperService delegate;
+    private final ReactiveCache<Integer, DeveloperEntity> byIdCache;
+    private final ReactiveCache<String, SpecialtyList> bySpecialtyCache;
+    private final SpecialtyIndex specialtyIndex;
+
+    public CachingDeveloperService(@Qualifier(DELEGATE) DeveloperService delegate, DeveloperProperties developerProperties,
+                                   SpecialtyIndex specialtyIndex) {
+        this.delegate = delegate;
+        this.specialtyIndex = specialtyIndex;
+        DeveloperProperties.Cache cache = developerProperties.getCache();
+        if (cache.isEnabled()) {
+            this.byIdCache = new CaffeineReactiveCache<>(cache.getMaximumSize(), cache.getTtl());
+            this.bySpecialtyCache = new CaffeineReactiveCache<>(cache.getSpecialtyMaximumSize(), cache.getTtl());
+        } else {//кэш выключен - все запросы проходят насквозь
+            this.byIdCache = ReactiveCache.disabled();
+            this.bySpecialtyCache = ReactiveCache.disabled();
+        }
+    }
+
+    public CacheStatistics getByIdStatistics() {
+        return byIdCache.statistics();
+    }
+
+    public CacheStatistics getBySpecialtyStatistics() {
+        return bySpecialtyCache.statistics();
+    }
+
+    @Override
+    public Mono<DeveloperEntity> createDeveloper(DeveloperEntity developer) {
+        return specialtyIndex.trackWrite(delegate.createDeveloper(developer))
+                .doOnNext(created -> bySpecialtyCache.evict(created.getSpecialty()));//новый активный девелопер появится в списке своей специальности
+    }
+
+    @Override
+    public Mono<DeveloperEntity> updateDeveloper(DeveloperEntity developer) {
+        return Mono.defer(() -> {
+            DeveloperEntity previous = byIdCache.getIfPresent(developer.getId());//старая версия нужна чтобы знать из какого списка девелопер уходит
+            return specialtyIndex.trackWrite(delegate.updateDeveloper(developer))
+                    .doOnNext(updated -> {
+                        byIdCache.evict(updated.getId());
+                        evictSpecialtyOf(previous);
+                        bySpecialtyCache.evict(updated.getSpecialty());
+                    });
+        });
+    }
+
+    @Override
+    public Mono<DeveloperEntity> patchDeveloper(Integer id, DeveloperEntity changes) {
+        return Mono.defer(() -> {
+            DeveloperEntity previous = byIdCache.getIfPresent(id);
+            return specialtyIndex.trackWrite(delegate.patchDeveloper(id, changes))
+                    .doOnNext(patched -> {
+                        byIdCache.evict(id);
+                        evictSpecialtyOf(previous);
+                        bySpecialtyCache.evict(patched.getSpecialty());
+                    });
+        });
+    }
+
+    @Override
+    public Flux<DeveloperBatchResult> saveDevelopers(Flux<DeveloperEntity> developers) {
+        return specialtyIndex.trackWrites(delegate.saveDevelopers(developers))
+                .doOnNext(result -> {
+                    if (result.outcome() == DeveloperBatchResult.Outcome.CREATED) {
+                        bySpecialtyCache.evict(result.developer().getSpecialty());
+                    } else if (result.outcome() == DeveloperBatchResult.Outcome.UPDATED) {
+                        DeveloperEntity previous = byIdCache.getIfPresent(result.developer().getId());
+                        byIdCache.evict(result.developer().getId());
+                        evictSpecialtyOf(previous);
+                        bySpecialtyCache.evict(result.developer().getSpecialty());
+                    }
+                });
+    }
+
+    @Override
+    public Flux<DeveloperEntity> getAll() {
+        return delegate.getAll();
+    }
+
+    @Override
+    public Flux<DeveloperEntity> getAllAfter(Integer after) {
+        return delegate.getAllAfter(after);
+    }
+
+    @Override
+    public Flux<DeveloperEntity> getPage(Integer after, int limit) {
+        return delegate.getPage(after, limit);
+    }
+
+    @Override
+    public Flux<DeveloperEntity> findAllActiveBySpecialty(String specialty) {
+        if (specialtyIndex.isReady()) {//индекс включен и загружен - он всегда актуален для изменений этого инстанса, кэш не нужен
+            return specialtyIndex.findAllActiveBySpecialty(specialty);
+        }
+        return bySpecialtyCache.get(specialty, key -> delegate.getSpecialtyVersion(key)//кэшируем список целиком вместе с версией,
+                        //прочитанной до него: список не старше этой версии
+                        .flatMap(version -> delegate.findAllActiveBySpecialty(key).collectList()
+                                .map(developers -> new SpecialtyList(version, developers))))
+                .flatMapIterable(SpecialtyList::developers);
+    }
+
+    @Override
+    public Mono<Long> getSpecialtyVersion(String specialty) {//индекс загружен - версию ведет он сам и в БД идет только при промахе.
+        //Иначе версия из БД (одна строка по ключу), а список, который отдадут с ней, должен быть не старше: иначе ETag новой
+        //версии уйдет клиенту вместе со старым списком и дальше он будет получать 304. Поэтому закэшированный список старше
+        //версии выбрасываем
+        if (specialtyIndex.isReady()) {
+            return specialtyIndex.version(specialty);
+        }
+        return delegate.getSpecialtyVersion(specialty)
+                .doOnNext(version -> {
+                    SpecialtyList cached = bySpecialtyCache.getIfPresent(specialty);
+                    if (Objects.nonNull(cached) && cached.version() < version) {
+                        bySpecialtyCache.evict(specialty);
+                    }
+                });
+    }
+
+    @Override
+    public Flux<DeveloperEntity> search(String query, int limit) {//запросов type-ahead слишком много разных, кэшировать нечего
+        return delegate.search(query, limit);
+    }
+
+    @Override
+    public Mono<DeveloperEntity> getById(Integer id) {
+        return byIdCache.get(id, delegate::getById);//DeveloperNotFoundException из делегата не кэшируется и просто пробрасывается дальше
+    }
+
+    @Override
+    public Flux<DeveloperLookupResult> lookup(List<Integer> ids) {//что есть в кэше отдаем сразу, в делегат уходят только промахи
+        return Flux.defer(() -> {
+            List<DeveloperLookupResult> cached = new ArrayList<>();
+            List<Integer> misses = new ArrayList<>();
+            for (Integer id : new LinkedHashSet<>(ids)) {
+                DeveloperEntity developer = Objects.isNull(id) ? null : byIdCache.getIfPresent(id);
+                if (Objects.nonNull(developer)) {
+                    cached.add(DeveloperLookupResult.found(developer));
+                } else if (Objects.nonNull(id)) {
+                    misses.add(id);
+                }
+            }
+            return misses.isEmpty()
+                    ? Flux.fromIterable(cached)
+                    : Flux.fromIterable(cached).concatWith(delegate.lookup(misses));
+        });
+    }
+
+    @Override
+    public Mono<Void> softDeleteById(Integer id) {
+        return Mono.defer(() -> {
+            DeveloperEntity previous = byIdCache.getIfPresent(id);
+            return specialtyIndex.trackWrite(delegate.softDeleteById(id))
+                    .doOnSuccess(ignored -> {
+                        byIdCache.evict(id);
+                        evictSpecialtyOf(previous);
+                    });
+        });
+    }
+
+    @Override
+    public Mono<Void> hardDeleteById(Integer id) {
+        return Mono.defer(() -> {
+            DeveloperEntity previous = byIdCache.getIfPresent(id);
+            return specialtyIndex.trackWrite(delegate.hardDeleteById(id))
+                    .doOnSuccess(ignored -> {
+                        byIdCache.evict(id);
+                        evictSpecialtyOf(previous);
+                    });
+        });
+    }
+
+    private void evictSpecialtyOf(DeveloperEntity previous) {
+        if (Objects.nonNull(previous)) {//специальность известна - удаляем только ее список
+            bySpecialtyCache.evict(previous.getSpecialty());
+        } else {//девелопера не было в кэше, и мы не знаем в каком списке он лежал: специальностей мало, сбрасываем все
+            bySpecialtyCache.evictAll();
+        }
+    }
+
+    private record SpecialtyList(long version, List<DeveloperEntity> developers) {
+    }
+}
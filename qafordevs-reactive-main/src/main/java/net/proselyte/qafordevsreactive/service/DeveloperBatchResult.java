@@ -0,0 +1,23 @@
+package net.proselyte.qafordevsreactive.service;
+
+import net.proselyte.qafordevsreactive.entity.DeveloperEntity;
+
+public record DeveloperBatchResult(long index, Outcome outcome, DeveloperEntity developer, String errorCode, String message) {
+    //результат по одному девелоперу из пачки: index - позиция во входном потоке, чтобы клиент сопоставил ответ с запросом
+
+    public enum Outcome {
+        CREATED, UPDATED, FAILED
+    }
+
+    public static DeveloperBatchResult created(long index, DeveloperEntity developer) {
+        return new DeveloperBatchResult(index, Outcome.CREATED, developer, null, null);
+    }
+
+    public static DeveloperBatchResult updated(long index, DeveloperEntity developer) {
+        return new DeveloperBatchResult(index, Outcome.UPDATED, developer, null, null);
+    }
+
+    public static DeveloperBatchResult failed(long index, String errorCode, String message) {
+        return new DeveloperBatchResult(index, Outcome.FAILED, null, errorCode, message);
+    }
+}
@@ -0,0 +1,129 @@
+package net.proselyte.qafordevsreactive.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import net.proselyte.qafordevsreactive.config.DeveloperProperties;
+import net.proselyte.qafordevsreactive.entity.DeveloperEntity;
+import net.proselyte.qafordevsreactive.repository.DeveloperRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class DeveloperByIdBatcher {//DataLoader для getById: одновременные запросы собираются в пачку на время window
+    //(или до maxBatchSize id) и уходят в БД одним SELECT ... WHERE id = ANY(...). Одинаковые id в пачке - один ключ,
+    //все ждущие его Mono получают одну и ту же строку
+
+    public static final String BATCH_SIZE_SUMMARY = "developer.batcher.batch.size";
+    public static final String WAIT_TIMER = "developer.batcher.wait";
+
+    private final DeveloperRepository developerRepository;
+    private final DeveloperProperties.Coalescing coalescing;
+    private final DistributionSummary batchSize;//сколько разных id ушло одним запросом
+    private final Timer wait;//сколько первый запрос пачки ждал отправки (потраченный бюджет задержки)
+    private final Scheduler scheduler = Schedulers.parallel();
+
+    private final Object lock = new Object();
+    private Batch pending;//собирающаяся пачка, null - пачки нет
+
+    public DeveloperByIdBatcher(DeveloperRepository developerRepository, DeveloperProperties developerProperties) {
+        this(developerRepository, developerProperties, (MeterRegistry) null);
+    }
+
+    @Autowired
+    public DeveloperByIdBatcher(DeveloperRepository developerRepository, DeveloperProperties developerProperties,
+                                ObjectProvider<MeterRegistry> meterRegistry) {
+        this(developerRepository, developerProperties, meterRegistry.getIfAvailable());
+    }
+
+    private DeveloperByIdBatcher(DeveloperRepository developerRepository, DeveloperProperties developerProperties,
+                                 MeterRegistry registry) {//registry null - без метрик (тесты, бенчмарки)
+        this.developerRepository = developerRepository;
+        this.coalescing = developerProperties.getCoalescing();
+        this.batchSize = registry == null ? null : DistributionSummary.builder(BATCH_SIZE_SUMMARY)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry);
+        this.wait = registry == null ? null : Timer.builder(WAIT_TIMER)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry);
+    }
+
+    public Mono<DeveloperEntity> findById(Integer id) {
+        if (!coalescing.isEnabled() || Objects.isNull(id)) {
+            return developerRepository.findById(id);
+        }
+        return Mono.defer(() -> enqueue(id));
+    }
+
+    private Mono<DeveloperEntity> enqueue(Integer id) {
+        Batch started = null;
+        Batch full = null;
+        Sinks.One<DeveloperEntity> sink;
+        synchronized (lock) {
+            if (pending == null) {
+                pending = new Batch(System.nanoTime());
+                started = pending;
+            }
+            sink = pending.sinks.computeIfAbsent(id, key -> Sinks.one());//повторный id присоединяется к уже ждущему
+            if (pending.sinks.size() >= coalescing.getMaxBatchSize()) {
+                full = pending;
+                pending = null;
+            }
+        }
+        if (started != null && started != full) {//первый id новой пачки заводит таймер окна
+            Batch batch = started;
+            scheduler.schedule(() -> flush(batch), coalescing.getWindow().toNanos(), TimeUnit.NANOSECONDS);
+        }
+        if (full != null) {
+            dispatch(full);
+        }
+        return sink.asMono();
+    }
+
+    private void flush(Batch batch) {
+        synchronized (lock) {
+            if (pending != batch) {//пачка уже ушла по размеру
+                return;
+            }
+            pending = null;
+        }
+        dispatch(batch);
+    }
+
+    private void dispatch(Batch batch) {
+        Map<Integer, Sinks.One<DeveloperEntity>> sinks = batch.sinks;
+        if (batchSize != null) {
+            batchSize.record(sinks.size());
+            wait.record(System.nanoTime() - batch.startedAt, TimeUnit.NANOSECONDS);
+        }
+        developerRepository.findAllByIds(sinks.keySet().toArray(Integer[]::new))
+                .subscribe(developer -> {
+                            Sinks.One<DeveloperEntity> sink = sinks.get(developer.getId());
+                            if (sink != null) {
+                                sink.tryEmitValue(developer);
+                            }
+                        },
+                        error -> sinks.values().forEach(sink -> sink.tryEmitError(error)),//ошибка запроса - ошибка у всех ждущих
+                        () -> sinks.values().forEach(Sinks.One::tryEmitEmpty));//строки не нашлось - пустой Mono (у остальных уже значение)
+    }
+
+    private static final class Batch {
+
+        private final long startedAt;
+        private final Map<Integer, Sinks.One<DeveloperEntity>> sinks = new HashMap<>();//меняется только под lock до отправки
+
+        private Batch(long startedAt) {
+            this.startedAt = startedAt;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package net.proselyte.qafordevsreactive.service;
+
+import net.proselyte.qafordevsreactive.entity.DeveloperEntity;
+
+public record DeveloperLookupResult(Integer id, Outcome outcome, DeveloperEntity developer) {
+    //результат поиска по одному id из запроса lookup: отсутствующий id - отдельный результат, а не ошибка всего запроса
+
+    public enum Outcome {
+        FOUND, NOT_FOUND
+    }
+
+    public static DeveloperLookupResult found(DeveloperEntity developer) {
+        return new DeveloperLookupResult(developer.getId(), Outcome.FOUND, developer);
+    }
+
+    public static DeveloperLookupResult notFound(Integer id) {
+        return new DeveloperLookupResult(id, Outcome.NOT_FOUND, null);
+    }
+}
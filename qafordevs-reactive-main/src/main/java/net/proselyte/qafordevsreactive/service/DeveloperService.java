@@ -4,17 +4,36 @@ import net.proselyte.qafordevsreactive.entity.DeveloperEntity;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
 public interface DeveloperService {
 
     Mono<DeveloperEntity> createDeveloper(DeveloperEntity developer);
     Mono<DeveloperEntity> updateDeveloper(DeveloperEntity developer);
 
+    Mono<DeveloperEntity> patchDeveloper(Integer id, DeveloperEntity changes);
+
+    Flux<DeveloperBatchResult> saveDevelopers(Flux<DeveloperEntity> developers);
+
     Flux<DeveloperEntity> getAll();
 
+    Flux<DeveloperEntity> getAllAfter(Integer after);
+
+    Flux<DeveloperEntity> getPage(Integer after, int limit);
+
     Flux<DeveloperEntity> findAllActiveBySpecialty(String specialty);
 
+    Mono<Long> getSpecialtyVersion(String specialty);//растет при каждом изменении девелоперов специальности (ETag списка).
+    //Читать до самого списка: тогда список в ответе не старше версии
+
+    Flux<DeveloperEntity> search(String query, int limit);//активные девелоперы, у которых эмайл, имя или фамилия начинаются
+    //с query (без учета регистра), не больше limit, самые подходящие первыми. Пустой query - пустой результат
+
     Mono<DeveloperEntity> getById(Integer id);
 
+    Flux<DeveloperLookupResult> lookup(List<Integer> ids);//по результату на каждый разный id: найденные по мере чтения из БД,
+    //отсутствующие в конце
+
     Mono<Void> softDeleteById(Integer id);
     Mono<Void> hardDeleteById(Integer id);
 }
@@ -1,56 +1,291 @@
 package net.proselyte.qafordevsreactive.service;
 
-import lombok.RequiredArgsConstructor;
+import net.proselyte.qafordevsreactive.config.DeveloperProperties;
 import net.proselyte.qafordevsreactive.entity.DeveloperEntity;
 import net.proselyte.qafordevsreactive.entity.Status;
+import net.proselyte.qafordevsreactive.event.DeveloperChangeFeed;
 import net.proselyte.qafordevsreactive.exception.DeveloperNotFoundException;
+import net.proselyte.qafordevsreactive.exception.DeveloperVersionConflictException;
 import net.proselyte.qafordevsreactive.exception.DeveloperWithEmailAlreadyExistsException;
 import net.proselyte.qafordevsreactive.repository.DeveloperRepository;
+import net.proselyte.qafordevsreactive.repository.DeveloperRepositoryCustom;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
-@RequiredArgsConstructor
+@Qualifier(CachingDeveloperService.DELEGATE)
+@ConditionalOnProperty(name = "app.developers.execution", havingValue = "reactive", matchIfMissing = true)//режим по умолчанию,
+//альтернатива - VirtualThreadDeveloperService (app.developers.execution=virtual-threads)
 public class DeveloperServiceImpl implements DeveloperService {
 
     private final DeveloperRepository developerRepository;
+    private final DeveloperProperties developerProperties;
+    private final DeveloperChangeFeed developerChangeFeed;
+    private final DeveloperByIdBatcher developerByIdBatcher;
+    private final TransactionalOperator transactionalOperator;//null - транзакций нет (профиль embedded, юнит тесты и бенчмарки)
 
-    private Mono<Void> checkIfExistsByEmail(String email) {//приватный метод проверки есть ли девелопер в БД по указанному эмайлу
-        return developerRepository.findByEmail(email)//делаем запрос поиска девелопера по эмайлу в БД
-                .flatMap(developer -> {//при разных условиях (if) преобразуем возвращаемый результат:
-                    if (Objects.nonNull(developer)) {//если есть девелопер с указанным эмайлом
-                        return Mono.error(new DeveloperWithEmailAlreadyExistsException("Developer with defined email already exists",
-                                "DEVELOPER_DUPLICATE_EMAIL"));
-                        //возвращаем кастомную ошибку
-                    }
-                    return Mono.empty();//в другом случае (если его нет) возвращаем пустой моно
-                });
+    public DeveloperServiceImpl(DeveloperRepository developerRepository, DeveloperProperties developerProperties,
+                                DeveloperChangeFeed developerChangeFeed, DeveloperByIdBatcher developerByIdBatcher) {
+        this(developerRepository, developerProperties, developerChangeFeed, developerByIdBatcher, (TransactionalOperator) null);
+    }
+
+    @Autowired
+    public DeveloperServiceImpl(DeveloperRepository developerRepository, DeveloperProperties developerProperties,
+                                DeveloperChangeFeed developerChangeFeed, DeveloperByIdBatcher developerByIdBatcher,
+                                ObjectProvider<TransactionalOperator> transactionalOperator) {//Spring Boot создает его поверх R2DBC
+        this(developerRepository, developerProperties, developerChangeFeed, developerByIdBatcher, transactionalOperator.getIfAvailable());
+    }
+
+    private DeveloperServiceImpl(DeveloperRepository developerRepository, DeveloperProperties developerProperties,
+                                 DeveloperChangeFeed developerChangeFeed, DeveloperByIdBatcher developerByIdBatcher,
+                                 TransactionalOperator transactionalOperator) {
+        this.developerRepository = developerRepository;
+        this.developerProperties = developerProperties;
+        this.developerChangeFeed = developerChangeFeed;
+        this.developerByIdBatcher = developerByIdBatcher;
+        this.transactionalOperator = transactionalOperator;
     }
 
     @Override
     public Mono<DeveloperEntity> createDeveloper(DeveloperEntity developer) {//при создании нового девелопера
-        return checkIfExistsByEmail(developer.getEmail())//сначала проверяем есть ли такой девелопер в БД,если есть в методе checkIfExistsByEmail упадем с ошибкой
-                .then(Mono.defer(() -> {//Создаем поставщика Mono, который будет предоставлять целевой Mono для подписки каждому нисходящему подписчику
+        return Mono.defer(() -> {//Создаем поставщика Mono, который будет предоставлять целевой Mono для подписки каждому нисходящему подписчику
                     developer.setStatus(Status.ACTIVE);//устанавливаем статус
-                    return developerRepository.save(developer);//сохраняем девелопера в БД
-                }));
+                    return developerRepository.insertIfEmailAbsent(developer);//вставляем одним запросом: уникальность эмайла проверяет
+                    //уникальный индекс в БД (INSERT ... ON CONFLICT DO NOTHING), поэтому два одновременных запроса не создадут дубликат
+                })
+                .map(id -> {
+                    developer.setId(id);
+                    developer.setVersion(0L);//версия новой строки (default в БД)
+                    return developer;
+                })
+                .switchIfEmpty(Mono.error(() -> new DeveloperWithEmailAlreadyExistsException("Developer with defined email already exists",
+                        "DEVELOPER_DUPLICATE_EMAIL")))//строка не вставилась - такой эмайл уже есть
+                .doOnNext(developerChangeFeed::created);//в ленту изменений попадают только успешные изменения
     }
 
     @Override
     public Mono<DeveloperEntity> updateDeveloper(DeveloperEntity developer) {//изменение девелопера в БД
         return developerRepository.findById(developer.getId())//проверяем есть ли такой девелопер в БД
-                .switchIfEmpty(Mono.error(new DeveloperNotFoundException("Developer not found", "DEVELOPER_NOT_FOUND")))//если его нет кидаем ошибку
+                .switchIfEmpty(Mono.error(() -> new DeveloperNotFoundException("Developer not found", "DEVELOPER_NOT_FOUND")))//если его нет кидаем ошибку
                 .flatMap(d -> {//если нашли
+                    if (Objects.isNull(developer.getVersion())) {//клиент не прислал версию - перезаписываем текущую как и раньше
+                        developer.setVersion(d.getVersion());
+                    }
                     return developerRepository.save(developer);//просим сохранить нового девелопера (для обновления) и вернуть его наружу
+                })
+                .onErrorMap(DuplicateKeyException.class, e -> new DeveloperWithEmailAlreadyExistsException(//новый эмайл уже занят другим
+                        "Developer with defined email already exists", "DEVELOPER_DUPLICATE_EMAIL"))
+                .onErrorMap(OptimisticLockingFailureException.class, e -> new DeveloperVersionConflictException(
+                        "Developer was modified concurrently", "DEVELOPER_VERSION_CONFLICT"))//версия клиента устарела
+                .doOnNext(developerChangeFeed::updated);
+    }
+
+    @Override
+    public Mono<DeveloperEntity> patchDeveloper(Integer id, DeveloperEntity changes) {//частичное изменение одним UPDATE ... RETURNING *
+        return developerRepository.patch(id, changes)
+                .switchIfEmpty(Mono.defer(() -> {//ни одна строка не изменилась
+                    if (Objects.isNull(changes.getVersion())) {
+                        return Mono.error(new DeveloperNotFoundException("Developer not found", "DEVELOPER_NOT_FOUND"));
+                    }
+                    return developerRepository.existsById(id)//только на этой (редкой) ветке узнаем почему: нет строки или другая версия
+                            .flatMap(exists -> Mono.error(exists
+                                    ? new DeveloperVersionConflictException("Developer was modified concurrently", "DEVELOPER_VERSION_CONFLICT")
+                                    : new DeveloperNotFoundException("Developer not found", "DEVELOPER_NOT_FOUND")));
+                }))
+                .onErrorMap(DuplicateKeyException.class, e -> new DeveloperWithEmailAlreadyExistsException(
+                        "Developer with defined email already exists", "DEVELOPER_DUPLICATE_EMAIL"))
+                .doOnNext(patched -> {
+                    if (DeveloperRepositoryCustom.hasChanges(changes)) {//пустой patch ничего не изменил - события нет
+                        developerChangeFeed.updated(patched);
+                    }
+                });
+    }
+
+    @Override
+    public Flux<DeveloperBatchResult> saveDevelopers(Flux<DeveloperEntity> developers) {//пачечное создание (без id) и изменение (с id)
+        DeveloperProperties.Batch batch = developerProperties.getBatch();
+        return developers.index()//запоминаем позицию каждого девелопера во входном потоке
+                .buffer(batch.getChunkSize())//режем поток на пачки
+                .flatMapSequential(this::saveChunk, batch.getConcurrency())//пачки пишем параллельно, но результаты отдаем в исходном порядке
+                .doOnNext(this::publishChange);
+    }
+
+    private void publishChange(DeveloperBatchResult result) {
+        if (result.outcome() == DeveloperBatchResult.Outcome.CREATED) {
+            developerChangeFeed.created(result.developer());
+        } else if (result.outcome() == DeveloperBatchResult.Outcome.UPDATED) {
+            developerChangeFeed.updated(result.developer());
+        }
+    }
+
+    private Flux<DeveloperBatchResult> saveChunk(List<Tuple2<Long, DeveloperEntity>> chunk) {
+        Set<String> emails = chunk.stream()
+                .map(item -> item.getT2().getEmail())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Mono<Map<String, Integer>> owners = emails.isEmpty()
+                ? Mono.just(Map.of())
+                : developerRepository.findAllByEmailIn(emails).collectMap(DeveloperEntity::getEmail, DeveloperEntity::getId);//один запрос на пачку
+        Integer[] updateIds = chunk.stream()
+                .map(item -> item.getT2().getId())
+                .filter(Objects::nonNull)
+                .distinct()
+                .toArray(Integer[]::new);
+        Mono<Map<Integer, DeveloperEntity>> stored = updateIds.length == 0
+                ? Mono.just(Map.of())
+                : developerRepository.findAllByIds(updateIds).collectMap(DeveloperEntity::getId);//текущие строки изменяемых, тоже одним запросом
+
+        return Mono.zip(owners, stored).flatMapMany(lookups -> {
+                    Map<String, Integer> ownerByEmail = lookups.getT1();
+                    Map<Integer, DeveloperEntity> storedById = lookups.getT2();
+                    List<DeveloperBatchResult> failed = new ArrayList<>();
+                    List<Tuple2<Long, DeveloperEntity>> inserts = new ArrayList<>();
+                    List<Tuple2<Long, DeveloperEntity>> updates = new ArrayList<>();
+                    Set<String> seen = new HashSet<>();
+                    for (Tuple2<Long, DeveloperEntity> item : chunk) {
+                        DeveloperEntity developer = item.getT2();
+                        String email = developer.getEmail();
+                        Integer owner = Objects.isNull(email) ? null : ownerByEmail.get(email);
+                        boolean duplicateInChunk = Objects.nonNull(email) && !seen.add(email);
+                        if (duplicateInChunk || (Objects.nonNull(owner) && !owner.equals(developer.getId()))) {//эмайл занят другим девелопером
+                            failed.add(DeveloperBatchResult.failed(item.getT1(), "DEVELOPER_DUPLICATE_EMAIL",
+                                    "Developer with defined email already exists"));
+                        } else if (developer.isNew()) {
+                            developer.setStatus(Status.ACTIVE);//как и в createDeveloper новый девелопер всегда активен
+                            inserts.add(item);
+                        } else if (!storedById.containsKey(developer.getId())) {
+                            failed.add(DeveloperBatchResult.failed(item.getT1(), "DEVELOPER_NOT_FOUND", "Developer not found"));
+                        } else {
+                            DeveloperEntity current = storedById.get(developer.getId());
+                            if (Objects.isNull(developer.getVersion())) {//версию не прислали - изменяем ту что прочитали, как updateDeveloper:
+                                //изменение между чтением и записью будет конфликтом, а не молча перезапишется
+                                developer.setVersion(current.getVersion());
+                            }
+                            if (Objects.isNull(developer.getStatus())) {//статус не прислали - остается текущий, а не NULL
+                                developer.setStatus(current.getStatus());
+                            }
+                            updates.add(item);
+                        }
+                    }
+                    return Flux.fromIterable(failed)
+                            .concatWith(writeChunk(inserts, updates));
+                })
+                .sort(Comparator.comparingLong(DeveloperBatchResult::index))//внутри пачки восстанавливаем порядок входного потока
+                .onErrorResume(e -> Flux.fromIterable(chunk)//не удалось даже прочитать эмайлы и строки - ничего не записано, сообщаем по каждому
+                        .map(item -> DeveloperBatchResult.failed(item.getT1(), "DEVELOPER_BATCH_FAILED", e.getMessage())));
+    }
+
+    private Flux<DeveloperBatchResult> writeChunk(List<Tuple2<Long, DeveloperEntity>> inserts,
+                                                  List<Tuple2<Long, DeveloperEntity>> updates) {
+        //вставки и изменения пачки одной транзакцией: ошибка посередине (например гонка по эмайлу) откатывает всю пачку,
+        //и FAILED значит что ничего не записано. Без транзакций (в памяти) каждая строка записывается сразу, поэтому при ошибке
+        //уже записанные остаются CREATED/UPDATED, а FAILED получают только те до которых дело не дошло
+        return Flux.defer(() -> {
+            List<DeveloperBatchResult> written = new ArrayList<>();
+            Mono<List<DeveloperBatchResult>> write = insertChunk(inserts)
+                    .concatWith(updateChunk(updates))
+                    .doOnNext(written::add)
+                    .then(Mono.fromSupplier(() -> written));//результаты наружу только после коммита, лента изменений не увидит откаченное
+            boolean atomic = Objects.nonNull(transactionalOperator);
+            return (atomic ? transactionalOperator.transactional(write) : write)
+                    .onErrorResume(e -> Mono.fromSupplier(() -> failUnwritten(inserts, updates,
+                            atomic ? failedOnly(written) : written, e)))
+                    .flatMapIterable(results -> results);
+        });
+    }
+
+    private static List<DeveloperBatchResult> failedOnly(List<DeveloperBatchResult> results) {//после отката CREATED/UPDATED уже неправда
+        return results.stream()
+                .filter(result -> result.outcome() == DeveloperBatchResult.Outcome.FAILED)
+                .toList();
+    }
+
+    private static List<DeveloperBatchResult> failUnwritten(List<Tuple2<Long, DeveloperEntity>> inserts,
+                                                            List<Tuple2<Long, DeveloperEntity>> updates,
+                                                            List<DeveloperBatchResult> reported, Throwable error) {
+        Set<Long> reportedIndexes = reported.stream().map(DeveloperBatchResult::index).collect(Collectors.toSet());
+        List<DeveloperBatchResult> results = new ArrayList<>(reported);
+        Stream.concat(inserts.stream(), updates.stream())
+                .filter(item -> !reportedIndexes.contains(item.getT1()))
+                .forEach(item -> results.add(DeveloperBatchResult.failed(item.getT1(), "DEVELOPER_BATCH_FAILED", error.getMessage())));
+        return results;
+    }
+
+    private Flux<DeveloperBatchResult> insertChunk(List<Tuple2<Long, DeveloperEntity>> inserts) {
+        List<DeveloperEntity> developers = inserts.stream().map(Tuple2::getT2).toList();
+        return developerRepository.insertAll(developers)
+                .index()
+                .map(inserted -> {
+                    Tuple2<Long, DeveloperEntity> item = inserts.get(inserted.getT1().intValue());
+                    if (inserted.getT2().isEmpty()) {//эмайл успели занять между проверкой пачки и вставкой
+                        return DeveloperBatchResult.failed(item.getT1(), "DEVELOPER_DUPLICATE_EMAIL",
+                                "Developer with defined email already exists");
+                    }
+                    item.getT2().setId(inserted.getT2().get());
+                    item.getT2().setVersion(0L);
+                    return DeveloperBatchResult.created(item.getT1(), item.getT2());
+                });
+    }
+
+    private Flux<DeveloperBatchResult> updateChunk(List<Tuple2<Long, DeveloperEntity>> updates) {
+        List<DeveloperEntity> developers = updates.stream().map(Tuple2::getT2).toList();
+        return developerRepository.updateAll(developers)
+                .index()
+                .map(updated -> {
+                    Tuple2<Long, DeveloperEntity> item = updates.get(updated.getT1().intValue());
+                    if (updated.getT2() == 0) {//строка была при чтении пачки, но версия уже другая (или ее успели удалить)
+                        return DeveloperBatchResult.failed(item.getT1(), "DEVELOPER_VERSION_CONFLICT", "Developer was modified concurrently");
+                    }
+                    item.getT2().setVersion(item.getT2().getVersion() + 1);//как version = version + 1 в UPDATE
+                    return DeveloperBatchResult.updated(item.getT1(), item.getT2());
                 });
     }
 
     @Override
     public Flux<DeveloperEntity> getAll() {//здесь
-        return developerRepository.findAll();//мы просто возвращаем всех девелоперов которых нам вернет БД
+        return getAllAfter(null);//отдаем всех девелоперов, но не одним запросом на всю таблицу, а постранично (см. getAllAfter)
+    }
+
+    @Override
+    public Flux<DeveloperEntity> getAllAfter(Integer after) {//вся таблица начиная с курсора after, читаем страницами по pageSize строк
+        int pageSize = developerProperties.getPageSize();
+        return developerRepository.findPageAfter(cursorOf(after), pageSize)
+                .collectList()
+                .expand(page -> page.size() < pageSize//неполная страница значит таблица закончилась
+                        ? Mono.empty()
+                        : developerRepository.findPageAfter(page.get(page.size() - 1).getId(), pageSize).collectList())//иначе следующая страница после последнего id
+                .flatMapIterable(page -> page, 1);//prefetch 1: следующую страницу запрашиваем только когда
+        //подписчик разобрал текущую, так что в памяти не больше одной-двух страниц сколько бы строк ни было в таблице
+    }
+
+    @Override
+    public Flux<DeveloperEntity> getPage(Integer after, int limit) {//одна страница: limit девелоперов с id больше after
+        return developerRepository.findPageAfter(cursorOf(after), limit);
+    }
+
+    private int cursorOf(Integer after) {//id у нас serial и начинается с 1, поэтому отсутствие курсора это 0
+        return Objects.isNull(after) ? 0 : after;
     }
 
     @Override
@@ -59,29 +294,54 @@ public class DeveloperServiceImpl implements DeveloperService {
     }
 
     @Override
-    public Mono<DeveloperEntity> getById(Integer id) {//просто ищем по ID
-        return developerRepository.findById(id)
-                .switchIfEmpty(Mono.error(new DeveloperNotFoundException("Developer not found", "DEVELOPER_NOT_FOUND")));
+    public Mono<Long> getSpecialtyVersion(String specialty) {//одна строка specialty_versions по ключу, сам список не читаем
+        return developerRepository.findSpecialtyVersion(specialty);
+    }
+
+    @Override
+    public Flux<DeveloperEntity> search(String query, int limit) {//префиксный поиск по частичным индексам V7
+        String prefix = query.strip().toLowerCase(Locale.ROOT);//индексы построены по lower(...)
+        return prefix.isEmpty() ? Flux.empty() : developerRepository.searchActiveByPrefix(prefix, limit);
+    }
+
+    @Override
+    public Mono<DeveloperEntity> getById(Integer id) {//ищем по ID, одновременные запросы склеиваются в один (если включено)
+        return developerByIdBatcher.findById(id)
+                .switchIfEmpty(Mono.error(() -> new DeveloperNotFoundException("Developer not found", "DEVELOPER_NOT_FOUND")));
+    }
+
+    @Override
+    public Flux<DeveloperLookupResult> lookup(List<Integer> ids) {//один запрос WHERE id = ANY(...) на весь список
+        return Flux.defer(() -> {
+            Set<Integer> missing = new LinkedHashSet<>(ids);//без дубликатов, в порядке запроса
+            missing.remove(null);
+            if (missing.isEmpty()) {
+                return Flux.empty();
+            }
+            return developerRepository.findAllByIds(missing.toArray(Integer[]::new))
+                    .doOnNext(developer -> missing.remove(developer.getId()))//сигналы приходят по очереди, синхронизация не нужна
+                    .map(DeveloperLookupResult::found)
+                    .concatWith(Flux.defer(() -> Flux.fromIterable(missing)).map(DeveloperLookupResult::notFound));
+        });
     }
 
     @Override
     public Mono<Void> softDeleteById(Integer id) {//совтовое удаление (изменение статуса из АКТИВ на ДЕЛЕТЕД)
-        return developerRepository.findById(id)//делаем проверку что такой девелопер есть в БД
-                .switchIfEmpty(Mono.error(new DeveloperNotFoundException("Developer not found", "DEVELOPER_NOT_FOUND")))//если его нет выкидываем ошибку
-                .flatMap(developer -> {//если нашли его
-                    developer.setStatus(Status.DELETED);//присваиваем статус ДЕЛЕТЕД
-                    return developerRepository.save(developer).then();//ложим отбратно в БД,так как у нас метод void и ничего не возвращает необходимо
-                    //завершить метод save методом then(Возвращает Mono<Void>, который воспроизводит только сигналы завершения и ошибки из этого Mono)
-                });
+        return developerRepository.softDeleteById(id)//один UPDATE только статуса, без предварительного findById и перезаписи всех колонок
+                .flatMap(this::requireDeveloperAffected)//0 измененных строк значит такого девелопера нет
+                .doOnSuccess(ignored -> developerChangeFeed.softDeleted(id));
     }
 
     @Override
     public Mono<Void> hardDeleteById(Integer id) {//окончательное удаление девелопера
-        return developerRepository.findById(id)//ищем по ID
-                .switchIfEmpty(Mono.error(new DeveloperNotFoundException("Developer not found", "DEVELOPER_NOT_FOUND")))//если не найден выбрасывается ошибка
-                .flatMap(developer -> {//если найден
-                            return developerRepository.deleteById(id).then();//удаляем
-                        }
-                );
+        return developerRepository.hardDeleteById(id)//один DELETE, о том был ли девелопер узнаем по количеству удаленных строк
+                .flatMap(this::requireDeveloperAffected)
+                .doOnSuccess(ignored -> developerChangeFeed.hardDeleted(id));
+    }
+
+    private Mono<Void> requireDeveloperAffected(Long affectedRows) {
+        return affectedRows > 0
+                ? Mono.empty()
+                : Mono.error(() -> new DeveloperNotFoundException("Developer not found", "DEVELOPER_NOT_FOUND"));
     }
 }
@@ -0,0 +1,310 @@
+package net.proselyte.qafordevsreactive.service;
+
+import net.proselyte.qafordevsreactive.config.DeveloperProperties;
+import net.proselyte.qafordevsreactive.entity.DeveloperEntity;
+import net.proselyte.qafordevsreactive.entity.Status;
+import net.proselyte.qafordevsreactive.event.DeveloperChangeFeed;
+import net.proselyte.qafordevsreactive.exception.DeveloperNotFoundException;
+import net.proselyte.qafordevsreactive.exception.DeveloperVersionConflictException;
+import net.proselyte.qafordevsreactive.exception.DeveloperWithEmailAlreadyExistsException;
+import net.proselyte.qafordevsreactive.repository.BlockingDeveloperRepository;
+import net.proselyte.qafordevsreactive.repository.DeveloperRepositoryCustom;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.util.function.Tuple2;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.stream.Collectors;
+
+@Service
+@Qualifier(CachingDeveloperService.DELEGATE)
+@ConditionalOnProperty(name = "app.developers.execution", havingValue = "virtual-threads")
+public class VirtualThreadDeveloperService implements DeveloperService {//та же логика что в DeveloperServiceImpl, но написанная
+    //обычным блокирующим кодом поверх JDBC. Каждый вызов выполняется в своем виртуальном потоке (Java 21): пока он ждет БД,
+    //поток-носитель свободен. Контроллер, ДТО, кэш и обработка ошибок (те же исключения -> AppErrorAttributes) общие с реактивным режимом
+
+    private final BlockingDeveloperRepository developerRepository;
+    private final DeveloperProperties developerProperties;
+    private final DeveloperChangeFeed developerChangeFeed;
+    private final Scheduler scheduler;
+
+    public VirtualThreadDeveloperService(BlockingDeveloperRepository developerRepository, DeveloperProperties developerProperties,
+                                         DeveloperChangeFeed developerChangeFeed,
+                                         @Qualifier("developerVirtualThreadScheduler") Scheduler scheduler) {
+        this.developerRepository = developerRepository;
+        this.developerProperties = developerProperties;
+        this.developerChangeFeed = developerChangeFeed;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public Mono<DeveloperEntity> createDeveloper(DeveloperEntity developer) {
+        return blocking(() -> {
+            developer.setStatus(Status.ACTIVE);
+            Integer id = developerRepository.insertIfEmailAbsent(developer)
+                    .orElseThrow(VirtualThreadDeveloperService::duplicateEmail);
+            developer.setId(id);
+            developer.setVersion(0L);
+            developerChangeFeed.created(developer);
+            return developer;
+        });
+    }
+
+    @Override
+    public Mono<DeveloperEntity> updateDeveloper(DeveloperEntity developer) {
+        return blocking(() -> {
+            DeveloperEntity existing = developerRepository.findById(developer.getId())
+                    .orElseThrow(VirtualThreadDeveloperService::notFound);
+            if (Objects.isNull(developer.getVersion())) {//клиент не прислал версию - перезаписываем текущую
+                developer.setVersion(existing.getVersion());
+            }
+            DeveloperEntity updated;
+            try {
+                updated = developerRepository.update(developer, true)
+                        .orElseThrow(VirtualThreadDeveloperService::versionConflict);//строка есть, но версия уже другая
+            } catch (DuplicateKeyException e) {
+                throw duplicateEmail();
+            }
+            developerChangeFeed.updated(updated);
+            return updated;
+        });
+    }
+
+    @Override
+    public Mono<DeveloperEntity> patchDeveloper(Integer id, DeveloperEntity changes) {
+        return blocking(() -> {
+            DeveloperEntity patched;
+            try {
+                patched = developerRepository.patch(id, changes)
+                        .orElseThrow(() -> Objects.nonNull(changes.getVersion()) && developerRepository.existsById(id)
+                                ? versionConflict()
+                                : notFound());
+            } catch (DuplicateKeyException e) {
+                throw duplicateEmail();
+            }
+            if (DeveloperRepositoryCustom.hasChanges(changes)) {//пустой patch ничего не изменил - события нет
+                developerChangeFeed.updated(patched);
+            }
+            return patched;
+        });
+    }
+
+    @Override
+    public Flux<DeveloperBatchResult> saveDevelopers(Flux<DeveloperEntity> developers) {//пачки как в DeveloperServiceImpl,
+        //каждая пачка пишется в своем виртуальном потоке построчно
+        DeveloperProperties.Batch batch = developerProperties.getBatch();
+        return developers.index()
+                .buffer(batch.getChunkSize())
+                .flatMapSequential(chunk -> blocking(() -> saveChunk(chunk)).flatMapIterable(results -> results),
+                        batch.getConcurrency());
+    }
+
+    private List<DeveloperBatchResult> saveChunk(List<Tuple2<Long, DeveloperEntity>> chunk) {
+        Map<String, Integer> ownerByEmail;
+        Map<Integer, DeveloperEntity> storedById;
+        try {
+            Set<String> emails = chunk.stream()
+                    .map(item -> item.getT2().getEmail())
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toSet());
+            ownerByEmail = emails.isEmpty()
+                    ? Map.of()
+                    : developerRepository.findAllByEmailIn(emails).stream()
+                    .collect(Collectors.toMap(DeveloperEntity::getEmail, DeveloperEntity::getId));
+            List<Integer> updateIds = chunk.stream()
+                    .map(item -> item.getT2().getId())
+                    .filter(Objects::nonNull)
+                    .distinct()
+                    .toList();
+            storedById = updateIds.isEmpty()
+                    ? Map.of()
+                    : developerRepository.findAllByIdIn(updateIds).stream()//текущие строки изменяемых одним запросом
+                    .collect(Collectors.toMap(DeveloperEntity::getId, developer -> developer));
+        } catch (RuntimeException e) {//эмайлы и строки прочитать не удалось - ничего не записано, сообщаем по каждому
+            return chunk.stream()
+                    .map(item -> DeveloperBatchResult.failed(item.getT1(), "DEVELOPER_BATCH_FAILED", e.getMessage()))
+                    .toList();
+        }
+        //строки пишутся по одной, каждая своим запросом (autocommit): ошибка на строке не отменяет уже записанные,
+        //поэтому они остаются CREATED/UPDATED (и уже в ленте изменений), а FAILED получают только эта строка и следующие
+        List<DeveloperBatchResult> results = new ArrayList<>(chunk.size());
+        Set<String> seen = new HashSet<>();
+        RuntimeException error = null;
+        for (Tuple2<Long, DeveloperEntity> item : chunk) {
+            if (Objects.nonNull(error)) {
+                results.add(DeveloperBatchResult.failed(item.getT1(), "DEVELOPER_BATCH_FAILED", error.getMessage()));
+                continue;
+            }
+            DeveloperBatchResult result;
+            try {
+                result = saveItem(item.getT1(), item.getT2(), ownerByEmail, storedById, seen);
+            } catch (DuplicateKeyException e) {//эмайл заняли между проверкой пачки и изменением - только эта строка
+                result = DeveloperBatchResult.failed(item.getT1(), "DEVELOPER_DUPLICATE_EMAIL", "Developer with defined email already exists");
+            } catch (RuntimeException e) {//БД недоступна и т.п. - следующие строки не пробуем
+                error = e;
+                result = DeveloperBatchResult.failed(item.getT1(), "DEVELOPER_BATCH_FAILED", e.getMessage());
+            }
+            if (result.outcome() == DeveloperBatchResult.Outcome.CREATED) {
+                developerChangeFeed.created(result.developer());
+            } else if (result.outcome() == DeveloperBatchResult.Outcome.UPDATED) {
+                developerChangeFeed.updated(result.developer());
+            }
+            results.add(result);
+        }
+        results.sort(Comparator.comparingLong(DeveloperBatchResult::index));
+        return results;
+    }
+
+    private DeveloperBatchResult saveItem(long index, DeveloperEntity developer, Map<String, Integer> ownerByEmail,
+                                          Map<Integer, DeveloperEntity> storedById, Set<String> seen) {
+        String email = developer.getEmail();
+        Integer owner = Objects.isNull(email) ? null : ownerByEmail.get(email);
+        boolean duplicateInChunk = Objects.nonNull(email) && !seen.add(email);
+        if (duplicateInChunk || (Objects.nonNull(owner) && !owner.equals(developer.getId()))) {
+            return DeveloperBatchResult.failed(index, "DEVELOPER_DUPLICATE_EMAIL", "Developer with defined email already exists");
+        }
+        if (developer.isNew()) {
+            developer.setStatus(Status.ACTIVE);
+            return developerRepository.insertIfEmailAbsent(developer)
+                    .map(id -> {
+                        developer.setId(id);
+                        developer.setVersion(0L);
+                        return DeveloperBatchResult.created(index, developer);
+                    })
+                    .orElseGet(() -> DeveloperBatchResult.failed(index, "DEVELOPER_DUPLICATE_EMAIL",
+                            "Developer with defined email already exists"));
+        }
+        DeveloperEntity current = storedById.get(developer.getId());
+        if (Objects.isNull(current)) {
+            return DeveloperBatchResult.failed(index, "DEVELOPER_NOT_FOUND", "Developer not found");
+        }
+        if (Objects.isNull(developer.getVersion())) {//как и в реактивном updateChunk: без версии изменяем прочитанную
+            developer.setVersion(current.getVersion());
+        }
+        if (Objects.isNull(developer.getStatus())) {//статус не прислали - остается текущий
+            developer.setStatus(current.getStatus());
+        }
+        return developerRepository.update(developer, true)
+                .map(updated -> DeveloperBatchResult.updated(index, updated))
+                .orElseGet(() -> DeveloperBatchResult.failed(index, "DEVELOPER_VERSION_CONFLICT", "Developer was modified concurrently"));
+    }
+
+    @Override
+    public Flux<DeveloperEntity> getAll() {
+        return getAllAfter(null);
+    }
+
+    @Override
+    public Flux<DeveloperEntity> getAllAfter(Integer after) {//постранично как в DeveloperServiceImpl: следующая страница читается
+        //только когда подписчик разобрал текущую
+        int pageSize = developerProperties.getPageSize();
+        return blocking(() -> developerRepository.findPageAfter(cursorOf(after), pageSize))
+                .expand(page -> page.size() < pageSize
+                        ? Mono.empty()
+                        : blocking(() -> developerRepository.findPageAfter(page.get(page.size() - 1).getId(), pageSize)))
+                .flatMapIterable(page -> page, 1);
+    }
+
+    @Override
+    public Flux<DeveloperEntity> getPage(Integer after, int limit) {
+        return blocking(() -> developerRepository.findPageAfter(cursorOf(after), limit))
+                .flatMapIterable(page -> page);
+    }
+
+    private int cursorOf(Integer after) {
+        return Objects.isNull(after) ? 0 : after;
+    }
+
+    @Override
+    public Flux<DeveloperEntity> findAllActiveBySpecialty(String specialty) {
+        return blocking(() -> developerRepository.findAllActiveBySpecialty(specialty))
+                .flatMapIterable(developers -> developers);
+    }
+
+    @Override
+    public Mono<Long> getSpecialtyVersion(String specialty) {
+        return blocking(() -> developerRepository.findSpecialtyVersion(specialty));
+    }
+
+    @Override
+    public Flux<DeveloperEntity> search(String query, int limit) {
+        String prefix = query.strip().toLowerCase(Locale.ROOT);
+        return prefix.isEmpty()
+                ? Flux.empty()
+                : blocking(() -> developerRepository.searchActiveByPrefix(prefix, limit)).flatMapIterable(developers -> developers);
+    }
+
+    @Override
+    public Mono<DeveloperEntity> getById(Integer id) {
+        return blocking(() -> developerRepository.findById(id)
+                .orElseThrow(VirtualThreadDeveloperService::notFound));
+    }
+
+    @Override
+    public Flux<DeveloperLookupResult> lookup(List<Integer> ids) {
+        return blocking(() -> {
+            Set<Integer> missing = new LinkedHashSet<>(ids);
+            missing.remove(null);
+            List<DeveloperLookupResult> results = new ArrayList<>(missing.size());
+            if (!missing.isEmpty()) {
+                for (DeveloperEntity developer : developerRepository.findAllByIdIn(missing)) {
+                    missing.remove(developer.getId());
+                    results.add(DeveloperLookupResult.found(developer));
+                }
+                missing.forEach(id -> results.add(DeveloperLookupResult.notFound(id)));
+            }
+            return results;
+        }).flatMapIterable(results -> results);
+    }
+
+    @Override
+    public Mono<Void> softDeleteById(Integer id) {
+        return blocking(() -> requireDeveloperAffected(developerRepository.softDeleteById(id)))
+                .doOnNext(ignored -> developerChangeFeed.softDeleted(id))
+                .then();
+    }
+
+    @Override
+    public Mono<Void> hardDeleteById(Integer id) {
+        return blocking(() -> requireDeveloperAffected(developerRepository.hardDeleteById(id)))
+                .doOnNext(ignored -> developerChangeFeed.hardDeleted(id))
+                .then();
+    }
+
+    private long requireDeveloperAffected(long affectedRows) {
+        if (affectedRows == 0) {
+            throw notFound();
+        }
+        return affectedRows;
+    }
+
+    private <T> Mono<T> blocking(Callable<T> call) {//блокирующий вызов в виртуальном потоке, результат обратно в реактивный контроллер
+        return Mono.fromCallable(call).subscribeOn(scheduler);
+    }
+
+    private static DeveloperNotFoundException notFound() {
+        return new DeveloperNotFoundException("Developer not found", "DEVELOPER_NOT_FOUND");
+    }
+
+    private static DeveloperWithEmailAlreadyExistsException duplicateEmail() {
+        return new DeveloperWithEmailAlreadyExistsException("Developer with defined email already exists", "DEVELOPER_DUPLICATE_EMAIL");
+    }
+
+    private static DeveloperVersionConflictException versionConflict() {
+        return new DeveloperVersionConflictException("Developer was modified concurrently", "DEVELOPER_VERSION_CONFLICT");
+    }
+}
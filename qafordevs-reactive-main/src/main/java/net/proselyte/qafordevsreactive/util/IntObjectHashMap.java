@@ -0,0 +1,199 @@
+package net.proselyte.qafordevsreactive.util;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+//хеш таблица int -> V с открытой адресацией: ключи лежат в int[] без упаковки в Integer и без Entry на каждую запись,
+//поэтому на запись уходит ~13 байт таблицы вместо ~50 у HashMap<Integer, V> (Node + Integer). Не потокобезопасна, синхронизация снаружи
+public class IntObjectHashMap<V> {
+
+    private static final int FREE = 0;//ключ 0 помечает пустую ячейку, сама пара с ключом 0 хранится отдельно
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private volatile Table table;//ключи и значения меняются одной ссылкой: читатель без блокировки
+    //никогда не увидит новый массив ключей вместе со старым массивом значений
+    private boolean hasZeroKey;
+    private Object zeroValue;
+    private int size;
+    private int threshold;
+
+    public IntObjectHashMap() {
+        this(16);
+    }
+
+    public IntObjectHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(2, (int) Math.ceil(expectedSize / LOAD_FACTOR)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(int key) {//безопасно вызывать и без блокировки (для StampedLock.tryOptimisticRead): цикл ограничен длиной таблицы,
+        //а возможное рассогласование с писателем вызывающий обнаружит через validate
+        if (key == FREE) {
+            return hasZeroKey ? (V) zeroValue : null;
+        }
+        Table current = table;
+        int[] keys = current.keys;
+        int mask = keys.length - 1;
+        int index = home(key, keys.length);
+        for (int probe = 0; probe < keys.length; probe++) {
+            int existing = keys[index];
+            if (existing == key) {
+                return (V) current.values[index];
+            }
+            if (existing == FREE) {
+                return null;
+            }
+            index = (index + 1) & mask;
+        }
+        return null;
+    }
+
+    public boolean containsKey(int key) {
+        return key == FREE ? hasZeroKey : get(key) != null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {//null значения не храним: get не отличил бы их от отсутствия ключа
+        if (value == null) {
+            throw new IllegalArgumentException("Null values are not supported");
+        }
+        if (key == FREE) {
+            V previous = hasZeroKey ? (V) zeroValue : null;
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                size++;
+            }
+            zeroValue = value;
+            return previous;
+        }
+        int[] keys = table.keys;
+        Object[] values = table.values;
+        int mask = keys.length - 1;
+        int index = home(key, keys.length);
+        while (keys[index] != FREE) {
+            if (keys[index] == key) {
+                V previous = (V) values[index];
+                values[index] = value;
+                return previous;
+            }
+            index = (index + 1) & mask;
+        }
+        values[index] = value;
+        keys[index] = key;
+        if (++size >= threshold) {
+            rehash(keys.length << 1);
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        if (key == FREE) {
+            if (!hasZeroKey) {
+                return null;
+            }
+            V previous = (V) zeroValue;
+            hasZeroKey = false;
+            zeroValue = null;
+            size--;
+            return previous;
+        }
+        int[] keys = table.keys;
+        Object[] values = table.values;
+        int mask = keys.length - 1;
+        int index = home(key, keys.length);
+        while (keys[index] != key) {
+            if (keys[index] == FREE) {
+                return null;
+            }
+            index = (index + 1) & mask;
+        }
+        V previous = (V) values[index];
+        shiftBack(keys, values, index, mask);
+        size--;
+        return previous;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEachValue(Consumer<? super V> action) {
+        if (hasZeroKey) {
+            action.accept((V) zeroValue);
+        }
+        Table current = table;
+        for (int i = 0; i < current.keys.length; i++) {
+            if (current.keys[i] != FREE) {
+                action.accept((V) current.values[i]);
+            }
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(table.keys, FREE);
+        Arrays.fill(table.values, null);
+        hasZeroKey = false;
+        zeroValue = null;
+        size = 0;
+    }
+
+    private static void shiftBack(int[] keys, Object[] values, int gap, int mask) {//удаление без "надгробий": сдвигаем назад
+        //следующие элементы цепочки, которые могут занять освободившуюся ячейку, чтобы поиск не обрывался на дыре
+        int index = gap;
+        while (true) {
+            index = (index + 1) & mask;
+            int key = keys[index];
+            if (key == FREE) {
+                break;
+            }
+            int home = home(key, keys.length);
+            if (((index - home) & mask) >= ((index - gap) & mask)) {//элемент лежит не ближе к своему месту, чем дыра
+                keys[gap] = key;
+                values[gap] = values[index];
+                gap = index;
+            }
+        }
+        keys[gap] = FREE;
+        values[gap] = null;
+    }
+
+    private void rehash(int capacity) {
+        Table old = table;
+        int[] keys = new int[capacity];
+        Object[] values = new Object[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < old.keys.length; i++) {
+            int key = old.keys[i];
+            if (key != FREE) {
+                int index = home(key, keys.length);
+                while (keys[index] != FREE) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = key;
+                values[index] = old.values[i];
+            }
+        }
+        table = new Table(keys, values);
+        threshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private void allocate(int capacity) {
+        table = new Table(new int[capacity], new Object[capacity]);
+        threshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int home(int key, int capacity) {//фибоначчиево хеширование: берем старшие биты произведения на золотое сечение.
+        //id идут подряд и в одну таблицу (полосу репозитория) попадают с общими младшими битами - старшие биты их все равно разносят
+        return (key * 0x9E3779B9) >>> (Integer.numberOfLeadingZeros(capacity) + 1);
+    }
+
+    private record Table(int[] keys, Object[] values) {
+    }
+}
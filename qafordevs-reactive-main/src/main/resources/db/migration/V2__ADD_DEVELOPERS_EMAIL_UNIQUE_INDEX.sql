@@ -0,0 +1,4 @@
+-- уникальность email теперь гарантирует БД, а не проверка в сервисе (проверка и вставка шли двумя запросами и гонялись между собой)
+-- если в таблице уже есть дубликаты email, миграция упадет: их нужно разобрать руками до раскатки
+create unique index developers_email_uindex
+    on developers (email);
@@ -0,0 +1,5 @@
+-- частичный индекс под findAllActiveBySpecialty: в него попадают только активные девелоперы,
+-- поэтому он меньше полного индекса по specialty, а условие запроса status = 'ACTIVE' совпадает с условием индекса
+create index developers_active_specialty_index
+    on developers (specialty)
+    where status = 'ACTIVE';
@@ -0,0 +1,3 @@
+-- версия строки для оптимистической блокировки: каждое изменение строки увеличивает version на 1
+alter table developers
+    add column version bigint not null default 0;
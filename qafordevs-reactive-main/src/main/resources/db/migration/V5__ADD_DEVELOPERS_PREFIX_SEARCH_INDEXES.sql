@@ -0,0 +1,14 @@
+-- индексы под поиск по началу эмайла, имени и фамилии (searchActiveByPrefix): lower(...) LIKE 'prefix%'.
+-- text_pattern_ops сравнивает строки побайтово, поэтому LIKE по префиксу превращается в диапазон по индексу
+-- независимо от collation базы. Частичные, как и developers_active_specialty_index (V3): ищем только активных
+create index developers_active_email_prefix_index
+    on developers (lower(email) text_pattern_ops)
+    where status = 'ACTIVE';
+
+create index developers_active_first_name_prefix_index
+    on developers (lower(first_name) text_pattern_ops)
+    where status = 'ACTIVE';
+
+create index developers_active_last_name_prefix_index
+    on developers (lower(last_name) text_pattern_ops)
+    where status = 'ACTIVE';
@@ -0,0 +1,50 @@
+-- версия списка девелоперов каждой специальности для ETag на GET /api/v1/developers/specialty/{specialty}:
+-- проверить свежесть закэшированного у клиента списка - прочитать одну строку, а не весь список.
+-- Версию поднимает триггер в той же транзакции, что и изменение девелоперов, поэтому мимо сервиса (руками, миграцией) тоже.
+-- Специальности без строки в таблице еще не менялись, их версия 0
+create table specialty_versions
+(
+    specialty varchar(255) primary key,
+    version   bigint not null default 0
+);
+
+-- триггер на выражение, а не на строку: пачка девелоперов одной специальности поднимает ее версию один раз.
+-- order by specialty - одновременные пачки блокируют строки версий в одном порядке и не упираются друг в друга
+create function bump_specialty_versions() returns trigger as
+$$
+begin
+    if tg_op = 'INSERT' then
+        insert into specialty_versions (specialty, version)
+        select distinct specialty, 1 from new_rows where specialty is not null order by specialty
+        on conflict (specialty) do update set version = specialty_versions.version + 1;
+    elsif tg_op = 'UPDATE' then
+        insert into specialty_versions (specialty, version)
+        select specialty, 1
+        from (select specialty from new_rows union select specialty from old_rows) changed
+        where specialty is not null
+        order by specialty
+        on conflict (specialty) do update set version = specialty_versions.version + 1;
+    else
+        insert into specialty_versions (specialty, version)
+        select distinct specialty, 1 from old_rows where specialty is not null order by specialty
+        on conflict (specialty) do update set version = specialty_versions.version + 1;
+    end if;
+    return null;
+end;
+$$ language plpgsql;
+
+-- таблицы переходов (new_rows/old_rows) можно объявить только у триггера на одно событие, поэтому триггеров три
+create trigger developers_specialty_versions_insert
+    after insert on developers
+    referencing new table as new_rows
+    for each statement execute function bump_specialty_versions();
+
+create trigger developers_specialty_versions_update
+    after update on developers
+    referencing new table as new_rows old table as old_rows
+    for each statement execute function bump_specialty_versions();
+
+create trigger developers_specialty_versions_delete
+    after delete on developers
+    referencing old table as old_rows
+    for each statement execute function bump_specialty_versions();
@@ -0,0 +1,19 @@
+-- индексы V5 (text_pattern_ops) годятся для lower(...) LIKE 'prefix%', но не для ORDER BY lower(...): порядок text_pattern_ops
+-- побайтовый, а ORDER BY идет в collation базы, и Postgres сначала читал все совпадения с префиксом и сортировал их.
+-- С COLLATE "C" у выражения обычный btree одновременно дает диапазон для LIKE по префиксу и нужный порядок,
+-- id в конце ключа - порядок при одинаковых значениях, ветка SEARCH_SQL читает из индекса ровно limit строк без сортировки
+drop index developers_active_email_prefix_index;
+drop index developers_active_first_name_prefix_index;
+drop index developers_active_last_name_prefix_index;
+
+create index developers_active_email_prefix_index
+    on developers (lower(email) collate "C", id)
+    where status = 'ACTIVE';
+
+create index developers_active_first_name_prefix_index
+    on developers (lower(first_name) collate "C", id)
+    where status = 'ACTIVE';
+
+create index developers_active_last_name_prefix_index
+    on developers (lower(last_name) collate "C", id)
+    where status = 'ACTIVE';
@@ -0,0 +1,149 @@
+package net.proselyte.qafordevsreactive.cache;
+
+import net.proselyte.qafordevsreactive.config.DeveloperProperties;
+import net.proselyte.qafordevsreactive.entity.DeveloperEntity;
+import net.proselyte.qafordevsreactive.event.DeveloperChangeFeed;
+import net.proselyte.qafordevsreactive.repository.InMemoryDeveloperRepository;
+import net.proselyte.qafordevsreactive.service.DeveloperByIdBatcher;
+import net.proselyte.qafordevsreactive.service.DeveloperServiceImpl;
+import net.proselyte.qafordevsreactive.util.DataUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+
+public class SpecialtyIndexTests {
+
+    //индекс поверх репозитория в памяти: загружается из репозитория, а дальше живет только на событиях из DeveloperServiceImpl
+
+    private InMemoryDeveloperRepository developerRepository;
+
+    private DeveloperChangeFeed developerChangeFeed;
+
+    private DeveloperServiceImpl developerService;
+
+    private SpecialtyIndex specialtyIndex;
+
+    @BeforeEach
+    public void setUp() {
+        developerRepository = Mockito.spy(new InMemoryDeveloperRepository());
+        DeveloperProperties developerProperties = new DeveloperProperties();
+        developerProperties.getSpecialtyIndex().setEnabled(true);
+        developerChangeFeed = new DeveloperChangeFeed(developerProperties);
+        developerService = new DeveloperServiceImpl(developerRepository, developerProperties, developerChangeFeed,
+                new DeveloperByIdBatcher(developerRepository, developerProperties));
+        developerRepository.save(DataUtils.getJohnDoeTransient()).block();
+        developerRepository.save(DataUtils.getFrankJonesTransient()).block();//DELETED - в индекс не попадает
+        specialtyIndex = new SpecialtyIndex(developerRepository, developerChangeFeed, developerProperties);
+        specialtyIndex.afterSingletonsInstantiated();//первая загрузка идет сразу, репозиторий в памяти отвечает синхронно
+    }
+
+    @AfterEach
+    public void tearDown() {
+        specialtyIndex.destroy();
+    }
+
+    @Test
+    @DisplayName("Test index is loaded with active developers only functionality")
+    public void givenLoadedIndex_whenFindAllActiveBySpecialty_thenOnlyActiveDevelopersAreReturned() {
+        //then
+        StepVerifier.create(specialtyIndex.findAllActiveBySpecialty("Java").map(DeveloperEntity::getEmail))
+                .expectNext("john.doe@mail.com")
+                .verifyComplete();
+        Mockito.verify(developerRepository, Mockito.never()).findAllActiveBySpecialty(anyString());
+    }
+
+    @Test
+    @DisplayName("Test index follows service mutations functionality")
+    public void givenServiceMutations_whenFindAllActiveBySpecialty_thenIndexIsUpToDate() {
+        //given
+        DeveloperEntity mike = developerService.createDeveloper(DataUtils.getMikeSmithTransient()).block();
+        DeveloperEntity john = developerService.getById(1).block();
+        john.setSpecialty("Go");
+        developerService.updateDeveloper(john).block();
+        //then
+        StepVerifier.create(specialtyIndex.findAllActiveBySpecialty("Java").map(DeveloperEntity::getId))
+                .expectNext(mike.getId())
+                .verifyComplete();
+        StepVerifier.create(specialtyIndex.findAllActiveBySpecialty("Go").map(DeveloperEntity::getId))
+                .expectNext(john.getId())
+                .verifyComplete();
+        //when
+        developerService.softDeleteById(mike.getId()).block();
+        //then
+        StepVerifier.create(specialtyIndex.findAllActiveBySpecialty("Java"))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Test reload does not bring back a row deleted on another instance functionality")
+    public void givenCreatedEventDuringReload_whenRowIsDeletedElsewhere_thenReloadedIndexDoesNotContainIt() {
+        //given
+        DeveloperEntity mike = developerService.createDeveloper(DataUtils.getMikeSmithTransient()).block();
+        Mockito.doAnswer(invocation -> {
+            developerChangeFeed.created(mike);//событие этого инстанса пришло уже во время загрузки
+            developerRepository.hardDeleteById(mike.getId()).block();//а другой инстанс тем временем удалил девелопера
+            return invocation.callRealMethod();
+        }).when(developerRepository).findAllActive();
+        //when
+        specialtyIndex.load().block();
+        //then
+        StepVerifier.create(specialtyIndex.findAllActiveBySpecialty("Java").map(DeveloperEntity::getEmail))
+                .expectNext("john.doe@mail.com")
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Test version miss brings specialty up to the database version functionality")
+    public void givenChangeFromAnotherInstance_whenVersionMiss_thenIndexReflectsDatabaseVersion() {
+        //given
+        DeveloperEntity mike = developerRepository.save(DataUtils.getMikeSmithTransient()).block();//мимо сервиса - события нет
+        long version = developerRepository.findSpecialtyVersion("Java").block();
+        //when
+        Long indexed = specialtyIndex.version("Java").block();//после загрузки версия неизвестна - перечитываем специальность
+        //then
+        assertThat(indexed).isEqualTo(version);
+        StepVerifier.create(specialtyIndex.findAllActiveBySpecialty("Java").map(DeveloperEntity::getId))
+                .expectNext(1, mike.getId())
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Test specialty version follows service mutations without database functionality")
+    public void givenKnownVersion_whenServiceMutations_thenVersionMatchesDatabaseWithoutQuery() {
+        //given
+        long loaded = specialtyIndex.version("Java").block();//после загрузки версия неизвестна - один запрос в БД
+        //when
+        DeveloperEntity mike = developerService.createDeveloper(DataUtils.getMikeSmithTransient()).block();
+        mike.setFirstName("Michael");
+        developerService.updateDeveloper(mike).block();
+        developerService.softDeleteById(1).block();
+        //then
+        long version = specialtyIndex.version("Java").block();
+        assertThat(version).isEqualTo(loaded + 3);
+        assertThat(version).isEqualTo(developerRepository.findSpecialtyVersion("Java").block());
+        Mockito.verify(developerRepository, Mockito.times(2)).findSpecialtyVersion("Java");//первый промах и проверка выше
+    }
+
+    @Test
+    @DisplayName("Test specialty version is not bound while a write is in flight functionality")
+    public void givenWriteInFlight_whenVersionMiss_thenVersionStaysUnknown() {
+        //given
+        Sinks.Empty<Void> write = Sinks.empty();
+        specialtyIndex.trackWrite(write.asMono()).subscribe();//запись ушла в БД, но еще не закончилась
+        long version = specialtyIndex.version("Java").block();
+        //when
+        write.tryEmitEmpty();
+        specialtyIndex.version("Java").block();//прочитанная во время записи версия не запомнена - снова в БД
+        specialtyIndex.version("Java").block();//а теперь запомнена
+        //then
+        assertThat(specialtyIndex.version("Java").block()).isEqualTo(version);
+        Mockito.verify(developerRepository, Mockito.times(2)).findSpecialtyVersion("Java");
+    }
+}
@@ -0,0 +1,85 @@
+package net.proselyte.qafordevsreactive.codec;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.proselyte.qafordevsreactive.entity.DeveloperEntity;
+import net.proselyte.qafordevsreactive.util.DataUtils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CborSequenceEncoderTests {
+
+    private final ObjectMapper cborMapper = Jackson2ObjectMapperBuilder.cbor().build();
+
+    private final CborSequenceEncoder encoder = new CborSequenceEncoder(cborMapper);
+
+    @Test
+    @DisplayName("Test encode developers as cbor array functionality")
+    public void givenDevelopers_whenEncodeAsCbor_thenSingleArrayIsReturned() throws Exception {
+        //given
+        List<DeveloperEntity> developers = List.of(DataUtils.getJohnDoePersisted(), DataUtils.getMikeSmithPersisted());
+        //when
+        List<byte[]> obtained = encode(Flux.fromIterable(developers), MediaType.APPLICATION_CBOR);
+        //then
+        assertThat(obtained).hasSize(1);
+        assertThat(cborMapper.readValue(obtained.get(0), new TypeReference<List<DeveloperEntity>>() {
+        })).isEqualTo(developers);
+    }
+
+    @Test
+    @DisplayName("Test encode developers as cbor sequence functionality")
+    public void givenDevelopers_whenEncodeAsCborSeq_thenBufferPerDeveloperIsReturned() throws Exception {
+        //given
+        List<DeveloperEntity> developers = List.of(DataUtils.getJohnDoePersisted(), DataUtils.getMikeSmithPersisted());
+        //when
+        List<byte[]> obtained = encode(Flux.fromIterable(developers), BinaryMediaTypes.APPLICATION_CBOR_SEQ);
+        //then
+        assertThat(obtained).hasSize(2);//каждый девелопер можно сбросить клиенту сразу
+        ByteArrayOutputStream sequence = new ByteArrayOutputStream();
+        for (byte[] value : obtained) {
+            sequence.write(value);
+        }
+        assertThat(cborMapper.readerFor(DeveloperEntity.class).<DeveloperEntity>readValues(sequence.toByteArray()).readAll())
+                .isEqualTo(developers);
+    }
+
+    @Test
+    @DisplayName("Test encode single developer as cbor functionality")
+    public void givenDeveloper_whenEncodeMono_thenSingleObjectIsReturned() throws Exception {
+        //given
+        DeveloperEntity developer = DataUtils.getJohnDoePersisted();
+        //when
+        List<byte[]> obtained = encode(Mono.just(developer), MediaType.APPLICATION_CBOR);
+        //then
+        assertThat(obtained).hasSize(1);
+        assertThat(cborMapper.readValue(obtained.get(0), DeveloperEntity.class)).isEqualTo(developer);
+    }
+
+    private List<byte[]> encode(Publisher<DeveloperEntity> developers, MimeType mimeType) {
+        return encoder.encode(developers, DefaultDataBufferFactory.sharedInstance, ResolvableType.forClass(DeveloperEntity.class),
+                        mimeType, Collections.emptyMap())
+                .map(buffer -> {
+                    byte[] value = new byte[buffer.readableByteCount()];
+                    buffer.read(value);
+                    DataBufferUtils.release(buffer);
+                    return value;
+                })
+                .collectList()
+                .block();
+    }
+}
@@ -0,0 +1,103 @@
+package net.proselyte.qafordevsreactive.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.proselyte.qafordevsreactive.dto.DeveloperDto;
+import net.proselyte.qafordevsreactive.entity.DeveloperEntity;
+import net.proselyte.qafordevsreactive.entity.Status;
+import net.proselyte.qafordevsreactive.util.DataUtils;
+import org.junit.jupiter.api.DisplayName;
+import org.reactivestreams.Publisher;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DeveloperEntityJsonEncoderTests {
+
+    //энкодер должен давать ровно те же байты что и Jackson для DeveloperDto, иначе клиенты заметят разницу
+
+    private final DeveloperEntityJsonEncoder encoder = new DeveloperEntityJsonEncoder();
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @Test
+    @DisplayName("Test encode developers as json array functionality")
+    public void givenDevelopers_whenEncodeAsJson_thenOutputMatchesJackson() throws Exception {
+        //given
+        List<DeveloperEntity> developers = List.of(DataUtils.getJohnDoePersisted(), DataUtils.getMikeSmithPersisted(), getTrickyDeveloper());
+        //when
+        String obtained = encode(Flux.fromIterable(developers), MediaType.APPLICATION_JSON);
+        //then
+        assertThat(obtained).isEqualTo(objectMapper.writeValueAsString(developers.stream().map(DeveloperDto::fromEntity).toList()));
+    }
+
+    @Test
+    @DisplayName("Test encode empty developers as json array functionality")
+    public void givenNoDevelopers_whenEncodeAsJson_thenEmptyArrayIsReturned() {
+        //given
+        //when
+        String obtained = encode(Flux.empty(), MediaType.APPLICATION_JSON);
+        //then
+        assertThat(obtained).isEqualTo("[]");
+    }
+
+    @Test
+    @DisplayName("Test encode developers as ndjson functionality")
+    public void givenDevelopers_whenEncodeAsNdjson_thenEachDeveloperIsOnItsOwnLine() throws Exception {
+        //given
+        List<DeveloperEntity> developers = List.of(DataUtils.getJohnDoePersisted(), getTrickyDeveloper());
+        //when
+        String obtained = encode(Flux.fromIterable(developers), MediaType.APPLICATION_NDJSON);
+        //then
+        StringBuilder expected = new StringBuilder();
+        for (DeveloperEntity developer : developers) {
+            expected.append(objectMapper.writeValueAsString(DeveloperDto.fromEntity(developer))).append('\n');
+        }
+        assertThat(obtained).isEqualTo(expected.toString());
+    }
+
+    @Test
+    @DisplayName("Test encode single developer functionality")
+    public void givenDeveloper_whenEncodeMono_thenSingleObjectIsReturned() throws Exception {
+        //given
+        DeveloperEntity developer = getTrickyDeveloper();
+        //when
+        String obtained = encode(Mono.just(developer), MediaType.APPLICATION_JSON);
+        //then
+        assertThat(obtained).isEqualTo(objectMapper.writeValueAsString(DeveloperDto.fromEntity(developer)));
+    }
+
+    private String encode(Publisher<DeveloperEntity> developers, MimeType mimeType) {
+        return encoder.encode(developers, DefaultDataBufferFactory.sharedInstance, ResolvableType.forClass(DeveloperEntity.class),
+                        mimeType, Collections.emptyMap())
+                .map(buffer -> {
+                    String value = buffer.toString(StandardCharsets.UTF_8);
+                    DataBufferUtils.release(buffer);
+                    return value;
+                })
+                .collect(Collectors.joining())
+                .block();
+    }
+
+    private DeveloperEntity getTrickyDeveloper() {//кавычки, слэши, управляющие символы, кириллица и незаполненные поля
+        return DeveloperEntity.builder()
+                .id(3)
+                .firstName("Иван \"Ваня\"")
+                .lastName("Back\\slash\tTab\u0001")
+                .email("ivan@mail.com")
+                .status(Status.ACTIVE)
+                .build();
+    }
+}
@@ -0,0 +1,51 @@
+package net.proselyte.qafordevsreactive.config;
+
+import io.r2dbc.spi.ConnectionFactory;
+import net.proselyte.qafordevsreactive.repository.DeveloperRepository;
+import net.proselyte.qafordevsreactive.repository.InMemoryDeveloperRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@AutoConfigureWebTestClient
+@ActiveProfiles("embedded")//поднимаем приложение целиком, но без PostgreSQL: ни R2DBC, ни JDBC, ни Flyway
+@SpringBootTest
+public class EmbeddedStorageConfigTests {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    @DisplayName("Test embedded profile context loads functionality")
+    public void givenEmbeddedProfile_whenContextLoads_thenInMemoryRepositoryAndNoDatabaseBeans() {
+        //then
+        assertThat(context.getBean(DeveloperRepository.class)).isInstanceOf(InMemoryDeveloperRepository.class);
+        assertThat(context.getBeanNamesForType(ConnectionFactory.class)).isEmpty();
+        assertThat(context.getBeanNamesForType(DataSource.class)).isEmpty();
+        assertThat(context.getBeanNamesForType(JdbcTemplate.class)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Test embedded profile serves developers functionality")
+    public void givenEmbeddedProfile_whenGetAllDevelopers_thenSuccessResponse() {
+        //when
+        WebTestClient.ResponseSpec result = webTestClient.get()
+                .uri("/api/v1/developers")
+                .exchange();
+        //then
+        result.expectStatus().isOk();
+    }
+}
@@ -0,0 +1,61 @@
+package net.proselyte.qafordevsreactive.dto;
+
+import net.proselyte.qafordevsreactive.entity.DeveloperEntity;
+import net.proselyte.qafordevsreactive.entity.Status;
+import net.proselyte.qafordevsreactive.util.DataUtils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DeveloperProjectionTests {
+
+    @Test
+    @DisplayName("Test project developers keeps database order functionality")
+    public void givenDevelopersWithAsyncSource_whenToDtos_thenOrderIsPreserved() {
+        //given
+        List<DeveloperEntity> developers = IntStream.rangeClosed(1, 10_000)
+                .mapToObj(i -> DeveloperEntity.builder()
+                        .id(i)
+                        .email("developer" + i + "@mail.com")
+                        .status(Status.ACTIVE)
+                        .build())
+                .toList();
+        Flux<DeveloperEntity> source = Flux.fromIterable(developers)
+                .publishOn(Schedulers.parallel());//строки приходят из другого потока, как из драйвера БД
+        //when
+        List<DeveloperDto> obtained = DeveloperProjection.toDtos(source).collectList().block();
+        //then
+        assertThat(obtained).extracting(DeveloperDto::getId)
+                .containsExactlyElementsOf(IntStream.rangeClosed(1, 10_000).boxed().toList());
+    }
+
+    @Test
+    @DisplayName("Test project single developer functionality")
+    public void givenDeveloper_whenToDto_thenDtoIsReturned() {
+        //given
+        DeveloperEntity developer = DataUtils.getJohnDoePersisted();
+        //when
+        //then
+        StepVerifier.create(DeveloperProjection.toDto(Mono.just(developer)))
+                .expectNext(DeveloperDto.fromEntity(developer))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Test project empty developer functionality")
+    public void givenNoDeveloper_whenToDto_thenEmptyIsReturned() {
+        //given
+        //when
+        //then
+        StepVerifier.create(DeveloperProjection.toDto(Mono.empty()))
+                .verifyComplete();
+    }
+}
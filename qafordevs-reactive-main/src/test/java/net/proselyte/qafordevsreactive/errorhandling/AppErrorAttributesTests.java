@@ -0,0 +1,69 @@
+package net.proselyte.qafordevsreactive.errorhandling;
+
+import net.proselyte.qafordevsreactive.exception.ApiException;
+import net.proselyte.qafordevsreactive.exception.DeveloperNotFoundException;
+import net.proselyte.qafordevsreactive.exception.DeveloperVersionConflictException;
+import net.proselyte.qafordevsreactive.exception.DeveloperWithEmailAlreadyExistsException;
+import net.proselyte.qafordevsreactive.exception.RateLimitExceededException;
+import net.proselyte.qafordevsreactive.exception.ServiceOverloadedException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AppErrorAttributesTests {
+
+    private AppErrorAttributes appErrorAttributes;
+
+    @BeforeEach
+    public void setUp() {
+        appErrorAttributes = new AppErrorAttributes();
+    }
+
+    @Test
+    @DisplayName("Test api exception is stackless functionality")
+    public void givenApiException_whenCreated_thenStackTraceIsEmpty() {
+        //given
+        //when
+        ApiException exception = new DeveloperNotFoundException("Developer not found", "DEVELOPER_NOT_FOUND");
+        //then
+        assertThat(exception.getStackTrace()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Test error status mapping functionality")
+    public void givenApiExceptions_whenErrorBody_thenStatusIsTakenFromTable() {
+        //given
+        //when
+        //then
+        assertThat(appErrorAttributes.errorBody(new DeveloperWithEmailAlreadyExistsException("Duplicate", "DEVELOPER_DUPLICATE_EMAIL")).status())
+                .isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(appErrorAttributes.errorBody(new DeveloperNotFoundException("Developer not found", "DEVELOPER_NOT_FOUND")).status())
+                .isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(appErrorAttributes.errorBody(new DeveloperVersionConflictException("Conflict", "DEVELOPER_VERSION_CONFLICT")).status())
+                .isEqualTo(HttpStatus.CONFLICT);
+        assertThat(appErrorAttributes.errorBody(new RateLimitExceededException("Too many requests", "RATE_LIMIT_EXCEEDED")).status())
+                .isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(appErrorAttributes.errorBody(new ServiceOverloadedException("Overloaded", "SERVICE_OVERLOADED")).status())
+                .isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(appErrorAttributes.errorBody(new ApiException("Unknown", "UNKNOWN")).status())
+                .isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    @DisplayName("Test error body is serialized once functionality")
+    public void givenSameError_whenErrorBodyTwice_thenCachedBytesAreReturned() {
+        //given
+        AppErrorAttributes.ErrorBody first = appErrorAttributes.errorBody(new DeveloperNotFoundException("Developer not found", "DEVELOPER_NOT_FOUND"));
+        //when
+        AppErrorAttributes.ErrorBody second = appErrorAttributes.errorBody(new DeveloperNotFoundException("Developer not found", "DEVELOPER_NOT_FOUND"));
+        //then
+        assertThat(second.json()).isSameAs(first.json());
+        assertThat(new String(first.json(), StandardCharsets.UTF_8))
+                .isEqualTo("{\"errors\":[{\"code\":\"DEVELOPER_NOT_FOUND\",\"message\":\"Developer not found\"}]}");
+    }
+}
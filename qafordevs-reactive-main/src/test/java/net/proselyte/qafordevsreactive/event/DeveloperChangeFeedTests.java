@@ -0,0 +1,115 @@
+package net.proselyte.qafordevsreactive.event;
+
+import net.proselyte.qafordevsreactive.config.DeveloperProperties;
+import net.proselyte.qafordevsreactive.entity.DeveloperEntity;
+import net.proselyte.qafordevsreactive.util.DataUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DeveloperChangeFeedTests {
+
+    private DeveloperChangeFeed developerChangeFeed;
+
+    @BeforeEach
+    public void setUp() {
+        DeveloperProperties developerProperties = new DeveloperProperties();
+        developerProperties.getChanges().setHistorySize(3);//маленькая история, чтобы легко из нее выпасть
+        developerChangeFeed = new DeveloperChangeFeed(developerProperties);
+    }
+
+    @Test
+    @DisplayName("Test subscribe without since receives only new changes functionality")
+    public void givenPublishedChanges_whenSubscribeWithoutSince_thenOnlyNewChangesAreReceived() {
+        //given
+        DeveloperEntity john = DataUtils.getJohnDoePersisted();
+        developerChangeFeed.created(john);
+        //when
+        StepVerifier.create(developerChangeFeed.changes(null).take(1))
+                .then(() -> developerChangeFeed.softDeleted(john.getId()))
+                //then
+                .expectNextMatches(event -> event.sequence() == 2 && event.type() == DeveloperChangeEvent.Type.SOFT_DELETED)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Test resume from sequence functionality")
+    public void givenSince_whenSubscribe_thenMissedChangesAreReplayed() {
+        //given
+        DeveloperEntity john = DataUtils.getJohnDoePersisted();
+        developerChangeFeed.created(john);
+        developerChangeFeed.updated(john);
+        developerChangeFeed.hardDeleted(john.getId());
+        //when
+        StepVerifier.create(developerChangeFeed.changes(1L).take(2))
+                //then
+                .expectNextMatches(event -> event.sequence() == 2 && event.type() == DeveloperChangeEvent.Type.UPDATED)
+                .expectNextMatches(event -> event.sequence() == 3 && event.type() == DeveloperChangeEvent.Type.HARD_DELETED)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Test resume from evicted sequence sends resync functionality")
+    public void givenSinceOutOfHistory_whenSubscribe_thenResyncIsSentFirst() {
+        //given
+        DeveloperEntity john = DataUtils.getJohnDoePersisted();
+        for (int i = 0; i < 5; i++) {//в истории остаются только 3, 4 и 5
+            developerChangeFeed.updated(john);
+        }
+        //when
+        StepVerifier.create(developerChangeFeed.changes(1L).take(2))
+                //then
+                .expectNextMatches(event -> event.type() == DeveloperChangeEvent.Type.RESYNC && event.sequence() == 2)
+                .expectNextMatches(event -> event.sequence() == 3)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Test resume after restart sends resync functionality")
+    public void givenSinceAheadOfFeed_whenSubscribe_thenResyncIsSent() {
+        //when
+        StepVerifier.create(developerChangeFeed.changes(100L).take(1))
+                //then
+                .expectNextMatches(event -> event.type() == DeveloperChangeEvent.Type.RESYNC)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Test subscribers get changes off the publishing thread functionality")
+    public void givenSubscriber_whenPublish_thenEventIsDeliveredOnAnotherThread() {
+        //given
+        DeveloperEntity john = DataUtils.getJohnDoePersisted();
+        Thread publisher = Thread.currentThread();
+        //when
+        StepVerifier.create(developerChangeFeed.changes(null)
+                        .map(event -> Thread.currentThread())
+                        .take(1))
+                .then(() -> developerChangeFeed.created(john))
+                //then
+                .expectNextMatches(thread -> thread != publisher)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Test live stream gets only new changes on the publishing thread functionality")
+    public void givenPublishedChanges_whenSubscribeLive_thenOnlyNewChangesAreReceivedSynchronously() {
+        //given
+        DeveloperEntity john = DataUtils.getJohnDoePersisted();
+        developerChangeFeed.created(john);
+        List<DeveloperChangeEvent> received = new ArrayList<>();
+        Disposable subscription = developerChangeFeed.live().subscribe(received::add);
+        //when
+        developerChangeFeed.hardDeleted(john.getId());
+        //then
+        assertThat(received).extracting(DeveloperChangeEvent::sequence).containsExactly(2L);
+        assertThat(developerChangeFeed.failedCount()).isZero();
+        subscription.dispose();
+    }
+}
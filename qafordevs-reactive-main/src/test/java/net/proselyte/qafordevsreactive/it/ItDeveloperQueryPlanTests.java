@@ -0,0 +1,102 @@
+package net.proselyte.qafordevsreactive.it;
+
+import net.proselyte.qafordevsreactive.config.PostgreTestcontainerConfig;
+import net.proselyte.qafordevsreactive.repository.DeveloperRepositoryCustomImpl;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)//веб тут не нужен, проверяем только планы запросов в БД
+@Import(PostgreTestcontainerConfig.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)//один экземпляр на класс: большую таблицу наполняем один раз в @BeforeAll
+public class ItDeveloperQueryPlanTests {
+
+    //на пустой или маленькой таблице планировщику выгоднее Seq Scan, поэтому сначала наполняем таблицу
+    //и собираем статистику (ANALYZE), а потом через EXPLAIN проверяем что запросы репозитория идут по индексам.
+    //Если кто-то поменяет запрос или миграцию так что индекс перестанет подходить, тест упадет
+
+    private static final int ROWS = 200_000;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @BeforeAll
+    public void seed() {
+        databaseClient.sql("DELETE FROM developers").then().block();
+        databaseClient.sql("INSERT INTO developers (email, first_name, last_name, specialty, status) " +
+                        "SELECT 'developer' || g || '@mail.com', 'First' || g, 'Last' || g, 'Specialty' || (g % 200), " +
+                        "CASE WHEN g % 10 = 0 THEN 'DELETED' ELSE 'ACTIVE' END " +
+                        "FROM generate_series(1, " + ROWS + ") g")//200 специальностей, каждый десятый девелопер удален
+                .then().block();
+        databaseClient.sql("ANALYZE developers").then().block();
+    }
+
+    @AfterAll
+    public void cleanUp() {
+        databaseClient.sql("DELETE FROM developers").then().block();
+    }
+
+    @Test
+    @DisplayName("Test find by email uses unique email index")
+    public void givenLargeTable_whenExplainFindByEmail_thenEmailIndexIsUsed() {
+        //when
+        List<String> plan = explain("SELECT * FROM developers WHERE email = $1", "developer4242@mail.com");
+        //then
+        assertThat(plan).noneMatch(line -> line.contains("Seq Scan"));
+        assertThat(plan).anyMatch(line -> line.contains("developers_email_uindex"));
+    }
+
+    @Test
+    @DisplayName("Test find all active by specialty uses partial specialty index")
+    public void givenLargeTable_whenExplainFindAllActiveBySpecialty_thenPartialIndexIsUsed() {
+        //when
+        List<String> plan = explain("SELECT * FROM developers WHERE status = 'ACTIVE' AND specialty = $1", "Specialty42");
+        //then
+        assertThat(plan).noneMatch(line -> line.contains("Seq Scan"));
+        assertThat(plan).anyMatch(line -> line.contains("developers_active_specialty_index"));
+    }
+
+    @Test
+    @DisplayName("Test keyset page uses primary key index")
+    public void givenLargeTable_whenExplainFindPageAfter_thenPrimaryKeyIsUsed() {
+        //when
+        List<String> plan = explain("SELECT * FROM developers WHERE id > $1 ORDER BY id LIMIT 500", 150_000);
+        //then
+        assertThat(plan).noneMatch(line -> line.contains("Seq Scan") || line.contains("Sort"));//без сортировки: идем по индексу по порядку
+        assertThat(plan).anyMatch(line -> line.contains("developers_pkey"));
+    }
+
+    @Test
+    @DisplayName("Test prefix search uses partial prefix indexes")
+    public void givenLargeTable_whenExplainSearchActiveByPrefix_thenPrefixIndexesAreUsed() {
+        //when
+        List<String> plan = explain(DeveloperRepositoryCustomImpl.SEARCH_SQL.replace("$2", "20"), "first4%");//тысячи совпадений: если бы их сортировали, в плане был бы Sort
+        //then
+        assertThat(plan).noneMatch(line -> line.contains("Seq Scan"));//на каждую ветку свой индекс, таблицу целиком не читаем
+        assertThat(plan).noneMatch(line -> line.contains("Sort"));//порядок берется из индекса: совпадения с префиксом не досортировываются
+        assertThat(plan).anyMatch(line -> line.contains("developers_active_email_prefix_index"));
+        assertThat(plan).anyMatch(line -> line.contains("developers_active_first_name_prefix_index"));
+        assertThat(plan).anyMatch(line -> line.contains("developers_active_last_name_prefix_index"));
+    }
+
+    private List<String> explain(String sql, Object parameter) {
+        List<String> plan = databaseClient.sql("EXPLAIN " + sql)
+                .bind(0, parameter)
+                .map((row, metadata) -> row.get(0, String.class))
+                .all()
+                .collectList()
+                .block();
+        System.out.println(String.join(System.lineSeparator(), plan));
+        return plan;
+    }
+}
@@ -14,6 +14,7 @@ import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWeb
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import reactor.core.publisher.Mono;
 
@@ -53,6 +54,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 //такие как Reactor Netty.
 
 @Import(PostgreTestcontainerConfig.class)//импортируем конфигурационный файл
+@TestPropertySource(properties = "app.developers.cache.enabled=false")//тесты пишут в БД напрямую через репозиторий в обход сервиса,
+//поэтому кэш сервиса тут выключаем, иначе он отдавал бы девелоперов удаленных в setUp()
 @TestInstance(TestInstance.Lifecycle.PER_METHOD)//Аннотация @TestInstance позволяет нам настроить жизненный цикл тестов JUnit 5.
 //@TestInstance имеет два режима. Одним из них является LifeCycle.PER_METHOD (по умолчанию). Другой — Lifecycle.PER_CLASS .
 //Последнее позволяет нам попросить JUnit создать только один экземпляр тестового класса и повторно использовать его между тестами.
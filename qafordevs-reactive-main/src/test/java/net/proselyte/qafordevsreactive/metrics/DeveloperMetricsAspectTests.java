@@ -0,0 +1,49 @@
+package net.proselyte.qafordevsreactive.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.proselyte.qafordevsreactive.repository.DeveloperRepository;
+import net.proselyte.qafordevsreactive.repository.InMemoryDeveloperRepository;
+import net.proselyte.qafordevsreactive.util.DataUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DeveloperMetricsAspectTests {
+
+    //аспект без спринга: прокси AspectJ поверх репозитория в памяти и простой реестр метрик
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private DeveloperRepository developerRepository;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new InMemoryDeveloperRepository());
+        proxyFactory.addInterface(DeveloperRepository.class);
+        proxyFactory.addAspect(new DeveloperMetricsAspect(meterRegistry));
+        developerRepository = proxyFactory.getProxy();
+    }
+
+    @Test
+    @DisplayName("Test repository calls are timed per method and outcome functionality")
+    public void givenRepeatedCalls_whenTimed_thenOneTimerPerMethodAndOutcome() {
+        //given
+        developerRepository.save(DataUtils.getJohnDoeTransient()).block();
+        //when
+        StepVerifier.create(developerRepository.findById(1)).expectNextCount(1).verifyComplete();
+        StepVerifier.create(developerRepository.findById(2)).verifyComplete();
+        //then
+        Timer timer = meterRegistry.get(DeveloperMetricsAspect.REPOSITORY_TIMER)
+                .tag("query", "findById")
+                .tag("outcome", "SUCCESS")
+                .timer();
+        assertThat(timer.count()).isEqualTo(2);
+        assertThat(meterRegistry.find(DeveloperMetricsAspect.REPOSITORY_TIMER).tag("query", "findById").timers()).hasSize(1);
+    }
+}
@@ -0,0 +1,63 @@
+package net.proselyte.qafordevsreactive.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ClientRateLimiterTests {
+
+    private final AtomicLong clock = new AtomicLong();//время двигаем руками, без sleep
+
+    @Test
+    @DisplayName("Test burst then refill functionality")
+    public void givenBurstSpent_whenTimePasses_thenTokensAreRefilled() {
+        //given
+        ClientRateLimiter limiter = new ClientRateLimiter(10, 3, 100, clock::get);//10 в секунду, разом не больше 3
+        //when
+        boolean[] burst = {limiter.tryAcquire("client"), limiter.tryAcquire("client"), limiter.tryAcquire("client")};
+        boolean overLimit = limiter.tryAcquire("client");
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));//одно списание
+        boolean afterRefill = limiter.tryAcquire("client");
+        boolean overLimitAgain = limiter.tryAcquire("client");
+        //then
+        assertThat(burst).containsOnly(true);
+        assertThat(overLimit).isFalse();
+        assertThat(afterRefill).isTrue();
+        assertThat(overLimitAgain).isFalse();
+    }
+
+    @Test
+    @DisplayName("Test clients have separate buckets functionality")
+    public void givenOneClientThrottled_whenOtherClientRequests_thenItIsAdmitted() {
+        //given
+        ClientRateLimiter limiter = new ClientRateLimiter(1, 1, 100, clock::get);
+        limiter.tryAcquire("noisy");
+        //when
+        boolean noisy = limiter.tryAcquire("noisy");
+        boolean quiet = limiter.tryAcquire("quiet");
+        //then
+        assertThat(noisy).isFalse();
+        assertThat(quiet).isTrue();
+    }
+
+    @Test
+    @DisplayName("Test idle and excess clients are forgotten functionality")
+    public void givenManyClients_whenBucketsRefillOrLimitIsReached_thenLimiterStaysBounded() {
+        //given
+        ClientRateLimiter limiter = new ClientRateLimiter(10, 2, 100, clock::get);
+        //when
+        for (int i = 0; i < 1_000; i++) {
+            limiter.tryAcquire("client-" + i);
+        }
+        long afterFlood = limiter.clients();
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(300));//ведра всех клиентов снова полные
+        long afterRefill = limiter.clients();
+        //then
+        assertThat(afterFlood).isLessThanOrEqualTo(100);
+        assertThat(afterRefill).isZero();
+    }
+}
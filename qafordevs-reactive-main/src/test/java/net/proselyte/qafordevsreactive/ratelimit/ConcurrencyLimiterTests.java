@@ -0,0 +1,49 @@
+package net.proselyte.qafordevsreactive.ratelimit;
+
+import net.proselyte.qafordevsreactive.exception.ServiceOverloadedException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ConcurrencyLimiterTests {
+
+    @Test
+    @DisplayName("Test queued request gets the released slot functionality")
+    public void givenLimitReached_whenSlotReleased_thenQueuedRequestProceeds() {
+        //given
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(1, 10, Duration.ofSeconds(1), Duration.ofSeconds(5));
+        limiter.acquire().block();
+        //when
+        StepVerifier.create(limiter.acquire())
+                .then(() -> assertThat(limiter.queued()).isEqualTo(1))
+                .then(limiter::release)
+                //then
+                .verifyComplete();
+        assertThat(limiter.inFlight()).isEqualTo(1);
+        assertThat(limiter.queued()).isZero();
+    }
+
+    @Test
+    @DisplayName("Test overloaded endpoint sheds requests functionality")
+    public void givenQueueWaitTooLong_whenAcquire_thenRequestsAreShedImmediately() {
+        //given
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(1, 10, Duration.ofMillis(10), Duration.ofMillis(50));
+        limiter.acquire().block();
+        //when
+        StepVerifier.create(limiter.acquire())//место так и не освободилось
+                .expectError(ServiceOverloadedException.class)
+                .verify(Duration.ofSeconds(5));
+        //then
+        assertThat(limiter.isShedding()).isTrue();
+        assertThat(limiter.queued()).isZero();
+        StepVerifier.create(limiter.acquire())//перегрузка: в очередь не ставим, отказ сразу
+                .expectError(ServiceOverloadedException.class)
+                .verify(Duration.ofSeconds(1));
+        limiter.release();
+        assertThat(limiter.inFlight()).isZero();
+    }
+}
@@ -0,0 +1,55 @@
+package net.proselyte.qafordevsreactive.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.proselyte.qafordevsreactive.config.DeveloperProperties;
+import net.proselyte.qafordevsreactive.exception.ServiceOverloadedException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+public class RateLimitWebFilterTests {
+
+    //фильтр без спринга: одно место на эндпоинт без очереди, цепочка фильтров никогда не завершается - запрос держит место
+
+    private static final WebFilterChain HANGING = exchange -> Mono.never();
+
+    private RateLimitWebFilter rateLimitWebFilter;
+
+    @BeforeEach
+    public void setUp() {
+        DeveloperProperties developerProperties = new DeveloperProperties();
+        developerProperties.getRateLimit().setMaxConcurrent(1);
+        developerProperties.getRateLimit().setMaxQueue(0);
+        rateLimitWebFilter = new RateLimitWebFilter(developerProperties,
+                new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class));//без метрик
+    }
+
+    @Test
+    @DisplayName("Test streaming list does not hold a concurrency slot functionality")
+    public void givenLongStreams_whenRegularRequest_thenItIsAdmitted() {
+        //given
+        rateLimitWebFilter.filter(get(MediaType.APPLICATION_NDJSON), HANGING).subscribe();
+        rateLimitWebFilter.filter(get(MediaType.APPLICATION_NDJSON), HANGING).subscribe();
+        //when
+        rateLimitWebFilter.filter(get(MediaType.APPLICATION_JSON), HANGING).subscribe();//а обычный запрос место занимает
+        //then
+        StepVerifier.create(rateLimitWebFilter.filter(get(MediaType.ALL), HANGING))
+                .expectError(ServiceOverloadedException.class)
+                .verify(Duration.ofSeconds(5));
+        StepVerifier.create(rateLimitWebFilter.filter(get(MediaType.APPLICATION_NDJSON), exchange -> Mono.empty()))
+                .verifyComplete();
+    }
+
+    private static MockServerWebExchange get(MediaType accept) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/developers").accept(accept));
+    }
+}
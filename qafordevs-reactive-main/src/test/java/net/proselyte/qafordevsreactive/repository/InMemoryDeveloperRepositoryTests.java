@@ -0,0 +1,229 @@
+package net.proselyte.qafordevsreactive.repository;
+
+import net.proselyte.qafordevsreactive.entity.DeveloperEntity;
+import net.proselyte.qafordevsreactive.entity.Status;
+import net.proselyte.qafordevsreactive.util.DataUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.Sort;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class InMemoryDeveloperRepositoryTests {
+
+    //репозиторий в памяти подменяет PostgreSQL в тестах и профиле embedded, поэтому проверяем что он ведет себя как таблица
+    //developers: версии, уникальный эмайл, порядок по id
+
+    private InMemoryDeveloperRepository developerRepository;
+
+    @BeforeEach
+    public void setUp() {
+        developerRepository = new InMemoryDeveloperRepository();
+    }
+
+    @Test
+    @DisplayName("Test save and find developer functionality")
+    public void givenNewDeveloper_whenSave_thenIdAndVersionAreAssigned() {
+        //given
+        DeveloperEntity saved = developerRepository.save(DataUtils.getJohnDoeTransient()).block();
+        //when
+        DeveloperEntity found = developerRepository.findById(saved.getId()).block();
+        //then
+        assertThat(saved.getId()).isEqualTo(1);
+        assertThat(saved.getVersion()).isZero();
+        assertThat(found).isEqualTo(saved).isNotSameAs(saved);
+        StepVerifier.create(developerRepository.findByEmail(saved.getEmail()))
+                .expectNext(saved)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Test update with stale version and missing id functionality")
+    public void givenStaleVersionOrMissingId_whenSave_thenExceptionIsThrown() {
+        //given
+        DeveloperEntity saved = developerRepository.save(DataUtils.getJohnDoeTransient()).block();
+        DeveloperEntity stale = developerRepository.findById(saved.getId()).block();
+        developerRepository.save(saved).block();//версия 0 -> 1
+        DeveloperEntity missing = DataUtils.getMikeSmithPersisted();
+        missing.setId(999);
+        //when
+        StepVerifier.create(developerRepository.save(stale))
+                //then
+                .expectError(OptimisticLockingFailureException.class)
+                .verify();
+        StepVerifier.create(developerRepository.save(missing))
+                .expectError(TransientDataAccessResourceException.class)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("Test empty patch does not bump version functionality")
+    public void givenNoFields_whenPatch_thenCurrentRowIsReturnedUnchanged() {
+        //given
+        DeveloperEntity john = developerRepository.save(DataUtils.getJohnDoeTransient()).block();
+        long specialtyVersion = developerRepository.findSpecialtyVersion(john.getSpecialty()).block();
+        //when
+        StepVerifier.create(developerRepository.patch(john.getId(), DeveloperEntity.builder().build()))
+                //then
+                .expectNextMatches(patched -> patched.getVersion() == 0 && patched.getEmail().equals(john.getEmail()))
+                .verifyComplete();
+        StepVerifier.create(developerRepository.patch(john.getId(), DeveloperEntity.builder().version(5L).build()))
+                .verifyComplete();//чужая версия - как и у UPDATE ... AND version = ?, строки нет
+        assertThat(developerRepository.findSpecialtyVersion(john.getSpecialty()).block()).isEqualTo(specialtyVersion);
+    }
+
+    @Test
+    @DisplayName("Test unique email functionality")
+    public void givenTakenEmail_whenInsertOrChangeEmail_thenConflictIsReported() {
+        //given
+        DeveloperEntity john = developerRepository.save(DataUtils.getJohnDoeTransient()).block();
+        DeveloperEntity mike = developerRepository.save(DataUtils.getMikeSmithTransient()).block();
+        //when
+        StepVerifier.create(developerRepository.insertIfEmailAbsent(DataUtils.getJohnDoeTransient()))
+                //then
+                .verifyComplete();//ON CONFLICT DO NOTHING - id нет
+        StepVerifier.create(developerRepository.save(DataUtils.getJohnDoeTransient()))
+                .expectError(DuplicateKeyException.class)
+                .verify();
+        StepVerifier.create(developerRepository.patch(mike.getId(), DeveloperEntity.builder().email(john.getEmail()).build()))
+                .expectError(DuplicateKeyException.class)
+                .verify();
+        StepVerifier.create(developerRepository.hardDeleteById(john.getId())
+                        .then(developerRepository.patch(mike.getId(), DeveloperEntity.builder().email(john.getEmail()).build())))
+                .expectNextMatches(patched -> patched.getEmail().equals(john.getEmail()) && patched.getVersion() == 1)
+                .verifyComplete();
+        StepVerifier.create(developerRepository.findByEmail(mike.getEmail()))//старый эмайл освободился
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Test scans are ordered by id functionality")
+    public void givenManyDevelopers_whenScan_thenRowsAreOrderedById() {
+        //given
+        for (int i = 0; i < 300; i++) {//больше чем полос, строки разложены по всем
+            developerRepository.save(DeveloperEntity.builder()
+                    .email("developer" + i + "@mail.com")
+                    .specialty(i % 2 == 0 ? "Java" : "Go")
+                    .status(Status.ACTIVE)
+                    .build()).block();
+        }
+        developerRepository.softDeleteById(3).block();
+        //when
+        List<Integer> java = developerRepository.findAllActiveBySpecialty("Java").map(DeveloperEntity::getId).collectList().block();
+        List<Integer> page = developerRepository.findPageAfter(100, 5).map(DeveloperEntity::getId).collectList().block();
+        //then
+        assertThat(java).hasSize(149).isSorted().doesNotContain(3).allMatch(id -> id % 2 == 1);
+        assertThat(page).containsExactly(101, 102, 103, 104, 105);
+        StepVerifier.create(developerRepository.count())
+                .expectNext(300L)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Test concurrent inserts with the same email functionality")
+    public void givenConcurrentInserts_whenSameEmail_thenOnlyOneSucceeds() {
+        //given
+        int attempts = 1000;
+        //when
+        List<Optional<Integer>> results = Flux.range(0, attempts)
+                .parallel(8)
+                .runOn(Schedulers.parallel())
+                .flatMap(i -> developerRepository.insertAll(List.of(DataUtils.getJohnDoeTransient())))
+                .sequential()
+                .collectList()
+                .block();
+        //then
+        assertThat(results).hasSize(attempts);
+        assertThat(results).filteredOn(Optional::isPresent).hasSize(1);
+        StepVerifier.create(developerRepository.count())
+                .expectNext(1L)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Test search by prefix ranking functionality")
+    public void givenDevelopers_whenSearchByPrefix_thenEmailMatchesGoFirstAndDeletedAreSkipped() {
+        //given
+        DeveloperEntity byLastName = save("Anna", "Johnson", "anna@mail.com");
+        DeveloperEntity byFirstName = save("John", "Doe", "doe@mail.com");
+        DeveloperEntity byEmail = save("Mike", "Smith", "john.smith@mail.com");
+        DeveloperEntity deleted = save("Johnny", "Walker", "walker@mail.com");
+        save("Kate", "Brown", "kate@mail.com");
+        developerRepository.softDeleteById(deleted.getId()).block();
+        //when
+        List<Integer> found = developerRepository.searchActiveByPrefix("joh", 10).map(DeveloperEntity::getId).collectList().block();
+        List<Integer> limited = developerRepository.searchActiveByPrefix("joh", 2).map(DeveloperEntity::getId).collectList().block();
+        List<Integer> wildcard = developerRepository.searchActiveByPrefix("%", 10).map(DeveloperEntity::getId).collectList().block();
+        //then
+        assertThat(found).containsExactly(byEmail.getId(), byFirstName.getId(), byLastName.getId());
+        assertThat(limited).containsExactly(byEmail.getId(), byFirstName.getId());
+        assertThat(wildcard).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Test find all with sort functionality")
+    public void givenDevelopers_whenFindAllWithSort_thenOrderMatchesOrderBy() {
+        //given
+        DeveloperEntity doe = save("John", "Doe", "doe@mail.com");
+        DeveloperEntity smith = save("Mike", "Smith", "smith@mail.com");
+        DeveloperEntity johnson = save("Anna", "Johnson", "anna@mail.com");
+        DeveloperEntity java = developerRepository.save(DataUtils.getJohnDoeTransient()).block();
+        //when
+        List<Integer> byLastNameDesc = developerRepository.findAll(Sort.by(Sort.Order.desc("lastName")))
+                .map(DeveloperEntity::getId).collectList().block();
+        List<Integer> bySpecialty = developerRepository.findAll(Sort.by("specialty"))
+                .map(DeveloperEntity::getId).collectList().block();
+        //then
+        assertThat(byLastNameDesc).containsExactly(smith.getId(), johnson.getId(), doe.getId(), java.getId());
+        assertThat(bySpecialty).containsExactly(java.getId(), doe.getId(), smith.getId(), johnson.getId());//NULL в конце,
+        //при равенстве - по id
+        StepVerifier.create(developerRepository.findAll(Sort.by("salary")))
+                .expectError(InvalidDataAccessApiUsageException.class)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("Test query by example functionality")
+    public void givenDevelopers_whenQueryByExample_thenMatcherIsApplied() {
+        //given
+        DeveloperEntity john = save("John", "Doe", "doe@mail.com");
+        DeveloperEntity johnny = save("Johnny", "Walker", "walker@mail.com");
+        save("Anna", "Johnson", "anna@mail.com");
+        Example<DeveloperEntity> byFirstName = Example.of(DeveloperEntity.builder().firstName("jo").build(),
+                ExampleMatcher.matching().withStringMatcher(ExampleMatcher.StringMatcher.STARTING).withIgnoreCase());
+        //when
+        List<Integer> found = developerRepository.findAll(byFirstName).map(DeveloperEntity::getId).collectList().block();
+        //then
+        assertThat(found).containsExactly(john.getId(), johnny.getId());
+        assertThat(developerRepository.count(byFirstName).block()).isEqualTo(2);
+        assertThat(developerRepository.exists(Example.of(DeveloperEntity.builder().email("anna@mail.com").build())).block()).isTrue();
+        assertThat(developerRepository.findBy(byFirstName, query -> query.sortBy(Sort.by(Sort.Order.desc("id"))).first())
+                .map(DeveloperEntity::getId).block()).isEqualTo(johnny.getId());
+        StepVerifier.create(developerRepository.findOne(byFirstName))
+                .expectError(IncorrectResultSizeDataAccessException.class)
+                .verify();
+    }
+
+    private DeveloperEntity save(String firstName, String lastName, String email) {
+        return developerRepository.save(DeveloperEntity.builder()
+                .firstName(firstName)
+                .lastName(lastName)
+                .email(email)
+                .status(Status.ACTIVE)
+                .build()).block();
+    }
+}
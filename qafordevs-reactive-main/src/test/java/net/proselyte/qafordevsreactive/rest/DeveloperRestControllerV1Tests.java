@@ -1,29 +1,45 @@
 package net.proselyte.qafordevsreactive.rest;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.proselyte.qafordevsreactive.codec.BinaryMediaTypes;
+import net.proselyte.qafordevsreactive.config.DeveloperProperties;
 import net.proselyte.qafordevsreactive.dto.DeveloperDto;
 import net.proselyte.qafordevsreactive.entity.DeveloperEntity;
 import net.proselyte.qafordevsreactive.exception.DeveloperNotFoundException;
+import net.proselyte.qafordevsreactive.exception.DeveloperVersionConflictException;
 import net.proselyte.qafordevsreactive.exception.DeveloperWithEmailAlreadyExistsException;
+import net.proselyte.qafordevsreactive.service.DeveloperBatchResult;
+import net.proselyte.qafordevsreactive.service.DeveloperLookupResult;
 import net.proselyte.qafordevsreactive.service.DeveloperService;
 import net.proselyte.qafordevsreactive.util.DataUtils;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.BDDMockito;
+import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 
 @ComponentScan({"net.proselyte.qafordevsreactive.errorhandling"})//также говорим что понадобится, так что подтягиваем
+@EnableConfigurationProperties(DeveloperProperties.class)//в срез попадает RateLimitWebFilter, а сканирования настроек в нем нет
 @ExtendWith(SpringExtension.class)//для того что бы можно было работать с контекстом
 @WebFluxTest(controllers = {DeveloperRestControllerV1.class})//указываем какой контроллер мы тестируем, он подтягивает только контроллер
 public class DeveloperRestControllerV1Tests {
@@ -137,6 +153,87 @@ public class DeveloperRestControllerV1Tests {
                 .jsonPath("$.errors[0].message").isEqualTo("Developer not found");
     }
 
+    @Test//частичное изменение девелопера
+    @DisplayName("Test patch developer functionality")
+    public void givenPartialDto_whenPatchDeveloper_thenUpdatedDeveloperIsReturned() {
+        //given
+        DeveloperDto dto = DeveloperDto.builder()//присылаем только эмайл, остальные поля не трогаем
+                .email("john.patched-doe@mail.com")
+                .build();
+
+        DeveloperEntity entity = DataUtils.getJohnDoePersisted();
+        entity.setEmail("john.patched-doe@mail.com");
+        entity.setVersion(2L);
+
+        BDDMockito.given(developerService.patchDeveloper(anyInt(), any(DeveloperEntity.class)))
+                .willReturn(Mono.just(entity));
+        //when
+        WebTestClient.ResponseSpec result = webTestClient.patch()
+                .uri("/api/v1/developers/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Mono.just(dto), DeveloperDto.class)
+                .exchange();
+        //then
+        result.expectStatus().isOk()
+                .expectBody()
+                .consumeWith(System.out::println)
+                .jsonPath("$.id").isEqualTo(1)
+                .jsonPath("$.firstName").isEqualTo("John")
+                .jsonPath("$.email").isEqualTo("john.patched-doe@mail.com")
+                .jsonPath("$.version").isEqualTo(2);
+    }
+
+    @Test//выброса исключения когда версия девелопера устарела
+    @DisplayName("Test patch developer with stale version functionality")
+    public void givenStaleVersion_whenPatchDeveloper_thenConflictIsReturned() {
+        //given
+        DeveloperDto dto = DeveloperDto.builder()
+                .email("john.patched-doe@mail.com")
+                .version(1L)
+                .build();
+
+        BDDMockito.given(developerService.patchDeveloper(anyInt(), any(DeveloperEntity.class)))
+                .willThrow(new DeveloperVersionConflictException("Developer was modified concurrently", "DEVELOPER_VERSION_CONFLICT"));
+        //when
+        WebTestClient.ResponseSpec result = webTestClient.patch()
+                .uri("/api/v1/developers/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Mono.just(dto), DeveloperDto.class)
+                .exchange();
+        //then
+        result.expectStatus().isEqualTo(409)
+                .expectBody()
+                .consumeWith(System.out::println)
+                .jsonPath("$.errors[0].code").isEqualTo("DEVELOPER_VERSION_CONFLICT")
+                .jsonPath("$.errors[0].message").isEqualTo("Developer was modified concurrently");
+    }
+
+    @Test//пачечное создание девелоперов: по каждому свой результат, дубликат эмайла не валит всю пачку
+    @DisplayName("Test save developers batch functionality")
+    public void givenDevelopersBatch_whenSaveDevelopers_thenResultPerDeveloperIsReturned() {
+        //given
+        DeveloperEntity created = DataUtils.getJohnDoePersisted();
+
+        BDDMockito.given(developerService.saveDevelopers(any()))
+                .willReturn(Flux.just(DeveloperBatchResult.created(0, created),
+                        DeveloperBatchResult.failed(1, "DEVELOPER_DUPLICATE_EMAIL", "Developer with defined email already exists")));
+        //when
+        WebTestClient.ResponseSpec result = webTestClient.post()
+                .uri("/api/v1/developers/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Flux.just(DataUtils.getJohnDoeDtoTransient(), DataUtils.getJohnDoeDtoTransient()), DeveloperDto.class)
+                .exchange();
+        //then
+        result.expectStatus().isOk()
+                .expectBody()
+                .consumeWith(System.out::println)
+                .jsonPath("$.size()").isEqualTo(2)
+                .jsonPath("$[0].outcome").isEqualTo("CREATED")
+                .jsonPath("$[0].developer.id").isEqualTo(1)
+                .jsonPath("$[1].outcome").isEqualTo("FAILED")
+                .jsonPath("$[1].errorCode").isEqualTo("DEVELOPER_DUPLICATE_EMAIL");
+    }
+
     @Test//получения всех девелоперов
     @DisplayName("Test get all developers functionality")
     public void givenThreeDeveloper_whenGetAll_thenDevelopersAreReturned() {
@@ -271,4 +368,153 @@ public class DeveloperRestControllerV1Tests {
                 .jsonPath("$.errors[0].message").isEqualTo("Developer not found");
     }
 
+    @Test//несколько девелоперов одним запросом: отсутствующий id - отдельный результат, а не ошибка
+    @DisplayName("Test lookup developers by ids functionality")
+    public void givenIds_whenLookup_thenResultPerIdIsReturned() {
+        //given
+        BDDMockito.given(developerService.lookup(any()))
+                .willReturn(Flux.just(DeveloperLookupResult.found(DataUtils.getJohnDoePersisted()), DeveloperLookupResult.notFound(999)));
+        //when
+        WebTestClient.ResponseSpec result = webTestClient.post()
+                .uri("/api/v1/developers/lookup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(List.of(1, 999))
+                .exchange();
+        //then
+        result.expectStatus().isOk()
+                .expectBody()
+                .consumeWith(System.out::println)
+                .jsonPath("$.size()").isEqualTo(2)
+                .jsonPath("$[0].outcome").isEqualTo("FOUND")
+                .jsonPath("$[0].developer.email").isEqualTo("john.doe@mail.com")
+                .jsonPath("$[1].id").isEqualTo(999)
+                .jsonPath("$[1].outcome").isEqualTo("NOT_FOUND")
+                .jsonPath("$[1].errorCode").isEqualTo("DEVELOPER_NOT_FOUND");
+    }
+
+    @Test//слишком много id за раз
+    @DisplayName("Test lookup with too many ids functionality")
+    public void givenTooManyIds_whenLookup_thenBadRequestIsReturned() {
+        //given
+        List<Integer> ids = IntStream.rangeClosed(1, 1001).boxed().toList();
+        //when
+        WebTestClient.ResponseSpec result = webTestClient.post()
+                .uri("/api/v1/developers/lookup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(ids)
+                .exchange();
+        //then
+        result.expectStatus().isBadRequest()
+                .expectBody()
+                .consumeWith(System.out::println)
+                .jsonPath("$.errors[0].code").isEqualTo("DEVELOPER_LOOKUP_LIMIT_EXCEEDED");
+    }
+
+    @Test//поиск по префиксу: limit больше максимума обрезается до 100
+    @DisplayName("Test search developers by prefix functionality")
+    public void givenQuery_whenSearch_thenMatchingDevelopersAreReturned() {
+        //given
+        BDDMockito.given(developerService.search("jo", 100))
+                .willReturn(Flux.just(DataUtils.getJohnDoePersisted()));
+        //when
+        WebTestClient.ResponseSpec result = webTestClient.get()
+                .uri("/api/v1/developers/search?q=jo&limit=5000")
+                .exchange();
+        //then
+        result.expectStatus().isOk()
+                .expectBody()
+                .consumeWith(System.out::println)
+                .jsonPath("$.size()").isEqualTo(1)
+                .jsonPath("$[0].email").isEqualTo("john.doe@mail.com");
+    }
+
+    @Test//у клиента та же версия девелопера - 304 без тела
+    @DisplayName("Test get developer by id with matching etag functionality")
+    public void givenMatchingEtag_whenGetById_thenNotModifiedIsReturned() {
+        //given
+        DeveloperEntity entity = DataUtils.getJohnDoePersisted();
+        entity.setVersion(3L);
+        BDDMockito.given(developerService.getById(anyInt()))
+                .willReturn(Mono.just(entity));
+        //when
+        WebTestClient.ResponseSpec fresh = webTestClient.get()
+                .uri("/api/v1/developers/1")
+                .exchange();
+        WebTestClient.ResponseSpec cached = webTestClient.get()
+                .uri("/api/v1/developers/1")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"3\"")
+                .exchange();
+        //then
+        fresh.expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"3\"")
+                .expectBody()
+                .jsonPath("$.email").isEqualTo("john.doe@mail.com");
+        cached.expectStatus().isNotModified()
+                .expectBody().isEmpty();
+    }
+
+    @Test//список специальности не менялся - 304, сам список не читаем
+    @DisplayName("Test get developers by specialty with matching etag functionality")
+    public void givenMatchingEtag_whenGetAllBySpecialty_thenListIsNotRead() {
+        //given
+        BDDMockito.given(developerService.getSpecialtyVersion("Java"))
+                .willReturn(Mono.just(7L));
+        //when
+        WebTestClient.ResponseSpec result = webTestClient.get()
+                .uri("/api/v1/developers/specialty/Java")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"7\"")
+                .exchange();
+        //then
+        result.expectStatus().isNotModified()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"7\"")
+                .expectBody().isEmpty();//ни [] ни Content-Type
+        BDDMockito.then(developerService).should(Mockito.never()).findAllActiveBySpecialty(any());
+    }
+
+    @Test//тело запроса и ответ в CBOR: те же поля что в JSON
+    @DisplayName("Test create developer with cbor body functionality")
+    public void givenCborBody_whenCreateDeveloper_thenCborResponseIsReturned() throws IOException {
+        //given
+        ObjectMapper cborMapper = Jackson2ObjectMapperBuilder.cbor().build();
+        BDDMockito.given(developerService.createDeveloper(any(DeveloperEntity.class)))
+                .willReturn(Mono.just(DataUtils.getJohnDoePersisted()));
+        //when
+        WebTestClient.ResponseSpec result = webTestClient.post()
+                .uri("/api/v1/developers")
+                .contentType(MediaType.APPLICATION_CBOR)
+                .accept(MediaType.APPLICATION_CBOR)
+                .bodyValue(cborMapper.writeValueAsBytes(DataUtils.getJohnDoeDtoTransient()))
+                .exchange();
+        //then
+        byte[] body = result.expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_CBOR)
+                .expectBody(byte[].class)
+                .returnResult().getResponseBody();
+        DeveloperDto obtained = cborMapper.readValue(body, DeveloperDto.class);
+        assertThat(obtained.getId()).isEqualTo(1);
+        assertThat(obtained.getEmail()).isEqualTo("john.doe@mail.com");
+        BDDMockito.then(developerService).should().createDeveloper(Mockito.argThat(entity -> "john.doe@mail.com".equals(entity.getEmail())));
+    }
+
+    @Test//потоковый Smile: девелоперы идут значениями подряд, без массива
+    @DisplayName("Test stream developers as smile functionality")
+    public void givenDevelopers_whenStreamAllAsSmile_thenSmileValuesAreReturned() throws IOException {
+        //given
+        ObjectMapper smileMapper = Jackson2ObjectMapperBuilder.smile().build();
+        BDDMockito.given(developerService.getAll())
+                .willReturn(Flux.just(DataUtils.getJohnDoePersisted(), DataUtils.getMikeSmithPersisted()));
+        //when
+        WebTestClient.ResponseSpec result = webTestClient.get()
+                .uri("/api/v1/developers")
+                .accept(BinaryMediaTypes.APPLICATION_STREAM_SMILE)
+                .exchange();
+        //then
+        byte[] body = result.expectStatus().isOk()
+                .expectHeader().contentType(BinaryMediaTypes.APPLICATION_STREAM_SMILE)
+                .expectBody(byte[].class)
+                .returnResult().getResponseBody();
+        List<DeveloperDto> obtained = smileMapper.readerFor(DeveloperDto.class).<DeveloperDto>readValues(body).readAll();
+        assertThat(obtained).extracting(DeveloperDto::getEmail)
+                .containsExactly("john.doe@mail.com", "mike.smith@mail.com");
+    }
 }
@@ -0,0 +1,234 @@
+package net.proselyte.qafordevsreactive.service;
+
+import net.proselyte.qafordevsreactive.cache.CacheStatistics;
+import net.proselyte.qafordevsreactive.cache.SpecialtyIndex;
+import net.proselyte.qafordevsreactive.config.DeveloperProperties;
+import net.proselyte.qafordevsreactive.entity.DeveloperEntity;
+import net.proselyte.qafordevsreactive.entity.Status;
+import net.proselyte.qafordevsreactive.event.DeveloperChangeFeed;
+import net.proselyte.qafordevsreactive.exception.DeveloperNotFoundException;
+import net.proselyte.qafordevsreactive.repository.InMemoryDeveloperRepository;
+import net.proselyte.qafordevsreactive.util.DataUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.BDDMockito;
+import org.mockito.Mockito;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+
+public class CachingDeveloperServiceTests {
+
+    //здесь ни спринга ни БД: сервис с кэшем собираем руками поверх DeveloperServiceImpl и репозитория в памяти,
+    //а spy на репозитории позволяет посчитать сколько раз мы на самом деле сходили бы в БД
+
+    private InMemoryDeveloperRepository developerRepository;
+
+    private CachingDeveloperService cachingDeveloperService;
+
+    @BeforeEach
+    public void setUp() {
+        developerRepository = Mockito.spy(new InMemoryDeveloperRepository());
+        DeveloperProperties developerProperties = new DeveloperProperties();
+        DeveloperChangeFeed developerChangeFeed = new DeveloperChangeFeed(developerProperties);
+        cachingDeveloperService = new CachingDeveloperService(new DeveloperServiceImpl(developerRepository, developerProperties,
+                developerChangeFeed, new DeveloperByIdBatcher(developerRepository, developerProperties)), developerProperties,
+                new SpecialtyIndex(developerRepository, developerChangeFeed, developerProperties));//индекс выключен по умолчанию
+    }
+
+    @Test
+    @DisplayName("Test get developer by id is served from cache functionality")
+    public void givenCachedDeveloper_whenGetById_thenRepositoryIsCalledOnce() {
+        //given
+        DeveloperEntity saved = developerRepository.save(DataUtils.getJohnDoeTransient()).block();
+        //when
+        cachingDeveloperService.getById(saved.getId()).block();//промах - идем в репозиторий
+        DeveloperEntity obtained = cachingDeveloperService.getById(saved.getId()).block();//попадание
+        //then
+        assertThat(obtained.getEmail()).isEqualTo("john.doe@mail.com");
+        Mockito.verify(developerRepository, Mockito.times(1)).findById(saved.getId());
+        CacheStatistics statistics = cachingDeveloperService.getByIdStatistics();
+        assertThat(statistics.hits()).isEqualTo(1);
+        assertThat(statistics.misses()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Test concurrent cache misses share one query functionality")
+    public void givenConcurrentMisses_whenGetById_thenOneQueryIsIssued() {
+        //given
+        BDDMockito.willReturn(Mono.just(DataUtils.getJohnDoePersisted()).delayElement(Duration.ofMillis(100)))//медленный "запрос в БД"
+                .given(developerRepository).findById(anyInt());
+        //when
+        StepVerifier.create(Mono.zip(cachingDeveloperService.getById(1), cachingDeveloperService.getById(1)))//оба запроса стартуют до ответа
+                .assertNext(pair -> assertThat(pair.getT1().getId()).isEqualTo(pair.getT2().getId()))
+                .verifyComplete();
+        //then
+        Mockito.verify(developerRepository, Mockito.times(1)).findById(1);
+    }
+
+    @Test
+    @DisplayName("Test not found developer is not cached functionality")
+    public void givenIncorrectId_whenGetById_thenErrorIsNotCached() {
+        //when
+        StepVerifier.create(cachingDeveloperService.getById(999))
+                .expectError(DeveloperNotFoundException.class)
+                .verify();
+        StepVerifier.create(cachingDeveloperService.getById(999))
+                .expectError(DeveloperNotFoundException.class)
+                .verify();
+        //then
+        Mockito.verify(developerRepository, Mockito.times(2)).findById(999);
+    }
+
+    @Test
+    @DisplayName("Test update developer evicts cached entry functionality")
+    public void givenCachedDeveloper_whenUpdateDeveloper_thenFreshDeveloperIsReturned() {
+        //given
+        DeveloperEntity saved = developerRepository.save(DataUtils.getJohnDoeTransient()).block();
+        cachingDeveloperService.getById(saved.getId()).block();
+        DeveloperEntity update = DataUtils.getJohnDoeTransient();
+        update.setId(saved.getId());
+        update.setEmail("john.updated-doe@mail.com");
+        //when
+        cachingDeveloperService.updateDeveloper(update).block();
+        DeveloperEntity obtained = cachingDeveloperService.getById(saved.getId()).block();
+        //then
+        assertThat(obtained.getEmail()).isEqualTo("john.updated-doe@mail.com");
+        assertThat(cachingDeveloperService.getByIdStatistics().invalidations()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Test soft delete evicts cached specialty list functionality")
+    public void givenCachedSpecialty_whenSoftDeleteById_thenDeveloperLeavesSpecialty() {
+        //given
+        DeveloperEntity john = developerRepository.save(DataUtils.getJohnDoeTransient()).block();
+        developerRepository.save(DataUtils.getMikeSmithTransient()).block();
+        StepVerifier.create(cachingDeveloperService.findAllActiveBySpecialty("Java"))
+                .expectNextCount(2)
+                .verifyComplete();
+        //when
+        cachingDeveloperService.softDeleteById(john.getId()).block();
+        //then
+        StepVerifier.create(cachingDeveloperService.findAllActiveBySpecialty("Java"))
+                .expectNextCount(1)
+                .verifyComplete();
+        Mockito.verify(developerRepository, Mockito.times(2)).findAllActiveBySpecialty(anyString());
+    }
+
+    @Test
+    @DisplayName("Test newer specialty version evicts cached specialty list functionality")
+    public void givenChangeBypassingCache_whenGetSpecialtyVersion_thenStaleListIsEvicted() {
+        //given
+        DeveloperEntity john = developerRepository.save(DataUtils.getJohnDoeTransient()).block();
+        developerRepository.save(DataUtils.getMikeSmithTransient()).block();
+        StepVerifier.create(cachingDeveloperService.findAllActiveBySpecialty("Java"))
+                .expectNextCount(2)
+                .verifyComplete();
+        developerRepository.softDeleteById(john.getId()).block();//мимо кэша, как изменение с другого инстанса
+        //when
+        Long version = cachingDeveloperService.getSpecialtyVersion("Java").block();
+        //then
+        assertThat(version).isEqualTo(3L);//две вставки и удаление
+        StepVerifier.create(cachingDeveloperService.findAllActiveBySpecialty("Java"))
+                .expectNextCount(1)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Test specialty version is served by the loaded index functionality")
+    public void givenLoadedIndex_whenGetSpecialtyVersion_thenDatabaseIsQueriedOnlyOnMiss() {
+        //given
+        DeveloperProperties developerProperties = new DeveloperProperties();
+        developerProperties.getSpecialtyIndex().setEnabled(true);
+        DeveloperChangeFeed developerChangeFeed = new DeveloperChangeFeed(developerProperties);
+        SpecialtyIndex specialtyIndex = new SpecialtyIndex(developerRepository, developerChangeFeed, developerProperties);
+        CachingDeveloperService indexedService = new CachingDeveloperService(new DeveloperServiceImpl(developerRepository,
+                developerProperties, developerChangeFeed, new DeveloperByIdBatcher(developerRepository, developerProperties)),
+                developerProperties, specialtyIndex);
+        developerRepository.save(DataUtils.getJohnDoeTransient()).block();
+        specialtyIndex.afterSingletonsInstantiated();
+        try {
+            //when
+            indexedService.getSpecialtyVersion("Java").block();//после загрузки версия неизвестна - промах
+            indexedService.createDeveloper(DataUtils.getMikeSmithTransient()).block();
+            Long version = indexedService.getSpecialtyVersion("Java").block();
+            //then
+            assertThat(version).isEqualTo(2L);//две вставки, вторую индекс посчитал сам
+            Mockito.verify(developerRepository, Mockito.times(1)).findSpecialtyVersion("Java");
+        } finally {
+            specialtyIndex.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("Test lookup serves cached developers and queries only misses functionality")
+    public void givenOneCachedDeveloper_whenLookup_thenOnlyMissesAreQueried() {
+        //given
+        DeveloperEntity john = developerRepository.save(DataUtils.getJohnDoeTransient()).block();
+        DeveloperEntity mike = developerRepository.save(DataUtils.getMikeSmithTransient()).block();
+        cachingDeveloperService.getById(john.getId()).block();
+        //when
+        StepVerifier.create(cachingDeveloperService.lookup(List.of(john.getId(), mike.getId(), 999, mike.getId())))
+                //then
+                .expectNextMatches(result -> result.outcome() == DeveloperLookupResult.Outcome.FOUND && result.id().equals(john.getId()))
+                .expectNextMatches(result -> result.outcome() == DeveloperLookupResult.Outcome.FOUND && result.id().equals(mike.getId()))
+                .expectNextMatches(result -> result.outcome() == DeveloperLookupResult.Outcome.NOT_FOUND && result.id() == 999)
+                .verifyComplete();
+        Mockito.verify(developerRepository, Mockito.times(1)).findAllByIds(new Integer[]{mike.getId(), 999});
+    }
+
+    @Test//без транзакции (в памяти) вставки успели записаться до ошибки изменений - они CREATED, FAILED только изменения
+    @DisplayName("Test save developers when updates fail after inserts functionality")
+    public void givenUpdatesFailAfterInserts_whenSaveDevelopers_thenInsertedRowsAreReportedAsCreated() {
+        //given
+        DeveloperEntity existing = developerRepository.save(DataUtils.getMikeSmithTransient()).block();
+        existing.setFirstName("Michael");
+        BDDMockito.doReturn(Flux.error(new IllegalStateException("Connection lost")))
+                .when(developerRepository).updateAll(any());
+        //when
+        List<DeveloperBatchResult> results = cachingDeveloperService.saveDevelopers(Flux.just(DataUtils.getJohnDoeTransient(), existing))
+                .collectList()
+                .block();
+        //then
+        assertThat(results).extracting(DeveloperBatchResult::outcome)
+                .containsExactly(DeveloperBatchResult.Outcome.CREATED, DeveloperBatchResult.Outcome.FAILED);
+        assertThat(results.get(1).errorCode()).isEqualTo("DEVELOPER_BATCH_FAILED");
+        StepVerifier.create(cachingDeveloperService.getById(results.get(0).developer().getId()))
+                .expectNextMatches(developer -> "john.doe@mail.com".equals(developer.getEmail()))
+                .verifyComplete();
+    }
+
+    @Test//пачечное изменение: устаревшая версия - конфликт, а не перезапись; без статуса - остается текущий
+    @DisplayName("Test save developers with stale version and without status functionality")
+    public void givenStaleVersionAndMissingStatus_whenSaveDevelopers_thenConflictAndStatusIsKept() {
+        //given
+        DeveloperEntity stale = developerRepository.save(DataUtils.getJohnDoeTransient()).block();
+        DeveloperEntity withoutStatus = developerRepository.save(DataUtils.getMikeSmithTransient()).block();
+        developerRepository.patch(stale.getId(), DeveloperEntity.builder().firstName("Johnny").build()).block();//кто-то успел изменить
+        stale.setFirstName("Jack");
+        withoutStatus.setFirstName("Michael");
+        withoutStatus.setStatus(null);
+        //when
+        List<DeveloperBatchResult> results = cachingDeveloperService.saveDevelopers(Flux.just(stale, withoutStatus))
+                .collectList()
+                .block();
+        //then
+        assertThat(results.get(0).errorCode()).isEqualTo("DEVELOPER_VERSION_CONFLICT");
+        assertThat(results.get(1).outcome()).isEqualTo(DeveloperBatchResult.Outcome.UPDATED);
+        assertThat(results.get(1).developer().getVersion()).isEqualTo(1L);
+        DeveloperEntity kept = developerRepository.findById(stale.getId()).block();
+        assertThat(kept.getFirstName()).isEqualTo("Johnny");
+        DeveloperEntity updated = developerRepository.findById(withoutStatus.getId()).block();
+        assertThat(updated.getFirstName()).isEqualTo("Michael");
+        assertThat(updated.getStatus()).isEqualTo(Status.ACTIVE);
+    }
+}
@@ -0,0 +1,82 @@
+package net.proselyte.qafordevsreactive.service;
+
+import net.proselyte.qafordevsreactive.config.DeveloperProperties;
+import net.proselyte.qafordevsreactive.entity.DeveloperEntity;
+import net.proselyte.qafordevsreactive.repository.InMemoryDeveloperRepository;
+import net.proselyte.qafordevsreactive.util.DataUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+
+public class DeveloperByIdBatcherTests {
+
+    private InMemoryDeveloperRepository developerRepository;
+    private DeveloperProperties developerProperties;
+
+    @BeforeEach
+    public void setUp() {
+        developerRepository = Mockito.spy(new InMemoryDeveloperRepository());
+        developerRepository.save(DataUtils.getJohnDoeTransient()).block();
+        developerRepository.save(DataUtils.getMikeSmithTransient()).block();
+        developerProperties = new DeveloperProperties();
+        developerProperties.getCoalescing().setEnabled(true);
+    }
+
+    @Test
+    @DisplayName("Test concurrent lookups are coalesced into one query functionality")
+    public void givenConcurrentLookups_whenFindById_thenOneBatchQueryIsExecuted() {
+        //given
+        developerProperties.getCoalescing().setWindow(Duration.ofMillis(50));
+        DeveloperByIdBatcher batcher = new DeveloperByIdBatcher(developerRepository, developerProperties);
+        //when
+        StepVerifier.create(Mono.zip(
+                        batcher.findById(1),
+                        batcher.findById(1),//дубликат - тот же ключ пачки
+                        batcher.findById(2),
+                        batcher.findById(999).map(Optional::of).defaultIfEmpty(Optional.empty())))
+                //then
+                .expectNextMatches(result -> result.getT1().getId() == 1 && result.getT2().getId() == 1
+                        && result.getT3().getId() == 2 && result.getT4().isEmpty())
+                .verifyComplete();
+        Mockito.verify(developerRepository, Mockito.times(1)).findAllByIds(any());
+        Mockito.verify(developerRepository, Mockito.never()).findById(anyInt());
+    }
+
+    @Test
+    @DisplayName("Test full batch is sent before the window ends functionality")
+    public void givenMaxBatchSizeReached_whenFindById_thenBatchIsSentImmediately() {
+        //given
+        developerProperties.getCoalescing().setWindow(Duration.ofMinutes(1));
+        developerProperties.getCoalescing().setMaxBatchSize(2);
+        DeveloperByIdBatcher batcher = new DeveloperByIdBatcher(developerRepository, developerProperties);
+        //when
+        StepVerifier.create(Mono.zip(batcher.findById(1), batcher.findById(2)))
+                //then
+                .expectNextMatches(result -> result.getT1().getId() == 1 && result.getT2().getId() == 2)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("Test disabled coalescing functionality")
+    public void givenCoalescingDisabled_whenFindById_thenPlainFindByIdIsUsed() {
+        //given
+        developerProperties.getCoalescing().setEnabled(false);
+        DeveloperByIdBatcher batcher = new DeveloperByIdBatcher(developerRepository, developerProperties);
+        //when
+        StepVerifier.create(batcher.findById(1).map(DeveloperEntity::getId))
+                //then
+                .expectNext(1)
+                .verifyComplete();
+        Mockito.verify(developerRepository, Mockito.never()).findAllByIds(any());
+    }
+}
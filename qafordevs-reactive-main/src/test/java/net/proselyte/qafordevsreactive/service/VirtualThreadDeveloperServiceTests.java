@@ -0,0 +1,128 @@
+package net.proselyte.qafordevsreactive.service;
+
+import net.proselyte.qafordevsreactive.config.DeveloperProperties;
+import net.proselyte.qafordevsreactive.entity.DeveloperEntity;
+import net.proselyte.qafordevsreactive.event.DeveloperChangeFeed;
+import net.proselyte.qafordevsreactive.exception.DeveloperNotFoundException;
+import net.proselyte.qafordevsreactive.exception.DeveloperVersionConflictException;
+import net.proselyte.qafordevsreactive.exception.DeveloperWithEmailAlreadyExistsException;
+import net.proselyte.qafordevsreactive.util.DataUtils;
+import net.proselyte.qafordevsreactive.util.InMemoryBlockingDeveloperRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class VirtualThreadDeveloperServiceTests {
+
+    //блокирующий сервис поверх репозитория в памяти: проверяем что он ведет себя так же как реактивный DeveloperServiceImpl
+    //(те же исключения, значит те же ответы клиенту) и что работа действительно идет в виртуальных потоках
+
+    private Scheduler scheduler;
+
+    private VirtualThreadDeveloperService developerService;
+
+    @BeforeEach
+    public void setUp() {
+        scheduler = Schedulers.fromExecutorService(Executors.newVirtualThreadPerTaskExecutor());
+        DeveloperProperties developerProperties = new DeveloperProperties();
+        developerService = new VirtualThreadDeveloperService(new InMemoryBlockingDeveloperRepository(), developerProperties,
+                new DeveloperChangeFeed(developerProperties), scheduler);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        scheduler.dispose();
+    }
+
+    @Test
+    @DisplayName("Test create and get developer on virtual thread functionality")
+    public void givenDeveloper_whenCreateAndGetById_thenDeveloperIsReturned() {
+        //given
+        DeveloperEntity created = developerService.createDeveloper(DataUtils.getJohnDoeTransient()).block();
+        //when
+        StepVerifier.create(developerService.getById(created.getId())
+                        .map(developer -> Thread.currentThread().isVirtual()))
+                //then
+                .expectNext(true)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Test create developer with duplicate email functionality")
+    public void givenExistingEmail_whenCreateDeveloper_thenExceptionIsThrown() {
+        //given
+        developerService.createDeveloper(DataUtils.getJohnDoeTransient()).block();
+        //when
+        StepVerifier.create(developerService.createDeveloper(DataUtils.getJohnDoeTransient()))
+                //then
+                .expectError(DeveloperWithEmailAlreadyExistsException.class)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("Test update developer with stale version functionality")
+    public void givenStaleVersion_whenUpdateDeveloper_thenConflictIsThrown() {
+        //given
+        DeveloperEntity created = developerService.createDeveloper(DataUtils.getJohnDoeTransient()).block();
+        DeveloperEntity update = DataUtils.getJohnDoeTransient();
+        update.setId(created.getId());
+        update.setVersion(0L);
+        DeveloperEntity updated = developerService.updateDeveloper(update).block();
+        update.setVersion(0L);//клиент все еще держит старую версию
+        //when
+        StepVerifier.create(developerService.updateDeveloper(update))
+                //then
+                .expectError(DeveloperVersionConflictException.class)
+                .verify();
+        assertThat(updated.getVersion()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Test soft delete developer by incorrect id functionality")
+    public void givenIncorrectId_whenSoftDeleteById_thenExceptionIsThrown() {
+        //when
+        StepVerifier.create(developerService.softDeleteById(999))
+                //then
+                .expectError(DeveloperNotFoundException.class)
+                .verify();
+    }
+
+    @Test//строка упала посередине пачки: записанные до нее остаются CREATED, а не FAILED всей пачкой
+    @DisplayName("Test save developers when write fails in the middle of chunk functionality")
+    public void givenWriteFailsMidChunk_whenSaveDevelopers_thenWrittenRowsAreReportedAsWritten() {
+        //given
+        DeveloperProperties developerProperties = new DeveloperProperties();
+        InMemoryBlockingDeveloperRepository failingUpdates = new InMemoryBlockingDeveloperRepository() {
+            @Override
+            public Optional<DeveloperEntity> update(DeveloperEntity developer, boolean checkVersion) {
+                throw new IllegalStateException("Connection lost");
+            }
+        };
+        VirtualThreadDeveloperService service = new VirtualThreadDeveloperService(failingUpdates, developerProperties,
+                new DeveloperChangeFeed(developerProperties), scheduler);
+        DeveloperEntity existing = service.createDeveloper(DataUtils.getMikeSmithTransient()).block();
+        existing.setFirstName("Michael");
+        //when
+        List<DeveloperBatchResult> results = service.saveDevelopers(Flux.just(DataUtils.getJohnDoeTransient(), existing,
+                        DataUtils.getFrankJonesTransient()))
+                .collectList()
+                .block();
+        //then
+        assertThat(results).extracting(DeveloperBatchResult::outcome).containsExactly(DeveloperBatchResult.Outcome.CREATED,
+                DeveloperBatchResult.Outcome.FAILED, DeveloperBatchResult.Outcome.FAILED);
+        assertThat(results).extracting(DeveloperBatchResult::errorCode).containsExactly(null,
+                "DEVELOPER_BATCH_FAILED", "DEVELOPER_BATCH_FAILED");
+        assertThat(failingUpdates.findById(results.get(0).developer().getId())).isPresent();
+    }
+}
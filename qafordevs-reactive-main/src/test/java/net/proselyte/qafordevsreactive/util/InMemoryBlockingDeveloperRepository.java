@@ -0,0 +1,134 @@
+package net.proselyte.qafordevsreactive.util;
+
+import net.proselyte.qafordevsreactive.entity.DeveloperEntity;
+import net.proselyte.qafordevsreactive.repository.BlockingDeveloperRepository;
+import net.proselyte.qafordevsreactive.repository.InMemoryDeveloperRepository;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+//блокирующая заглушка для VirtualThreadDeveloperService поверх InMemoryDeveloperRepository: те же данные и та же семантика
+//версий, но без БД. latency имитирует время запроса к БД (поток просто спит, виртуальный поток при этом отпускает носитель)
+public class InMemoryBlockingDeveloperRepository implements BlockingDeveloperRepository {
+
+    private final InMemoryDeveloperRepository developers;
+    private final Duration latency;
+
+    public InMemoryBlockingDeveloperRepository(InMemoryDeveloperRepository developers, Duration latency) {
+        this.developers = developers;
+        this.latency = latency;
+    }
+
+    public InMemoryBlockingDeveloperRepository() {
+        this(new InMemoryDeveloperRepository(), Duration.ZERO);
+    }
+
+    private void simulateQuery() {
+        if (latency.isZero()) {
+            return;
+        }
+        try {
+            Thread.sleep(latency);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public Optional<DeveloperEntity> findById(Integer id) {
+        simulateQuery();
+        return developers.findById(id).blockOptional();
+    }
+
+    @Override
+    public boolean existsById(Integer id) {
+        simulateQuery();
+        return Boolean.TRUE.equals(developers.existsById(id).block());
+    }
+
+    @Override
+    public List<DeveloperEntity> findAllByIdIn(Collection<Integer> ids) {
+        simulateQuery();
+        return developers.findAllByIds(ids.toArray(Integer[]::new)).collectList().block();
+    }
+
+    @Override
+    public List<DeveloperEntity> findAllByEmailIn(Collection<String> emails) {
+        simulateQuery();
+        return developers.findAllByEmailIn(emails).collectList().block();
+    }
+
+    @Override
+    public List<DeveloperEntity> findAllActiveBySpecialty(String specialty) {
+        simulateQuery();
+        return developers.findAllActiveBySpecialty(specialty).collectList().block();
+    }
+
+    @Override
+    public long findSpecialtyVersion(String specialty) {
+        simulateQuery();
+        return developers.findSpecialtyVersion(specialty).block();
+    }
+
+    @Override
+    public List<DeveloperEntity> findPageAfter(int after, int limit) {
+        simulateQuery();
+        return developers.findPageAfter(after, limit).collectList().block();
+    }
+
+    @Override
+    public List<DeveloperEntity> searchActiveByPrefix(String prefix, int limit) {
+        simulateQuery();
+        return developers.searchActiveByPrefix(prefix, limit).collectList().block();
+    }
+
+    @Override
+    public Optional<Integer> insertIfEmailAbsent(DeveloperEntity developer) {
+        simulateQuery();
+        return developers.insertIfEmailAbsent(developer).blockOptional();
+    }
+
+    @Override
+    public Optional<DeveloperEntity> update(DeveloperEntity developer, boolean checkVersion) {
+        simulateQuery();
+        return developers.findById(developer.getId()).blockOptional()
+                .flatMap(existing -> {
+                    DeveloperEntity changed = DeveloperEntity.builder()
+                            .id(developer.getId())
+                            .firstName(developer.getFirstName())
+                            .lastName(developer.getLastName())
+                            .email(developer.getEmail())
+                            .specialty(developer.getSpecialty())
+                            .status(developer.getStatus())
+                            .version(checkVersion ? developer.getVersion() : existing.getVersion())
+                            .build();
+                    try {
+                        return developers.save(changed).blockOptional();
+                    } catch (OptimisticLockingFailureException e) {//как UPDATE ... AND version = ? который не нашел строку
+                        return Optional.empty();
+                    }
+                });
+    }
+
+    @Override
+    public Optional<DeveloperEntity> patch(Integer id, DeveloperEntity changes) {
+        simulateQuery();
+        return developers.patch(id, changes).blockOptional();
+    }
+
+    @Override
+    public long softDeleteById(Integer id) {
+        simulateQuery();
+        return developers.softDeleteById(id).block();
+    }
+
+    @Override
+    public long hardDeleteById(Integer id) {
+        simulateQuery();
+        return developers.hardDeleteById(id).block();
+    }
+}